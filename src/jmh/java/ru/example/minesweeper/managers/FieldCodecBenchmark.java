@@ -0,0 +1,79 @@
+package ru.example.minesweeper.managers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.example.minesweeper.model.FieldCell;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary board format with the legacy JSON one ({@code fieldToString} and the
+ * {@code FieldManager(String)} constructor).
+ * Encoded sizes for every board size are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldCodecBenchmark {
+
+    @Param({"9", "30", "100", "300"})
+    private int size;
+
+    private FieldManager fieldManager;
+    private FieldCell[][] field;
+    private String json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fieldManager = new FieldManager(size, size);
+        fieldManager.placeMines(size * size / 6);
+        fieldManager.cascadeOpenCells(size / 2, size / 2);
+
+        field = fieldManager.getField();
+        json = fieldManager.fieldToString();
+        binary = fieldManager.fieldToBytes();
+
+        System.out.printf("%n%dx%d board: json %d bytes, binary %d bytes%n",
+                size, size, json.getBytes(StandardCharsets.UTF_8).length, binary.length);
+    }
+
+    @Benchmark
+    public String encodeJson() {
+        return fieldManager.fieldToString();
+    }
+
+    @Benchmark
+    public FieldCell[][] decodeJson() {
+        return new FieldManager(json).getField();
+    }
+
+    @Benchmark
+    public FieldManager roundTripJson() {
+        return new FieldManager(fieldManager.fieldToString());
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return FieldCodec.encode(field);
+    }
+
+    @Benchmark
+    public FieldCell[][] decodeBinary() {
+        return FieldCodec.decode(binary);
+    }
+}
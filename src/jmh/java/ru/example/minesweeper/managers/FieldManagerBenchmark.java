@@ -0,0 +1,141 @@
+package ru.example.minesweeper.managers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.example.minesweeper.model.FieldCell;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dense board hot paths from 9x9 up to the chunked threshold (1000x1000) and one size past it.
+ * {@code density} is the share of mines: 0.05 gives long cascades, 0.2 and 0.5 short ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldManagerBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param({"9", "30", "100", "1000", "2000"})
+    private int size;
+
+    @Param({"0.05", "0.2", "0.5"})
+    private double density;
+
+    private int minesCount;
+    private byte[] initialBoard;
+    private int startRow;
+    private int startCol;
+    private FieldManager board;
+    private FieldManager halfOpenBoard;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        minesCount = (int) ((long) size * size * density);
+
+        FieldManager fieldManager = new FieldManager(size, size);
+        fieldManager.placeMines(minesCount, SEED);
+        initialBoard = fieldManager.fieldToBytes();
+
+        int[] start = findLargestStart(fieldManager);
+        startRow = start[0];
+        startCol = start[1];
+
+        halfOpenBoard = new FieldManager(initialBoard);
+        halfOpenBoard.cascadeOpenCells(startRow, startCol);
+    }
+
+    /**
+     * Cascades mutate the board, so every call gets a fresh copy. Per-invocation setup is
+     * only accurate for calls well above a microsecond; the 9x9 numbers are indicative.
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        board = new FieldManager(initialBoard);
+    }
+
+    @Benchmark
+    public FieldManager placeMines() {
+        FieldManager fieldManager = new FieldManager(size, size);
+        fieldManager.placeMines(minesCount, SEED);
+        return fieldManager;
+    }
+
+    @Benchmark
+    public int cascadeOpenCells() {
+        return board.cascadeOpenCells(startRow, startCol);
+    }
+
+    @Benchmark
+    public boolean isGameComplete() {
+        return halfOpenBoard.isGameComplete();
+    }
+
+    /**
+     * Cell in the largest connected area of zero cells, so sparse boards exercise the long path.
+     * A board without zero cells falls back to the first safe cell.
+     */
+    private static int[] findLargestStart(FieldManager fieldManager) {
+        FieldCell[][] field = fieldManager.getField();
+        int height = fieldManager.getHeight();
+        int width = fieldManager.getWidth();
+        boolean[] visited = new boolean[height * width];
+        int[] stack = new int[height * width];
+        int[] best = null;
+        int bestArea = 0;
+
+        for (int index = 0; index < height * width; index++) {
+            FieldCell cell = field[index / width][index % width];
+            if (cell.isMine()) {
+                continue;
+            }
+            if (best == null) {
+                best = new int[]{index / width, index % width};
+            }
+            if (cell.getNearbyMine() != 0 || visited[index]) {
+                continue;
+            }
+
+            int area = 0;
+            int top = 0;
+            stack[top++] = index;
+            visited[index] = true;
+            while (top > 0) {
+                int current = stack[--top];
+                area++;
+                int row = current / width;
+                int col = current % width;
+                for (int i = Math.max(0, row - 1); i <= Math.min(height - 1, row + 1); i++) {
+                    for (int j = Math.max(0, col - 1); j <= Math.min(width - 1, col + 1); j++) {
+                        int neighbour = i * width + j;
+                        if (!visited[neighbour] && !field[i][j].isMine() && field[i][j].getNearbyMine() == 0) {
+                            visited[neighbour] = true;
+                            stack[top++] = neighbour;
+                        }
+                    }
+                }
+            }
+
+            if (area > bestArea) {
+                bestArea = area;
+                best = new int[]{index / width, index % width};
+            }
+        }
+
+        return best;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.example.minesweeper.managers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.example.minesweeper.model.FieldCell;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeded sparse Fisher–Yates placement against the former rejection sampling,
+ * on a 30x30 board at increasing mine density.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinePlacementBenchmark {
+
+    private static final int SIZE = 30;
+
+    @Param({"0.1", "0.5", "0.9", "0.99"})
+    private double density;
+
+    private long seed;
+
+    @Benchmark
+    public FieldManager fisherYates() {
+        FieldManager fieldManager = new FieldManager(SIZE, SIZE);
+        fieldManager.placeMines(minesCount(), seed++);
+        return fieldManager;
+    }
+
+    @Benchmark
+    public FieldManager rejectionSampling() {
+        FieldManager fieldManager = new FieldManager(SIZE, SIZE);
+        placeMinesByRejection(fieldManager.getField(), minesCount());
+        return fieldManager;
+    }
+
+    private int minesCount() {
+        return (int) (SIZE * SIZE * density);
+    }
+
+    private static void placeMinesByRejection(FieldCell[][] field, int minesCount) {
+        Random random = new Random();
+        int mines = minesCount;
+
+        while (mines != 0) {
+            int row = random.nextInt(SIZE);
+            int col = random.nextInt(SIZE);
+            FieldCell cell = field[row][col];
+
+            if (!cell.isMine()) {
+                cell.setMine(true);
+                for (int i = Math.max(0, row - 1); i <= Math.min(SIZE - 1, row + 1); i++) {
+                    for (int j = Math.max(0, col - 1); j <= Math.min(SIZE - 1, col + 1); j++) {
+                        if (i != row || j != col) {
+                            field[i][j].incrementNearbyMine();
+                        }
+                    }
+                }
+                mines--;
+            }
+        }
+    }
+}
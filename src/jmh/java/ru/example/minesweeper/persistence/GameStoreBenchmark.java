@@ -0,0 +1,138 @@
+package ru.example.minesweeper.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import ru.example.minesweeper.MinesweeperApplication;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.services.GameService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameService#gameTurn} in the application context with the cache off, so every turn loads
+ * and saves the game through the store: {@code mapped} ({@link MappedGameStore}) against
+ * {@code blob} ({@link BlobGameStore} over JPA and JDBC batches).
+ * <p>
+ * The database is the test one, in-memory H2. To measure against the Postgres of
+ * {@code docker-compose.yml}, run with {@code SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/game_db},
+ * {@code SPRING_DATASOURCE_USERNAME}, {@code SPRING_DATASOURCE_PASSWORD} and
+ * {@code SPRING_DATASOURCE_DRIVER_CLASS_NAME=org.postgresql.Driver} in the environment.
+ * <p>
+ * The moves are those of {@code GameServiceBenchmark}: one safe cell next to a mine per turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStoreBenchmark {
+
+    @Param({"mapped", "blob"})
+    private String mode;
+
+    @Param({"9", "30", "100"})
+    private int size;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private GameStore gameStore;
+    private GameTurnRequest request;
+    private List<int[]> moves;
+    private int nextMove;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("game-store-benchmark");
+        context = new SpringApplicationBuilder(MinesweeperApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--minefield.persistence.mode=" + mode,
+                        "--minefield.persistence.mapped.path=" + directory.resolve("games.db"),
+                        "--minefield.cache.enabled=false",
+                        "--minefield.pool.enabled=false",
+                        "--minefield.archive.enabled=false",
+                        "--minefield.field-length=" + size,
+                        "--logging.level.root=WARN");
+        gameService = context.getBean(GameService.class);
+        gameStore = context.getBean(GameStore.class);
+
+        newGame();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public GameInfoResponse gameTurn() {
+        if (nextMove == moves.size()) {
+            newGame();
+        }
+
+        int[] move = moves.get(nextMove++);
+        request.setRow(move[0]);
+        request.setCol(move[1]);
+        return gameService.gameTurn(request);
+    }
+
+    private void newGame() {
+        NewGameRequest newGameRequest = new NewGameRequest();
+        newGameRequest.setHeight(size);
+        newGameRequest.setWidth(size);
+        newGameRequest.setMinesCount(size * size / 5);
+        UUID gameId = gameService.createGame(newGameRequest).getGameId();
+
+        Minefield minefield = gameStore.load(gameId).orElseThrow().getMinefield();
+        moves = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (!minefield.isMine(i, j) && hasMineNearby(minefield, i, j)) {
+                    moves.add(new int[]{i, j});
+                }
+            }
+        }
+        nextMove = 0;
+
+        request = new GameTurnRequest();
+        request.setGameId(gameId);
+        request.setDelta(true);
+    }
+
+    private static boolean hasMineNearby(Minefield minefield, int row, int col) {
+        for (int i = Math.max(0, row - 1); i <= Math.min(minefield.getHeight() - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(minefield.getWidth() - 1, col + 1); j++) {
+                if (minefield.isMine(i, j)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.example.minesweeper.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.example.minesweeper.cache.GameCache;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.persistence.BlobGameStore;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameService#gameTurn} end to end without a database, through the cache
+ * ({@code cache=true}, write-behind that is never flushed here) or straight to the
+ * repository ({@code cache=false}, encode and save on every turn).
+ * <p>
+ * Each turn opens one safe cell next to a mine, so the work per turn does not depend on
+ * the layout. When a game runs out of such cells a new one is created; that cost is spread
+ * over the hundreds to hundreds of thousands of turns the game lasts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    @Param({"9", "30", "100", "1000"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean cache;
+
+    @Param({"false", "true"})
+    private boolean delta;
+
+    private GameService gameService;
+    private GameTurnRequest request;
+    private List<int[]> moves;
+    private int nextMove;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameRepository gameRepository = InMemoryGameRepository.create();
+        BlobGameStore gameStore = new BlobGameStore(gameRepository);
+
+        gameService = new GameService();
+        ReflectionTestUtils.setField(gameService, "FIELD_LENGTH", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(gameService, "CHUNKED_THRESHOLD_CELLS", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(gameService, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(gameService, "gameStore", gameStore);
+        ReflectionTestUtils.setField(gameService, "gameLocks", new GameLocks());
+        ReflectionTestUtils.setField(gameService, "gameCache", new GameCache(gameStore, cache, 16));
+
+        newGame(gameStore);
+    }
+
+    @Benchmark
+    public GameInfoResponse gameTurn() {
+        if (nextMove == moves.size()) {
+            newGame((BlobGameStore) gameService.getGameStore());
+        }
+
+        int[] move = moves.get(nextMove++);
+        request.setRow(move[0]);
+        request.setCol(move[1]);
+        return gameService.gameTurn(request);
+    }
+
+    private void newGame(BlobGameStore gameStore) {
+        NewGameRequest newGameRequest = new NewGameRequest();
+        newGameRequest.setHeight(size);
+        newGameRequest.setWidth(size);
+        newGameRequest.setMinesCount(size * size / 5);
+        UUID gameId = gameService.createGame(newGameRequest).getGameId();
+
+        Minefield minefield = gameStore.load(gameId).orElseThrow().getMinefield();
+        moves = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (!minefield.isMine(i, j) && hasMineNearby(minefield, i, j)) {
+                    moves.add(new int[]{i, j});
+                }
+            }
+        }
+        nextMove = 0;
+
+        request = new GameTurnRequest();
+        request.setGameId(gameId);
+        request.setDelta(delta);
+    }
+
+    private static boolean hasMineNearby(Minefield minefield, int row, int col) {
+        for (int i = Math.max(0, row - 1); i <= Math.min(minefield.getHeight() - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(minefield.getWidth() - 1, col + 1); j++) {
+                if (minefield.isMine(i, j)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
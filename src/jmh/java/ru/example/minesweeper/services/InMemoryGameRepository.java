@@ -0,0 +1,52 @@
+package ru.example.minesweeper.services;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link GameRepository} backed by a map, implementing only what the service and the blob store call:
+ * {@code save}, {@code saveAll} and {@code findById}. Keeps the database out of service benchmarks.
+ */
+final class InMemoryGameRepository {
+
+    private InMemoryGameRepository() {
+    }
+
+    static GameRepository create() {
+        Map<UUID, Game> games = new ConcurrentHashMap<>();
+
+        return (GameRepository) Proxy.newProxyInstance(
+                GameRepository.class.getClassLoader(),
+                new Class<?>[]{GameRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> store(games, (Game) args[0]);
+                    case "saveAll" -> {
+                        for (Object game : (Iterable<?>) args[0]) {
+                            store(games, (Game) game);
+                        }
+                        yield args[0] instanceof List<?> list ? list : List.of();
+                    }
+                    case "findById" -> Optional.ofNullable(games.get((UUID) args[0]));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryGameRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Game store(Map<UUID, Game> games, Game game) {
+        if (game.getId() == null) {
+            ReflectionTestUtils.setField(game, "id", UUID.randomUUID());
+        }
+        games.put(game.getId(), game);
+        return game;
+    }
+}
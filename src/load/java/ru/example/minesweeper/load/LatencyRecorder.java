@@ -0,0 +1,49 @@
+package ru.example.minesweeper.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client-side latencies of one endpoint. Every sample is kept, which is fine for the
+ * few million requests of a local run and gives exact percentiles.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos, boolean error) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughput_per_sec", count / seconds);
+        summary.put("p50_ms", percentile(sorted, 0.50));
+        summary.put("p99_ms", percentile(sorted, 0.99));
+        summary.put("p999_ms", percentile(sorted, 0.999));
+        summary.put("max_ms", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.example.minesweeper.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadReplay}, given as {@code --name=value}. Unknown options are left
+ * to Spring, so {@code --minefield.cache.enabled=false} configures the embedded server.
+ *
+ * @param target      base URL of a running service; null boots one in-process on H2
+ * @param concurrency number of virtual players sending requests
+ * @param rate        total requests per second across all players, 0 for as fast as possible
+ * @param warmup      traffic sent before measuring starts
+ * @param duration    measured traffic after the warmup
+ * @param traffic     JSONL file to replay instead of synthesized games
+ * @param turnsPerGame turns before a synthesized player starts a new game, 0 to play to the end
+ * @param report      where the JSON report is written
+ */
+record LoadOptions(String target, int concurrency, double rate, Duration warmup, Duration duration,
+                   Path traffic, int height, int width, int minesCount, int turnsPerGame, Path report) {
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        return new LoadOptions(
+                values.get("target"),
+                Integer.parseInt(values.getOrDefault("concurrency", "8")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "5"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "30"))),
+                values.containsKey("traffic") ? Path.of(values.get("traffic")) : null,
+                Integer.parseInt(values.getOrDefault("height", "16")),
+                Integer.parseInt(values.getOrDefault("width", "16")),
+                Integer.parseInt(values.getOrDefault("mines", "40")),
+                Integer.parseInt(values.getOrDefault("turns-per-game", "0")),
+                Path.of(values.getOrDefault("report", "target/load-report.json")));
+    }
+}
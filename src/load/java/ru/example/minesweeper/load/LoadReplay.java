@@ -0,0 +1,241 @@
+package ru.example.minesweeper.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.example.minesweeper.MinesweeperApplication;
+import ru.example.minesweeper.controllers.MinesweeperController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for {@code /api/new} and {@code /api/turn}.
+ * <p>
+ * Without {@code --target} the service is started in-process on the H2 test database, and the
+ * report also splits server time per endpoint into CPU and database time. Traffic is either
+ * synthesized (every player creates a game and plays random hidden cells until it ends) or
+ * replayed from a JSONL file, see {@link RecordedTraffic}. With {@code --rate} requests are sent
+ * on a fixed schedule and latency is measured from the scheduled time, so a slow server is not
+ * hidden by the generator waiting for it.
+ * <pre>
+ * mvn -Pload test-compile exec:java -Dexec.args="--concurrency=32 --rate=2000 --duration=60"
+ * </pre>
+ */
+public final class LoadReplay {
+
+    static final String NEW_GAME = "/api/new";
+    static final String TURN = "/api/turn";
+
+    private final LoadOptions options;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final long slotNanos;
+
+    private volatile long measureFrom;
+    private volatile long deadline;
+
+    LoadReplay(LoadOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.slotNanos = options.rate() > 0 ? (long) (1e9 / options.rate()) : 0;
+        recorders.put(NEW_GAME, new LatencyRecorder());
+        recorders.put(TURN, new LatencyRecorder());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.target();
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(MinesweeperApplication.class, ServerTimings.class)
+                    .properties("server.port=0",
+                            "logging.level.root=WARN",
+                            "minefield.field-length=" + Math.max(options.height(), options.width()))
+                    .run(args);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            Map<String, Object> report = new LoadReplay(options, baseUrl).run(context != null);
+            String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+            Files.createDirectories(options.report().toAbsolutePath().getParent());
+            Files.writeString(options.report(), json);
+            System.out.println(json);
+            System.out.println("Report written to " + options.report().toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    Map<String, Object> run(boolean embedded) throws Exception {
+        List<Runnable> players = new ArrayList<>();
+        if (options.traffic() != null) {
+            RecordedTraffic.load(options.traffic(), objectMapper, options.concurrency())
+                    .forEach(games -> players.add(() -> games.forEach(this::replay)));
+        } else {
+            for (int i = 0; i < options.concurrency(); i++) {
+                players.add(this::playRandomGames);
+            }
+        }
+
+        long start = System.nanoTime();
+        nextSlot.set(start);
+        measureFrom = start + options.warmup().toNanos();
+        deadline = measureFrom + options.duration().toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(players.size());
+        players.forEach(executor::submit);
+        executor.shutdown();
+
+        if (!executor.awaitTermination(options.warmup().toMillis(), TimeUnit.MILLISECONDS)) {
+            ServerTimings.reset();
+        }
+        executor.awaitTermination(options.duration().toMillis() + 60_000, TimeUnit.MILLISECONDS);
+        executor.shutdownNow();
+        double seconds = Math.max(1e-9, (Math.min(System.nanoTime(), deadline) - Math.max(start, measureFrom)) / 1e9);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", baseUrl);
+        report.put("concurrency", players.size());
+        report.put("rate", options.rate());
+        report.put("measured_seconds", seconds);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> endpoints.put(endpoint, recorder.summary(seconds)));
+        report.put("client", endpoints);
+        if (embedded) {
+            report.put("server", ServerTimings.summary());
+        }
+        return report;
+    }
+
+    private void playRandomGames() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int cells = options.height() * options.width();
+
+        while (System.nanoTime() < deadline) {
+            JsonNode game = send(NEW_GAME, Map.of(
+                    "height", options.height(),
+                    "width", options.width(),
+                    "mines_count", options.minesCount()));
+            if (game == null) {
+                continue;
+            }
+
+            String gameId = game.get("game_id").asText();
+            BitSet opened = new BitSet(cells);
+            int turns = 0;
+            while (System.nanoTime() < deadline && opened.cardinality() < cells
+                    && (options.turnsPerGame() == 0 || turns < options.turnsPerGame())) {
+                int cell = random.nextInt(cells);
+                while (opened.get(cell)) {
+                    cell = (cell + 1) % cells;
+                }
+
+                JsonNode result = send(TURN, turn(gameId, cell / options.width(), cell % options.width()));
+                turns++;
+                if (result == null || result.path("completed").asBoolean()) {
+                    break;
+                }
+                opened.set(cell);
+                for (JsonNode change : result.path("changes")) {
+                    opened.set(change.get(0).asInt() * options.width() + change.get(1).asInt());
+                }
+            }
+        }
+    }
+
+    private void replay(RecordedTraffic.Game game) {
+        if (System.nanoTime() >= deadline) {
+            return;
+        }
+
+        JsonNode created = send(NEW_GAME, game.newGame());
+        if (created == null) {
+            return;
+        }
+        String gameId = created.get("game_id").asText();
+        for (int[] move : game.moves()) {
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+            send(TURN, turn(gameId, move[0], move[1]));
+        }
+    }
+
+    private static Map<String, Object> turn(String gameId, int row, int col) {
+        return Map.of("game_id", gameId, "row", row, "col", col);
+    }
+
+    /**
+     * @return the parsed response, or null if the service answered with an error
+     */
+    private JsonNode send(String endpoint, Object body) {
+        long scheduled = awaitSlot();
+        boolean error = true;
+        JsonNode result = null;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", MinesweeperController.DELTA_MEDIA_TYPE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            error = response.statusCode() >= 400;
+            result = error ? null : objectMapper.readTree(response.body());
+        } catch (IOException ex) {
+            result = null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (scheduled >= measureFrom && scheduled < deadline) {
+            recorders.get(endpoint).record(System.nanoTime() - scheduled, error);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for this request's place in the fixed-rate schedule.
+     *
+     * @return the time the request was meant to be sent
+     */
+    private long awaitSlot() {
+        if (slotNanos == 0) {
+            return System.nanoTime();
+        }
+
+        long slot = nextSlot.getAndAdd(slotNanos);
+        long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.example.minesweeper.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Traffic file for {@link LoadReplay}: one JSON object per line, games referred to by a local name.
+ * <pre>
+ * {"op": "new", "game": "g1", "height": 16, "width": 16, "mines_count": 40}
+ * {"op": "turn", "game": "g1", "row": 3, "col": 7}
+ * </pre>
+ * Turns of a game are replayed in file order by one player; games are spread over the players.
+ */
+final class RecordedTraffic {
+
+    record Game(Map<String, Object> newGame, List<int[]> moves) {
+    }
+
+    private RecordedTraffic() {
+    }
+
+    static List<List<Game>> load(Path file, ObjectMapper objectMapper, int players) throws IOException {
+        Map<String, Game> games = new LinkedHashMap<>();
+        int lineNumber = 0;
+
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            JsonNode entry = objectMapper.readTree(line);
+            String name = entry.path("game").asText();
+            switch (entry.path("op").asText()) {
+                case "new" -> games.put(name, new Game(Map.of(
+                        "height", entry.path("height").asInt(),
+                        "width", entry.path("width").asInt(),
+                        "mines_count", entry.path("mines_count").asInt()), new ArrayList<>()));
+                case "turn" -> {
+                    Game game = games.get(name);
+                    if (game == null) {
+                        throw new IllegalArgumentException("Line " + lineNumber + ": turn before new for game " + name);
+                    }
+                    game.moves().add(new int[]{entry.path("row").asInt(), entry.path("col").asInt()});
+                }
+                default -> throw new IllegalArgumentException("Line " + lineNumber + ": unknown op " + entry.path("op"));
+            }
+        }
+
+        List<List<Game>> byPlayer = new ArrayList<>();
+        for (int i = 0; i < Math.min(players, Math.max(1, games.size())); i++) {
+            byPlayer.add(new ArrayList<>());
+        }
+        int next = 0;
+        for (Game game : games.values()) {
+            byPlayer.get(next++ % byPlayer.size()).add(game);
+        }
+        return byPlayer;
+    }
+}
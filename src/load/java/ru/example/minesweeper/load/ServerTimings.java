@@ -0,0 +1,141 @@
+package ru.example.minesweeper.load;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-side split of request time for the embedded run: a filter measures wall and thread CPU
+ * time per endpoint, and the data source is wrapped so every JDBC call is timed. JDBC time spent
+ * outside a request, such as the cache's write-behind flush, is reported as background time.
+ */
+class ServerTimings {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final ThreadLocal<long[]> REQUEST_DB_NANOS = new ThreadLocal<>();
+
+    private static final Map<String, Totals> ENDPOINTS = new ConcurrentHashMap<>();
+    private static final LongAdder BACKGROUND_DB_NANOS = new LongAdder();
+
+    @Bean
+    OncePerRequestFilter serverTimingsFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                long[] dbNanos = new long[1];
+                REQUEST_DB_NANOS.set(dbNanos);
+                long cpuStart = THREADS.getCurrentThreadCpuTime();
+                long start = System.nanoTime();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    long wall = System.nanoTime() - start;
+                    long cpu = THREADS.getCurrentThreadCpuTime() - cpuStart;
+                    REQUEST_DB_NANOS.remove();
+                    ENDPOINTS.computeIfAbsent(request.getRequestURI(), uri -> new Totals())
+                            .add(wall, cpu, dbNanos[0]);
+                }
+            }
+        };
+    }
+
+    @Bean
+    static BeanPostProcessor timedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? timed(bean, DataSource.class) : bean;
+            }
+        };
+    }
+
+    static void reset() {
+        ENDPOINTS.clear();
+        BACKGROUND_DB_NANOS.reset();
+    }
+
+    static Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        ENDPOINTS.forEach((endpoint, totals) -> summary.put(endpoint, totals.summary()));
+        summary.put("background_db_ms", BACKGROUND_DB_NANOS.sum() / 1e6);
+        return summary;
+    }
+
+    /**
+     * Wraps a JDBC object so its calls are timed; connections, statements and result sets
+     * it returns are wrapped as well.
+     */
+    private static Object timed(Object target, Class<?> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            long start = System.nanoTime();
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof Connection || result instanceof Statement || result instanceof ResultSet) {
+                    Class<?> returned = method.getReturnType();
+                    if (returned.isInterface() && returned != Object.class) {
+                        return timed(result, returned);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            } finally {
+                addDbTime(System.nanoTime() - start);
+            }
+        };
+        return Proxy.newProxyInstance(ServerTimings.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static void addDbTime(long nanos) {
+        long[] requestNanos = REQUEST_DB_NANOS.get();
+        if (requestNanos != null) {
+            requestNanos[0] += nanos;
+        } else {
+            BACKGROUND_DB_NANOS.add(nanos);
+        }
+    }
+
+    private static final class Totals {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder dbNanos = new LongAdder();
+
+        void add(long wall, long cpu, long db) {
+            requests.increment();
+            wallNanos.add(wall);
+            cpuNanos.add(cpu);
+            dbNanos.add(db);
+        }
+
+        Map<String, Object> summary() {
+            long count = Math.max(1, requests.sum());
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", requests.sum());
+            summary.put("avg_wall_ms", wallNanos.sum() / 1e6 / count);
+            summary.put("avg_cpu_ms", cpuNanos.sum() / 1e6 / count);
+            summary.put("avg_db_ms", dbNanos.sum() / 1e6 / count);
+            return summary;
+        }
+    }
+}
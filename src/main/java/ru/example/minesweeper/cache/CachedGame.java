@@ -0,0 +1,129 @@
+package ru.example.minesweeper.cache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMove;
+import ru.example.minesweeper.model.TurnActionEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Live game held by {@link GameCache}. Callers mutate the game and its board
+ * while holding the monitor of this object and then call {@link GameCache#markDirty(CachedGame)}.
+ */
+@Getter
+public class CachedGame {
+
+    private final Game game;
+    @Getter(AccessLevel.NONE)
+    private Minefield minefield;
+    @Getter(AccessLevel.NONE)
+    private final Supplier<Minefield> loader;
+    @Getter(AccessLevel.NONE)
+    private List<GameMove> pendingMoves = new ArrayList<>();
+
+    private boolean dirty;
+    @Getter(AccessLevel.NONE)
+    private boolean saving;
+    private volatile long lastAccess;
+
+    public CachedGame(Game game, Minefield minefield) {
+        this(game, minefield, () -> Minefield.decode(game.getField()));
+    }
+
+    /**
+     * Game whose board is built by {@code loader} when first used.
+     */
+    public CachedGame(Game game, Supplier<Minefield> loader) {
+        this(game, null, loader);
+    }
+
+    private CachedGame(Game game, Minefield minefield, Supplier<Minefield> loader) {
+        this.game = game;
+        this.minefield = minefield;
+        this.loader = loader;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    public synchronized Minefield getMinefield() {
+        if (minefield == null) {
+            minefield = loader.get();
+        }
+        return minefield;
+    }
+
+    public synchronized boolean isLoaded() {
+        return minefield != null;
+    }
+
+    /**
+     * Appends a move applied at the game's current board version to the log kept until the next save.
+     */
+    public synchronized void recordMove(TurnActionEnum action, int row, int col) {
+        pendingMoves.add(GameMove.builder()
+                .gameId(game.getId())
+                .seq(game.getBoardVersion())
+                .action(action)
+                .row(row)
+                .col(col)
+                .build());
+    }
+
+    public synchronized List<GameMove> drainPendingMoves() {
+        List<GameMove> drained = pendingMoves;
+        pendingMoves = new ArrayList<>();
+        return drained;
+    }
+
+    /**
+     * Puts back moves drained by a save that failed, ahead of anything recorded since.
+     */
+    public synchronized void restorePendingMoves(List<GameMove> moves) {
+        List<GameMove> restored = new ArrayList<>(moves);
+        restored.addAll(pendingMoves);
+        pendingMoves = restored;
+    }
+
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Clears the dirty flag and marks a save as in flight until {@link #finishSave(boolean)}.
+     *
+     * @return true if the game changed since the last flush
+     */
+    synchronized boolean claimDirty() {
+        boolean wasDirty = dirty;
+        dirty = false;
+        saving |= wasDirty;
+        return wasDirty;
+    }
+
+    /**
+     * Ends the save started by {@link #claimDirty()}; a failed save leaves the game dirty.
+     */
+    synchronized void finishSave(boolean saved) {
+        saving = false;
+        dirty |= !saved;
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * @return true while the game has changes that are not stored yet, including those of a save in flight
+     */
+    synchronized boolean isUnsaved() {
+        return dirty || saving;
+    }
+}
@@ -0,0 +1,431 @@
+package ru.example.minesweeper.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.example.minesweeper.dto.CacheStatsResponse;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+import ru.example.minesweeper.persistence.GameStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of live boards with write-behind persistence through {@link GameStore}.
+ * <p>
+ * Turns run against the cached {@link Minefield}; dirty games are saved in batches by
+ * {@link #flush()} at least once per {@code minefield.cache.max-staleness}, and on shutdown.
+ * Games evicted while dirty, or while a save of them is in flight, stay reachable until they are
+ * saved, so a reload never reads a stale row.
+ * With {@code minefield.cache.enabled=false} every lookup goes to the store and
+ * {@link #markDirty(CachedGame)} saves immediately.
+ * <p>
+ * {@link #getMetadata(UUID)} answers from a cached game when there is one, and otherwise from a
+ * separate LRU of up to {@code minefield.cache.metadata-max-size} {@link GameMetadata} entries,
+ * which also keeps the metadata of games evicted from the board cache.
+ */
+@Slf4j
+@Component
+public class GameCache implements MeterBinder {
+
+    @Value("${minefield.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${minefield.cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    @Value("${minefield.cache.idle-timeout:10m}")
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    @Value("${minefield.cache.flush-batch-size:100}")
+    private int flushBatchSize = 100;
+
+    @Value("${minefield.cache.metadata-max-size:100000}")
+    private int metadataMaxSize = 100000;
+
+    @Autowired
+    private GameStore gameStore;
+
+    private final Map<UUID, CachedGame> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, CachedGame> evictedDirty = new ConcurrentHashMap<>();
+    private final Map<UUID, GameMetadata> metadata = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder flushedGames = new LongAdder();
+    private final LongAdder staleDiscards = new LongAdder();
+    private final LongAdder metadataHits = new LongAdder();
+    private final LongAdder metadataMisses = new LongAdder();
+
+    public GameCache() {
+    }
+
+    public GameCache(GameStore gameStore, boolean enabled, int maxSize) {
+        this.gameStore = gameStore;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+    }
+
+    public Optional<CachedGame> get(UUID gameId) {
+        if (enabled) {
+            CachedGame cached;
+            synchronized (entries) {
+                cached = entries.get(gameId);
+            }
+            if (cached != null) {
+                hits.increment();
+                cached.touch();
+                return Optional.of(cached);
+            }
+
+            cached = evictedDirty.remove(gameId);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(putIfAbsent(gameId, cached));
+            }
+        }
+
+        misses.increment();
+        return gameStore.load(gameId)
+                .map(cached -> enabled ? putIfAbsent(gameId, cached) : cached);
+    }
+
+    /**
+     * Looks up what a turn is validated against without loading the board.
+     */
+    public Optional<GameMetadata> getMetadata(UUID gameId) {
+        if (enabled) {
+            CachedGame cached;
+            synchronized (entries) {
+                cached = entries.get(gameId);
+            }
+            if (cached == null) {
+                cached = evictedDirty.get(gameId);
+            }
+            if (cached != null) {
+                metadataHits.increment();
+                return Optional.of(GameMetadata.of(cached.getGame()));
+            }
+
+            GameMetadata known;
+            synchronized (metadata) {
+                known = metadata.get(gameId);
+            }
+            if (known != null) {
+                metadataHits.increment();
+                return Optional.of(known);
+            }
+        }
+
+        metadataMisses.increment();
+        Optional<GameMetadata> loaded = gameStore.loadMetadata(gameId);
+        if (enabled) {
+            loaded.ifPresent(this::putMetadata);
+        }
+        return loaded;
+    }
+
+    private void putMetadata(GameMetadata gameMetadata) {
+        synchronized (metadata) {
+            metadata.put(gameMetadata.id(), gameMetadata);
+            Iterator<GameMetadata> iterator = metadata.values().iterator();
+            while (metadata.size() > metadataMaxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    public CachedGame put(Game game, Minefield minefield) {
+        CachedGame cached = new CachedGame(game, minefield);
+        if (enabled) {
+            cached = putIfAbsent(game.getId(), cached);
+        }
+        return cached;
+    }
+
+    public void markDirty(CachedGame cached) {
+        if (enabled) {
+            cached.markDirty();
+            return;
+        }
+
+        gameStore.save(List.of(cached));
+    }
+
+    /**
+     * @return true if the game is held in memory, where turns may change it before the next flush
+     */
+    public boolean contains(UUID gameId) {
+        synchronized (entries) {
+            if (entries.containsKey(gameId)) {
+                return true;
+            }
+        }
+        return evictedDirty.containsKey(gameId);
+    }
+
+    /**
+     * Drops the cached copy of a game without saving it, so the next lookup reads the store.
+     * Used when the copy turned out to be stale.
+     */
+    public void invalidate(UUID gameId) {
+        synchronized (entries) {
+            entries.remove(gameId);
+        }
+        evictedDirty.remove(gameId);
+        synchronized (metadata) {
+            metadata.remove(gameId);
+        }
+    }
+
+    /**
+     * @return ids of the games held in memory, including evicted ones not yet flushed
+     */
+    public List<UUID> cachedIds() {
+        List<UUID> ids;
+        synchronized (entries) {
+            ids = new ArrayList<>(entries.keySet());
+        }
+        ids.addAll(evictedDirty.keySet());
+        return ids;
+    }
+
+    /**
+     * Saves the game if it is dirty and drops it from memory, so that another instance can take
+     * it over. Must be called under the game's lock. A game whose save fails stays pending for the
+     * next {@link #flush()}.
+     */
+    public void release(UUID gameId) {
+        CachedGame cached;
+        synchronized (entries) {
+            cached = entries.remove(gameId);
+        }
+        synchronized (metadata) {
+            metadata.remove(gameId);
+        }
+        if (cached == null) {
+            cached = evictedDirty.get(gameId);
+        }
+        if (cached != null && cached.claimDirty()) {
+            evictedDirty.put(gameId, cached);
+            saveBatch(List.of(cached));
+        }
+    }
+
+    /**
+     * Saves the game now if it has turns not yet written, e.g. before reading its move log back.
+     * Must be called under the game's lock. A game whose save fails stays pending for the next
+     * {@link #flush()}.
+     */
+    public void flush(UUID gameId) {
+        CachedGame cached;
+        synchronized (entries) {
+            cached = entries.get(gameId);
+        }
+        if (cached == null) {
+            cached = evictedDirty.get(gameId);
+        }
+        if (cached != null && cached.claimDirty()) {
+            saveBatch(List.of(cached));
+        }
+    }
+
+    private CachedGame putIfAbsent(UUID gameId, CachedGame cached) {
+        List<CachedGame> evicted = new ArrayList<>();
+        CachedGame result;
+
+        synchronized (entries) {
+            result = entries.putIfAbsent(gameId, cached);
+            if (result == null) {
+                result = cached;
+            }
+
+            Iterator<Map.Entry<UUID, CachedGame>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                Map.Entry<UUID, CachedGame> eldest = iterator.next();
+                iterator.remove();
+                evicted.add(eldest.getValue());
+            }
+        }
+
+        evicted.forEach(this::retire);
+        return result;
+    }
+
+    private void retire(CachedGame cached) {
+        evictions.increment();
+        putMetadata(GameMetadata.of(cached.getGame()));
+        // a game whose save is in flight stays reachable until the save is known to have succeeded
+        if (cached.isUnsaved()) {
+            evictedDirty.put(cached.getGame().getId(), cached);
+        }
+    }
+
+    /**
+     * Saves every dirty game in batches and drops games idle for longer than
+     * {@code minefield.cache.idle-timeout}.
+     */
+    @Scheduled(fixedDelayString = "${minefield.cache.max-staleness:2s}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        evictIdle();
+
+        List<CachedGame> candidates;
+        synchronized (entries) {
+            candidates = new ArrayList<>(entries.values());
+        }
+        candidates.addAll(evictedDirty.values());
+
+        List<CachedGame> batch = new ArrayList<>(flushBatchSize);
+        for (CachedGame cached : candidates) {
+            if (!cached.claimDirty()) {
+                continue;
+            }
+            batch.add(cached);
+            if (batch.size() == flushBatchSize) {
+                saveBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch);
+        }
+    }
+
+    private void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleTimeout.toMillis();
+        List<CachedGame> evicted = new ArrayList<>();
+
+        synchronized (entries) {
+            Iterator<CachedGame> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                CachedGame cached = iterator.next();
+                if (cached.getLastAccess() < idleSince) {
+                    iterator.remove();
+                    evicted.add(cached);
+                }
+            }
+        }
+
+        evicted.forEach(this::retire);
+    }
+
+    private void saveBatch(List<CachedGame> batch) {
+        try {
+            gameStore.save(batch);
+            flushedGames.add(batch.size());
+            for (CachedGame cached : batch) {
+                cached.finishSave(true);
+                // kept if a turn changed it again during the save
+                evictedDirty.computeIfPresent(cached.getGame().getId(),
+                        (id, pending) -> pending == cached && !pending.isUnsaved() ? null : pending);
+            }
+        } catch (ConcurrencyFailureException ex) {
+            if (batch.size() == 1) {
+                discardStale(batch.get(0), ex);
+                return;
+            }
+            batch.forEach(cached -> saveBatch(List.of(cached)));
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush {} games, will retry", batch.size(), ex);
+            batch.forEach(cached -> cached.finishSave(false));
+        }
+    }
+
+    /**
+     * The row was changed by another writer since this copy was loaded, so the copy can never be
+     * saved; it is dropped and the next turn works on the stored state.
+     */
+    private void discardStale(CachedGame cached, ConcurrencyFailureException ex) {
+        UUID gameId = cached.getGame().getId();
+        log.warn("Discarding stale cached game {}: {}", gameId, ex.getMessage());
+        synchronized (entries) {
+            entries.remove(gameId, cached);
+        }
+        evictedDirty.remove(gameId, cached);
+        staleDiscards.increment();
+    }
+
+    /**
+     * Exposes the counters of {@link #stats()} as {@code minesweeper.cache.*} meters and the number
+     * of cached games still in play as {@code minesweeper.games.active}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("minesweeper.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("minesweeper.cache.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("minesweeper.cache.evictions", evictions, LongAdder::sum).register(registry);
+        FunctionCounter.builder("minesweeper.cache.flushed", flushedGames, LongAdder::sum).register(registry);
+        FunctionCounter.builder("minesweeper.cache.stale.discards", staleDiscards, LongAdder::sum).register(registry);
+        FunctionCounter.builder("minesweeper.cache.metadata.hits", metadataHits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("minesweeper.cache.metadata.misses", metadataMisses, LongAdder::sum).register(registry);
+        Gauge.builder("minesweeper.cache.size", this, cache -> cache.stats().getSize()).register(registry);
+        Gauge.builder("minesweeper.cache.pending.evicted", evictedDirty, Map::size).register(registry);
+        Gauge.builder("minesweeper.games.active", this, GameCache::activeGames).register(registry);
+    }
+
+    private int activeGames() {
+        List<CachedGame> cached;
+        synchronized (entries) {
+            cached = new ArrayList<>(entries.values());
+        }
+        int active = 0;
+        for (CachedGame game : cached) {
+            if (!game.getGame().isCompleted()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public CacheStatsResponse stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        int metadataSize;
+        synchronized (metadata) {
+            metadataSize = metadata.size();
+        }
+        return CacheStatsResponse.builder()
+                .size(size)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .flushedGames(flushedGames.sum())
+                .pendingEvicted(evictedDirty.size())
+                .staleDiscards(staleDiscards.sum())
+                .metadataSize(metadataSize)
+                .metadataHits(metadataHits.sum())
+                .metadataMisses(metadataMisses.sum())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.example.minesweeper.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import ru.example.minesweeper.dto.ClusterStateResponse;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/cluster}: the cluster state, and {@code POST} with {@code {"members": "a,b"}} to
+ * replace the member list of this instance, given as in {@code minefield.cluster.members}. Every
+ * instance has to be given the same list. It is an actuator endpoint so that it is only reachable
+ * on the management port, not on the public API.
+ */
+@Component
+@Endpoint(id = "cluster")
+@RequiredArgsConstructor
+public class ClusterEndpoint {
+
+    private final GameOwnership gameOwnership;
+
+    @ReadOperation
+    public ClusterStateResponse state() {
+        return gameOwnership.state();
+    }
+
+    @WriteOperation
+    public ClusterStateResponse members(List<String> members) {
+        gameOwnership.updateMembers(members);
+        return gameOwnership.state();
+    }
+}
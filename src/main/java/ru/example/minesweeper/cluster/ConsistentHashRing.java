@@ -0,0 +1,67 @@
+package ru.example.minesweeper.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maps game ids to members. Every member is placed at {@code virtualNodes} points of a 64-bit
+ * ring and a game belongs to the first point at or after its own hash, so adding or removing a
+ * member only moves the games between that member's points and their predecessors.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> members;
+    private final TreeMap<Long, String> points = new TreeMap<>();
+
+    public ConsistentHashRing(List<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Cluster needs at least one member");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+        }
+        this.members = List.copyOf(members);
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    public List<String> getMembers() {
+        return members;
+    }
+
+    public String ownerOf(UUID gameId) {
+        long hash = mix(gameId.getMostSignificantBits() ^ mix(gameId.getLeastSignificantBits()));
+        Map.Entry<Long, String> point = points.ceilingEntry(hash);
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with {@link #mix(long)} to spread similar names.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Finalizer of MurmurHash3.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.example.minesweeper.cluster;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Thrown for a request on a game owned by another instance; {@link GameRoutingAdvice} sends it there.
+ */
+@Getter
+public class GameNotOwnedException extends RuntimeException {
+
+    private final UUID gameId;
+    private final String owner;
+
+    /**
+     * False for requests that cannot be proxied, such as event streams; those are always redirected.
+     */
+    private final boolean forwardable;
+
+    public GameNotOwnedException(UUID gameId, String owner, boolean forwardable) {
+        super("Game " + gameId + " is owned by " + owner);
+        this.gameId = gameId;
+        this.owner = owner;
+        this.forwardable = forwardable;
+    }
+}
@@ -0,0 +1,178 @@
+package ru.example.minesweeper.cluster;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.example.minesweeper.cache.GameCache;
+import ru.example.minesweeper.dto.ClusterStateResponse;
+import ru.example.minesweeper.services.GameLocks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Which instance owns which game when {@code minefield.cluster.enabled} is set.
+ * <p>
+ * Games are spread over {@code minefield.cluster.members} by a {@link ConsistentHashRing}; this
+ * instance is the member equal to {@code minefield.cluster.self}. Only the owner keeps a game in
+ * {@link GameCache} and runs its turns, other instances answer with {@link GameNotOwnedException}.
+ * Every instance must be given the same member list. When it changes, each instance saves and
+ * drops the games it no longer owns, so their new owner loads the latest state from the database.
+ * <p>
+ * While members disagree, a request forwarded by a member is served by whichever instance it
+ * reaches, so it does not bounce between them. The forwarding instance is only believed when the
+ * request carries {@code minefield.cluster.secret}, and a game served for another owner is saved
+ * and dropped from the cache right after the request.
+ * <p>
+ * With clustering disabled every game is local.
+ */
+@Slf4j
+@Component
+public class GameOwnership {
+
+    public enum Routing {
+        /**
+         * Proxy the request to the owner and return its answer.
+         */
+        FORWARD,
+        /**
+         * Answer {@code 307 Temporary Redirect} to the same path on the owner.
+         */
+        REDIRECT
+    }
+
+    @Getter
+    @Value("${minefield.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${minefield.cluster.self:http://localhost:8080}")
+    private String self = "http://localhost:8080";
+
+    @Value("${minefield.cluster.members:}")
+    private List<String> members = List.of();
+
+    @Value("${minefield.cluster.virtual-nodes:128}")
+    private int virtualNodes = 128;
+
+    @Getter
+    @Value("${minefield.cluster.routing:forward}")
+    private Routing routing = Routing.FORWARD;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Value("${minefield.cluster.secret:}")
+    private String secret = "";
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private GameLocks gameLocks;
+
+    private volatile ConsistentHashRing ring;
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            ring = newRing(members);
+        }
+    }
+
+    public boolean isLocal(UUID gameId) {
+        ConsistentHashRing current = ring;
+        return current == null || current.ownerOf(gameId).equals(self);
+    }
+
+    /**
+     * @param forwardedBy the forwarding instance if the request was already forwarded; such a request
+     *                    is served here even if the members disagree, instead of bouncing between them,
+     *                    provided {@code presentedSecret} matches, otherwise it is redirected
+     * @throws GameNotOwnedException if another instance owns the game
+     */
+    public void requireLocal(UUID gameId, String forwardedBy, String presentedSecret, boolean forwardable) {
+        ConsistentHashRing current = ring;
+        if (current == null || gameId == null) {
+            return;
+        }
+        String owner = current.ownerOf(gameId);
+        if (!owner.equals(self) && !isTrustedForward(current, forwardedBy, presentedSecret)) {
+            throw new GameNotOwnedException(gameId, owner, forwardable && forwardedBy == null);
+        }
+    }
+
+    /**
+     * Runs a request for the game after {@link #requireLocal(UUID, String, String, boolean)}. If the
+     * game turns out to belong to another instance, which happens for forwarded requests, it is saved
+     * and dropped from the cache afterwards so that only its owner keeps it.
+     */
+    public <T> T serve(UUID gameId, String forwardedBy, String presentedSecret, Supplier<T> request) {
+        requireLocal(gameId, forwardedBy, presentedSecret, true);
+        try {
+            return request.get();
+        } finally {
+            if (gameId != null && !isLocal(gameId)) {
+                gameLocks.withLock(gameId, () -> {
+                    gameCache.release(gameId);
+                    return null;
+                });
+            }
+        }
+    }
+
+    private boolean isTrustedForward(ConsistentHashRing current, String forwardedBy, String presentedSecret) {
+        return forwardedBy != null && presentedSecret != null && !secret.isEmpty()
+                && MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                        presentedSecret.getBytes(StandardCharsets.UTF_8))
+                && current.getMembers().contains(forwardedBy);
+    }
+
+    /**
+     * Replaces the member list and hands off the cached games now owned by another instance.
+     *
+     * @return number of games handed off
+     */
+    public int updateMembers(List<String> newMembers) {
+        if (!enabled) {
+            throw new IllegalStateException("Clustering is disabled");
+        }
+        ring = newRing(newMembers);
+
+        int handedOff = 0;
+        for (UUID gameId : gameCache.cachedIds()) {
+            if (!isLocal(gameId)) {
+                gameLocks.withLock(gameId, () -> {
+                    gameCache.release(gameId);
+                    return null;
+                });
+                handedOff++;
+            }
+        }
+        log.info("Cluster members changed to {}, handed off {} games", newMembers, handedOff);
+        return handedOff;
+    }
+
+    public ClusterStateResponse state() {
+        ConsistentHashRing current = ring;
+        return ClusterStateResponse.builder()
+                .enabled(enabled)
+                .self(self)
+                .members(current == null ? List.of(self) : current.getMembers())
+                .routing(routing.name().toLowerCase())
+                .build();
+    }
+
+    private ConsistentHashRing newRing(List<String> newMembers) {
+        if (!newMembers.contains(self)) {
+            // this instance stays reachable for requests routed by stale members, and forwards them
+            log.warn("Cluster members {} do not include this instance {}", newMembers, self);
+        }
+        return new ConsistentHashRing(newMembers, virtualNodes);
+    }
+}
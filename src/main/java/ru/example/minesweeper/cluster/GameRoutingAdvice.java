@@ -0,0 +1,126 @@
+package ru.example.minesweeper.cluster;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.WebUtils;
+import ru.example.minesweeper.dto.ErrorResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends requests for games owned by another instance to their owner, by proxying them or by
+ * redirecting the client as {@code minefield.cluster.routing} says. Runs before
+ * {@link ru.example.minesweeper.exceptions.GlobalExceptionHandler}, which would answer 400.
+ */
+@Slf4j
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class GameRoutingAdvice implements MeterBinder {
+
+    /**
+     * Set on forwarded requests to the forwarding instance, so the receiver serves them even if it
+     * disagrees about the owner.
+     */
+    public static final String FORWARDED_HEADER = "X-Minesweeper-Forwarded-By";
+
+    /**
+     * Carries {@code minefield.cluster.secret} on forwarded requests, proving they come from a member.
+     */
+    public static final String SECRET_HEADER = "X-Minesweeper-Cluster-Secret";
+
+    private final GameOwnership gameOwnership;
+    private final RestClient restClient;
+
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder redirected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public GameRoutingAdvice(GameOwnership gameOwnership,
+                             @Value("${minefield.cluster.forward-timeout:5s}") Duration forwardTimeout) {
+        this.gameOwnership = gameOwnership;
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(forwardTimeout)
+                .build());
+        requestFactory.setReadTimeout(forwardTimeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @ExceptionHandler(GameNotOwnedException.class)
+    public ResponseEntity<?> route(GameNotOwnedException ex, HttpServletRequest request) {
+        String target = ex.getOwner() + request.getRequestURI()
+                + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+
+        if (!ex.isForwardable() || gameOwnership.getRouting() == GameOwnership.Routing.REDIRECT) {
+            redirected.increment();
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).location(URI.create(target)).build();
+        }
+
+        ContentCachingRequestWrapper cached = WebUtils.getNativeRequest(request, ContentCachingRequestWrapper.class);
+        byte[] body = cached == null ? new byte[0] : cached.getContentAsByteArray();
+        try {
+            ResponseEntity<byte[]> response = restClient.method(HttpMethod.valueOf(request.getMethod()))
+                    .uri(URI.create(target))
+                    .headers(headers -> {
+                        copyHeader(request, headers, HttpHeaders.ACCEPT);
+                        copyHeader(request, headers, HttpHeaders.CONTENT_TYPE);
+                        headers.set(FORWARDED_HEADER, gameOwnership.getSelf());
+                        if (!gameOwnership.getSecret().isEmpty()) {
+                            headers.set(SECRET_HEADER, gameOwnership.getSecret());
+                        }
+                    })
+                    .body(body)
+                    .exchange((clientRequest, clientResponse) -> {
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.setContentType(clientResponse.getHeaders().getContentType());
+                        return new ResponseEntity<>(clientResponse.getBody().readAllBytes(), headers,
+                                clientResponse.getStatusCode());
+                    });
+            forwarded.increment();
+            return response;
+        } catch (ResourceAccessException e) {
+            failed.increment();
+            log.warn("Cannot forward {} to {}: {}", request.getRequestURI(), ex.getOwner(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("Owner of game " + ex.getGameId() + " is unavailable"));
+        }
+    }
+
+    private static void copyHeader(HttpServletRequest request, HttpHeaders headers, String name) {
+        String value = request.getHeader(name);
+        if (value != null) {
+            headers.set(name, value);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("minesweeper.cluster.forwarded", forwarded, LongAdder::sum)
+                .description("Requests proxied to the owning instance")
+                .register(registry);
+        FunctionCounter.builder("minesweeper.cluster.redirected", redirected, LongAdder::sum)
+                .description("Requests redirected to the owning instance")
+                .register(registry);
+        FunctionCounter.builder("minesweeper.cluster.forward.failures", failed, LongAdder::sum)
+                .description("Requests whose owning instance could not be reached")
+                .register(registry);
+    }
+}
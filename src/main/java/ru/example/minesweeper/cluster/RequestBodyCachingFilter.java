@@ -0,0 +1,34 @@
+package ru.example.minesweeper.cluster;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+
+/**
+ * Keeps a copy of API request bodies in a clustered setup, so that {@link GameRoutingAdvice} can
+ * forward a request after the controller has read it.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestBodyCachingFilter extends OncePerRequestFilter {
+
+    private final GameOwnership gameOwnership;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !gameOwnership.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new ContentCachingRequestWrapper(request), response);
+    }
+}
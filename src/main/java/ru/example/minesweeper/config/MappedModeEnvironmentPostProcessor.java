@@ -0,0 +1,52 @@
+package ru.example.minesweeper.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * With {@code minefield.persistence.mode=mapped} games live in a local file, so the datasource, JPA
+ * and JDBC auto-configuration is excluded and the instance starts without any database configured.
+ * Exclusions already set in {@code spring.autoconfigure.exclude} are kept.
+ */
+public class MappedModeEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+    private static final String PROPERTY_SOURCE = "mappedPersistenceMode";
+
+    private static final Class<?>[] DATABASE_AUTO_CONFIGURATIONS = {
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            JpaRepositoriesAutoConfiguration.class
+    };
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!PersistenceConfig.MAPPED_MODE.equals(environment.getProperty(PersistenceConfig.MODE_PROPERTY))) {
+            return;
+        }
+
+        String excluded = Stream.concat(
+                        Stream.of(StringUtils.commaDelimitedListToStringArray(environment.getProperty(EXCLUDE_PROPERTY, ""))),
+                        Stream.of(DATABASE_AUTO_CONFIGURATIONS).map(Class::getName))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .collect(Collectors.joining(","));
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE, Map.of(EXCLUDE_PROPERTY, excluded)));
+    }
+}
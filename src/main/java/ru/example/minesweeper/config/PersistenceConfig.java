@@ -0,0 +1,92 @@
+package ru.example.minesweeper.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.persistence.BlobGameStore;
+import ru.example.minesweeper.persistence.EventLogGameStore;
+import ru.example.minesweeper.persistence.GameArchive;
+import ru.example.minesweeper.persistence.GameStore;
+import ru.example.minesweeper.persistence.GameWriter;
+import ru.example.minesweeper.persistence.JdbcGameArchive;
+import ru.example.minesweeper.persistence.JdbcGameWriter;
+import ru.example.minesweeper.persistence.JpaGameWriter;
+import ru.example.minesweeper.persistence.MappedGameStore;
+import ru.example.minesweeper.repositories.ArchivedGameRepository;
+import ru.example.minesweeper.repositories.GameMoveRepository;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class PersistenceConfig {
+
+    public static final String MODE_PROPERTY = "minefield.persistence.mode";
+    public static final String MAPPED_MODE = "mapped";
+
+    /**
+     * Condition of the beans that need the database, which is not configured in the mapped mode.
+     */
+    public static final String DATABASE_MODE = "'${" + MODE_PROPERTY + ":blob}' != '" + MAPPED_MODE + "'";
+
+    @Bean
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = MAPPED_MODE)
+    public MappedGameStore mappedGameStore(@Value("${minefield.persistence.mapped.path:data/games.db}") String path,
+                                           @Value("${minefield.persistence.mapped.initial-size:64MB}") DataSize initialSize,
+                                           @Value("${minefield.persistence.mapped.sync:false}") boolean sync,
+                                           @Value("${minefield.persistence.mapped.compact-interval:1m}") Duration compactInterval,
+                                           @Value("${minefield.persistence.mapped.completed-retention:7d}") Duration completedRetention,
+                                           GameMetrics gameMetrics) {
+        return new MappedGameStore(Path.of(path), initialSize.toBytes(), sync, compactInterval, completedRetention,
+                gameMetrics);
+    }
+
+    @Configuration
+    @ConditionalOnExpression(DATABASE_MODE)
+    static class DatabaseConfig {
+
+        @Bean
+        @ConditionalOnProperty(name = "minefield.persistence.writer", havingValue = "jdbc", matchIfMissing = true)
+        public GameWriter jdbcGameWriter(JdbcTemplate jdbcTemplate) {
+            return new JdbcGameWriter(jdbcTemplate);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "minefield.persistence.writer", havingValue = "jpa")
+        public GameWriter jpaGameWriter(GameRepository gameRepository, GameMoveRepository gameMoveRepository) {
+            return new JpaGameWriter(gameRepository, gameMoveRepository);
+        }
+
+        @Bean
+        public JdbcGameArchive gameArchive(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                           ArchivedGameRepository archivedGameRepository, GameRepository gameRepository) {
+            return new JdbcGameArchive(jdbcTemplate, transactionTemplate, archivedGameRepository, gameRepository);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "blob", matchIfMissing = true)
+        public GameStore blobGameStore(GameRepository gameRepository, GameWriter gameWriter, GameArchive gameArchive,
+                                       GameMetrics gameMetrics) {
+            return new BlobGameStore(gameRepository, gameWriter, gameArchive, gameMetrics);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "event-log")
+        public GameStore eventLogGameStore(GameRepository gameRepository,
+                                           GameMoveRepository gameMoveRepository,
+                                           GameWriter gameWriter,
+                                           GameArchive gameArchive,
+                                           @Value("${minefield.persistence.snapshot-interval:50}") int snapshotInterval,
+                                           GameMetrics gameMetrics) {
+            return new EventLogGameStore(gameRepository, gameMoveRepository, gameWriter, gameArchive,
+                    snapshotInterval, gameMetrics);
+        }
+    }
+}
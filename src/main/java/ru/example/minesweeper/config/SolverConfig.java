@@ -0,0 +1,23 @@
+package ru.example.minesweeper.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.example.minesweeper.managers.MinefieldSolver;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class SolverConfig {
+
+    /**
+     * The solver gets its own fork-join pool unless {@code minefield.solver.parallelism} is 0,
+     * in which case it shares the common pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public MinefieldSolver minefieldSolver(@Value("${minefield.solver.parallelism:0}") int parallelism,
+                                           @Value("${minefield.solver.max-component-cells:24}") int maxComponentCells) {
+        ForkJoinPool pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        return new MinefieldSolver(pool, maxComponentCells);
+    }
+}
@@ -1,29 +1,131 @@
 package ru.example.minesweeper.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.example.minesweeper.cache.GameCache;
+import ru.example.minesweeper.cluster.GameOwnership;
+import ru.example.minesweeper.cluster.GameRoutingAdvice;
+import ru.example.minesweeper.dto.BoardFormat;
+import ru.example.minesweeper.dto.CacheStatsResponse;
+import ru.example.minesweeper.dto.ClusterStateResponse;
+import ru.example.minesweeper.dto.GameBatchTurnRequest;
+import ru.example.minesweeper.dto.GameBatchTurnResponse;
 import ru.example.minesweeper.dto.GameInfoResponse;
 import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.HintResponse;
 import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.dto.NoGuessStatsResponse;
+import ru.example.minesweeper.dto.PoolStatsResponse;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.services.BoardPool;
 import ru.example.minesweeper.services.GameService;
 
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class MinesweeperController {
 
+    /**
+     * Accept type asking {@code /turn} to answer with the changed cells only.
+     */
+    public static final String DELTA_MEDIA_TYPE = "application/vnd.minesweeper.delta+json";
+
     private final GameService gameService;
+    private final GameCache gameCache;
+    private final BoardPool boardPool;
+    private final GameMetrics gameMetrics;
+    private final GameOwnership gameOwnership;
 
     @PostMapping("/new")
-    public GameInfoResponse createNewGame(@RequestBody NewGameRequest newGameRequest) {
+    public GameInfoResponse createNewGame(@RequestBody NewGameRequest newGameRequest,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        newGameRequest.setFormat(BoardFormat.fromAccept(accept));
         return gameService.createGame(newGameRequest);
     }
 
     @PostMapping("/turn")
-    public GameInfoResponse createNewTurn(@RequestBody GameTurnRequest turnRequest) {
-        return gameService.gameTurn(turnRequest);
+    public GameInfoResponse createNewTurn(@RequestBody GameTurnRequest turnRequest,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                          @RequestHeader(value = GameRoutingAdvice.FORWARDED_HEADER, required = false) String forwardedBy,
+                                          @RequestHeader(value = GameRoutingAdvice.SECRET_HEADER, required = false) String secret) {
+        if (accept != null && accept.contains(DELTA_MEDIA_TYPE)) {
+            turnRequest.setDelta(true);
+        }
+        turnRequest.setFormat(BoardFormat.fromAccept(accept));
+        return gameOwnership.serve(turnRequest.getGameId(), forwardedBy, secret,
+                () -> gameService.gameTurn(turnRequest));
+    }
+
+    @PostMapping("/turns")
+    public GameBatchTurnResponse createNewTurns(@RequestBody GameBatchTurnRequest batchRequest,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                @RequestHeader(value = GameRoutingAdvice.FORWARDED_HEADER, required = false) String forwardedBy,
+                                                @RequestHeader(value = GameRoutingAdvice.SECRET_HEADER, required = false) String secret) {
+        if (accept != null && accept.contains(DELTA_MEDIA_TYPE)) {
+            batchRequest.setDelta(true);
+        }
+        batchRequest.setFormat(BoardFormat.fromAccept(accept));
+        return gameOwnership.serve(batchRequest.getGameId(), forwardedBy, secret,
+                () -> gameService.gameTurns(batchRequest));
+    }
+
+    @GetMapping("/hint")
+    public HintResponse getHint(@RequestParam("game_id") UUID gameId,
+                                @RequestParam(value = "row", required = false) Integer row,
+                                @RequestParam(value = "col", required = false) Integer col,
+                                @RequestHeader(value = GameRoutingAdvice.FORWARDED_HEADER, required = false) String forwardedBy,
+                                @RequestHeader(value = GameRoutingAdvice.SECRET_HEADER, required = false) String secret) {
+        return gameOwnership.serve(gameId, forwardedBy, secret, () -> gameService.hint(gameId, row, col));
+    }
+
+    @GetMapping(value = "/games/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable UUID gameId) {
+        // a stream is not proxied, the client follows the redirect to the owner
+        gameOwnership.requireLocal(gameId, null, null, false);
+        return gameService.subscribe(gameId);
+    }
+
+    @GetMapping("/games/{gameId}/replay")
+    public GameInfoResponse replayGame(@PathVariable UUID gameId,
+                                       @RequestParam(value = "moves", required = false) Long moves,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                       @RequestHeader(value = GameRoutingAdvice.FORWARDED_HEADER, required = false) String forwardedBy,
+                                       @RequestHeader(value = GameRoutingAdvice.SECRET_HEADER, required = false) String secret) {
+        // the owner may hold moves not yet flushed to the log
+        return gameOwnership.serve(gameId, forwardedBy, secret,
+                () -> gameService.replayGame(gameId, moves, BoardFormat.fromAccept(accept)));
+    }
+
+    @GetMapping("/cluster")
+    public ClusterStateResponse getClusterState() {
+        return gameOwnership.state();
+    }
+
+    @GetMapping("/stats/cache")
+    public CacheStatsResponse getCacheStats() {
+        return gameCache.stats();
+    }
+
+    @GetMapping("/stats/pool")
+    public List<PoolStatsResponse> getPoolStats() {
+        return boardPool.stats();
+    }
+
+    @GetMapping("/stats/no-guess")
+    public List<NoGuessStatsResponse> getNoGuessStats() {
+        return gameMetrics.noGuessStats();
     }
 }
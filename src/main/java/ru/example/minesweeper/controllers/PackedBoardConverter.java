@@ -0,0 +1,95 @@
+package ru.example.minesweeper.controllers;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import ru.example.minesweeper.dto.BoardFormat;
+import ru.example.minesweeper.dto.CellChange;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.model.FieldCellValueEnum;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes {@link GameInfoResponse} as {@code application/vnd.minesweeper.board}, big-endian:
+ * <pre>
+ * byte    format version (1)
+ * long[2] game id
+ * int     height, width, mines count
+ * byte    completed
+ * long    board version, -1 if unknown
+ * byte    body kind: 0 = board, 1 = changes
+ * board:   (height * width + 1) / 2 bytes, a FieldCellValueEnum ordinal per nibble, low nibble first
+ * changes: int count, then per change int row, int col, byte ordinal
+ * </pre>
+ * Write-only; batch responses are not covered and get 406.
+ */
+public class PackedBoardConverter extends AbstractHttpMessageConverter<GameInfoResponse> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(BoardFormat.PACKED.getMediaType());
+
+    static final int FORMAT_VERSION = 1;
+    static final int KIND_BOARD = 0;
+    static final int KIND_CHANGES = 1;
+
+    private static final Map<String, FieldCellValueEnum> BY_SYMBOL = Arrays.stream(FieldCellValueEnum.values())
+            .collect(Collectors.toUnmodifiableMap(FieldCellValueEnum::getSymbol, Function.identity()));
+
+    public PackedBoardConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GameInfoResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected GameInfoResponse readInternal(Class<? extends GameInfoResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Packed boards are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(GameInfoResponse response, HttpOutputMessage outputMessage) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputMessage.getBody());
+        out.writeByte(FORMAT_VERSION);
+        UUID gameId = response.getGameId();
+        out.writeLong(gameId == null ? 0 : gameId.getMostSignificantBits());
+        out.writeLong(gameId == null ? 0 : gameId.getLeastSignificantBits());
+        out.writeInt(response.getHeight());
+        out.writeInt(response.getWidth());
+        out.writeInt(response.getMinesCount());
+        out.writeBoolean(response.isCompleted());
+        out.writeLong(response.getVersion() == null ? -1 : response.getVersion());
+
+        if (response.getPackedField() != null) {
+            out.writeByte(KIND_BOARD);
+            out.write(response.getPackedField());
+        } else {
+            // delta responses and chunked boards
+            List<CellChange> changes = response.getChanges() == null ? List.of() : response.getChanges();
+            out.writeByte(KIND_CHANGES);
+            out.writeInt(changes.size());
+            for (CellChange change : changes) {
+                out.writeInt(change.getRow());
+                out.writeInt(change.getCol());
+                out.writeByte(BY_SYMBOL.get(change.getSymbol()).ordinal());
+            }
+        }
+        out.flush();
+    }
+}
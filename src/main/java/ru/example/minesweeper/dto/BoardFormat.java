@@ -0,0 +1,51 @@
+package ru.example.minesweeper.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * How {@link GameInfoResponse} carries a full board, chosen by the request's {@code Accept} header.
+ */
+public enum BoardFormat {
+    /**
+     * {@code field}: a matrix of one-character strings. The default.
+     */
+    MATRIX(MediaType.APPLICATION_JSON_VALUE),
+    /**
+     * {@code rows}: one string per row, one character per cell.
+     */
+    ROWS("application/vnd.minesweeper.rows+json"),
+    /**
+     * {@code field_rle}: the cells in row-major order as comma-separated runs, each a symbol
+     * followed by its length when longer than one, e.g. {@code " 40,1,M,1,03"}.
+     */
+    RLE("application/vnd.minesweeper.rle+json"),
+    /**
+     * Binary body written by {@link ru.example.minesweeper.controllers.PackedBoardConverter}, with
+     * one {@link ru.example.minesweeper.model.FieldCellValueEnum} ordinal per nibble.
+     */
+    PACKED("application/vnd.minesweeper.board");
+
+    private final String mediaType;
+
+    BoardFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return the first compact format named in the header, or {@link #MATRIX}
+     */
+    public static BoardFormat fromAccept(String accept) {
+        if (accept != null) {
+            for (BoardFormat format : values()) {
+                if (format != MATRIX && accept.contains(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return MATRIX;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    @JsonProperty("flushed_games")
+    private long flushedGames;
+
+    @JsonProperty("pending_evicted")
+    private int pendingEvicted;
+
+    @JsonProperty("stale_discards")
+    private long staleDiscards;
+
+    @JsonProperty("metadata_size")
+    private int metadataSize;
+
+    @JsonProperty("metadata_hits")
+    private long metadataHits;
+
+    @JsonProperty("metadata_misses")
+    private long metadataMisses;
+}
@@ -0,0 +1,21 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cell changed by a turn, written as a {@code [row, col, symbol]} triple.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"row", "col", "symbol"})
+public class CellChange {
+    private int row;
+    private int col;
+    private String symbol;
+}
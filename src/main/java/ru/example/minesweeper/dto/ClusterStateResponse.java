@@ -0,0 +1,21 @@
+package ru.example.minesweeper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterStateResponse {
+    private boolean enabled;
+    private String self;
+    private List<String> members;
+    private String routing;
+}
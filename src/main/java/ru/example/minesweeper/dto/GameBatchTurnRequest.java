@@ -0,0 +1,27 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Setter
+@Getter
+public class GameBatchTurnRequest {
+
+    @JsonProperty("game_id")
+    private UUID gameId;
+    private List<TurnMove> moves;
+
+    /**
+     * Return only the cells changed by the whole batch instead of the whole field.
+     */
+    private boolean delta;
+
+    /**
+     * Representation of the full board in the response; set from the {@code Accept} header.
+     */
+    private BoardFormat format = BoardFormat.MATRIX;
+}
@@ -0,0 +1,19 @@
+package ru.example.minesweeper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameBatchTurnResponse {
+    private List<MoveResult> moves;
+    private GameInfoResponse game;
+}
@@ -1,5 +1,7 @@
 package ru.example.minesweeper.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +9,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -24,5 +27,40 @@ public class GameInfoResponse {
     private int width;
     private int height;
     private boolean completed;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String[][] field;
+
+    /**
+     * The board as one string per row, for {@link BoardFormat#ROWS}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String[] rows;
+
+    /**
+     * The board run-length encoded, for {@link BoardFormat#RLE}.
+     */
+    @JsonProperty("field_rle")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String fieldRle;
+
+    /**
+     * The board as nibble-packed symbol ordinals, for {@link BoardFormat#PACKED}.
+     */
+    @JsonIgnore
+    private byte[] packedField;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CellChange> changes;
+
+    /**
+     * Only set for new games that asked for a no-guess board: false if none was found in time
+     * and the game got a regular board.
+     */
+    @JsonProperty("no_guess")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean noGuess;
 }
@@ -3,6 +3,7 @@ package ru.example.minesweeper.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
+import ru.example.minesweeper.model.TurnActionEnum;
 
 import java.util.UUID;
 
@@ -14,4 +15,21 @@ public class GameTurnRequest {
     private UUID gameId;
     private int col;
     private int row;
+    private TurnActionEnum action = TurnActionEnum.REVEAL;
+
+    /**
+     * Return only the cells changed by this turn instead of the whole field.
+     */
+    private boolean delta;
+
+    /**
+     * After the move, keep opening the cells the solver proves safe.
+     */
+    @JsonProperty("auto_open")
+    private boolean autoOpen;
+
+    /**
+     * Representation of the full board in the response; set from the {@code Accept} header.
+     */
+    private BoardFormat format = BoardFormat.MATRIX;
 }
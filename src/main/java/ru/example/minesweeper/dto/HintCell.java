@@ -0,0 +1,17 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HintCell {
+    private int row;
+    private int col;
+
+    @JsonProperty("mine_probability")
+    private double mineProbability;
+}
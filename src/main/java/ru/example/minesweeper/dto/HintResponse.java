@@ -0,0 +1,49 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HintResponse {
+    @JsonProperty("game_id")
+    private UUID gameId;
+
+    private long version;
+
+    /**
+     * Hidden cells that are certainly safe.
+     */
+    private List<HintCell> safe;
+
+    /**
+     * Hidden cells that certainly hold a mine.
+     */
+    private List<HintCell> mines;
+
+    /**
+     * Undecided cells next to opened numbers, least likely mines first.
+     */
+    private List<HintCell> guesses;
+
+    /**
+     * Mine probability of any hidden cell away from the opened numbers.
+     */
+    @JsonProperty("other_probability")
+    private double otherProbability;
+
+    /**
+     * True if the solver hit its deadline or skipped a component too large to enumerate.
+     */
+    private boolean partial;
+}
@@ -0,0 +1,24 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveResult {
+    private int row;
+    private int col;
+    private TurnOutcomeEnum outcome;
+    private long opened;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+}
@@ -12,4 +12,24 @@ public class NewGameRequest {
     private int height;
     @JsonProperty("mines_count")
     private int minesCount;
+
+    /**
+     * Ask for a board that can be finished from the start cell without guessing.
+     */
+    @JsonProperty("no_guess")
+    private boolean noGuess;
+
+    /**
+     * First click of a no-guess game; the board centre if not given.
+     */
+    @JsonProperty("start_row")
+    private Integer startRow;
+
+    @JsonProperty("start_col")
+    private Integer startCol;
+
+    /**
+     * Representation of the full board in the response; set from the {@code Accept} header.
+     */
+    private BoardFormat format = BoardFormat.MATRIX;
 }
@@ -0,0 +1,38 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoGuessStatsResponse {
+    private String size;
+    private long generated;
+
+    /**
+     * Requests that hit the time cap and got a regular board.
+     */
+    private long failed;
+
+    @JsonProperty("failure_rate")
+    private double failureRate;
+
+    @JsonProperty("p50_ms")
+    private double p50Ms;
+
+    @JsonProperty("p95_ms")
+    private double p95Ms;
+
+    @JsonProperty("p99_ms")
+    private double p99Ms;
+
+    @JsonProperty("avg_candidates")
+    private double avgCandidates;
+}
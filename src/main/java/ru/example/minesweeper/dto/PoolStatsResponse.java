@@ -0,0 +1,30 @@
+package ru.example.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStatsResponse {
+    private String profile;
+    private int size;
+    private int depth;
+    private long hits;
+    private long misses;
+
+    @JsonProperty("hit_rate")
+    private double hitRate;
+
+    @JsonProperty("avg_refill_lag_ms")
+    private double avgRefillLagMs;
+
+    @JsonProperty("max_refill_lag_ms")
+    private double maxRefillLagMs;
+}
@@ -0,0 +1,21 @@
+package ru.example.minesweeper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.example.minesweeper.model.TurnActionEnum;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnMove {
+    private int row;
+    private int col;
+    private TurnActionEnum action = TurnActionEnum.REVEAL;
+
+    public TurnMove(int row, int col) {
+        this(row, col, TurnActionEnum.REVEAL);
+    }
+}
@@ -0,0 +1,545 @@
+package ru.example.minesweeper.managers;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.FieldCellValueEnum;
+import ru.example.minesweeper.model.TurnActionEnum;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Board for very large fields, split into {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} chunks.
+ * <p>
+ * Nothing is allocated up front. The mine layout of a chunk is derived from the game seed
+ * and the chunk index the first time any of its cells (or a neighbour across its border)
+ * is looked at; every chunk gets its area-proportional share of the mines, so the total
+ * is exactly {@code minesCount}. Only chunks with revealed cells are persisted, as a
+ * revealed-cell bitmap each, followed by a flag bitmap for each chunk holding flags.
+ * <p>
+ * One reveal opens at most {@value #MAX_CASCADE_CELLS} cells; a cascade cut short leaves
+ * opened zeros next to hidden cells, and revealing any of those carries it on. After every
+ * move, chunks without revealed cells or flags are dropped, and chunks whose safe cells are
+ * all open are kept only as an index, since both can be regenerated from the seed.
+ */
+@Getter
+public class ChunkedFieldManager implements Minefield {
+
+    public static final byte VERSION_CHUNKED = 2;
+
+    static final int CHUNK_SIZE = 64;
+    static final int MAX_CASCADE_CELLS = 1 << 16;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int HEADER_SIZE = 1 + 1 + 4 + 4 + 4 + 8 + 4;
+
+    private static final byte MINE_BIT = 1;
+    private static final byte REVEALED_BIT = 1 << 1;
+    private static final byte COUNT_KNOWN_BIT = 1 << 2;
+    private static final byte FLAG_BIT = 1 << 3;
+    private static final int COUNT_SHIFT = 4;
+
+    private final int height;
+    private final int width;
+    private final int minesCount;
+    private final long seed;
+    private final int chunksAcross;
+    private final int chunksDown;
+
+    private long revealedSafeCells;
+    private FieldCellValueEnum mineSymbol = FieldCellValueEnum.EMPTY;
+    @Getter(AccessLevel.NONE)
+    private final Set<Long> explodedChunks = new HashSet<>();
+
+    @Getter(AccessLevel.NONE)
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Set<Long> clearedChunks = new HashSet<>();
+
+    @Getter(AccessLevel.NONE)
+    private long[] changedCells = new long[64];
+    private int changedCellsCount;
+
+    public ChunkedFieldManager(int height, int width, int minesCount, long seed) {
+        this.height = height;
+        this.width = width;
+        this.minesCount = minesCount;
+        this.seed = seed;
+        this.chunksAcross = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksDown = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return true;
+    }
+
+    @Override
+    public boolean isMine(int row, int col) {
+        return (chunkOf(row, col).state[cellOf(row, col)] & MINE_BIT) != 0;
+    }
+
+    @Override
+    public boolean isRevealed(int row, int col) {
+        return (chunkOf(row, col).state[cellOf(row, col)] & REVEALED_BIT) != 0;
+    }
+
+    @Override
+    public FieldCellValueEnum getSymbol(int row, int col) {
+        byte state = chunkOf(row, col).state[cellOf(row, col)];
+        if ((state & MINE_BIT) != 0 && mineSymbol != FieldCellValueEnum.EMPTY) {
+            return mineSymbol;
+        }
+        if ((state & FLAG_BIT) != 0) {
+            return FieldCellValueEnum.FLAG;
+        }
+        if ((state & (MINE_BIT | REVEALED_BIT)) != REVEALED_BIT) {
+            return FieldCellValueEnum.EMPTY;
+        }
+        return FieldCellValueEnum.ofNearbyMines(nearbyMines(row, col));
+    }
+
+    @Override
+    public boolean isFlagged(int row, int col) {
+        return (chunkOf(row, col).state[cellOf(row, col)] & FLAG_BIT) != 0;
+    }
+
+    @Override
+    public void setFlagged(int row, int col, boolean flagged) {
+        Chunk chunk = chunkOf(row, col);
+        int cell = cellOf(row, col);
+        byte state = chunk.state[cell];
+        if (((state & FLAG_BIT) != 0) == flagged) {
+            return;
+        }
+        chunk.state[cell] = (byte) (flagged ? state | FLAG_BIT : state & ~FLAG_BIT);
+        chunk.flagged += flagged ? 1 : -1;
+        recordChange(row, col);
+    }
+
+    @Override
+    public int getNearbyMines(int row, int col) {
+        return nearbyMines(row, col);
+    }
+
+    public int nearbyMines(int row, int col) {
+        Chunk chunk = chunkOf(row, col);
+        int cell = cellOf(row, col);
+        byte state = chunk.state[cell];
+        if ((state & COUNT_KNOWN_BIT) != 0) {
+            return (state >> COUNT_SHIFT) & 0x0F;
+        }
+
+        int count = 0;
+        for (int i = Math.max(0, row - 1); i <= Math.min(height - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(width - 1, col + 1); j++) {
+                if ((i != row || j != col) && isMine(i, j)) {
+                    count++;
+                }
+            }
+        }
+        chunk.state[cell] = (byte) (state | COUNT_KNOWN_BIT | (count << COUNT_SHIFT));
+        return count;
+    }
+
+    @Override
+    public long revealCell(int row, int col) {
+        if (!open(row, col)) {
+            return 0;
+        }
+
+        long opened = 1;
+        if (nearbyMines(row, col) == 0) {
+            opened += cascadeOpenCells(row, col);
+        }
+        return opened;
+    }
+
+    /**
+     * Same flood fill as {@link FieldManager#cascadeOpenCells(int, int)}, over a queue of
+     * {@code long} indices because the board area may exceed the int range. Stops once
+     * {@value #MAX_CASCADE_CELLS} cells are open, so a sparse board is uncovered over several
+     * reveals instead of in one.
+     */
+    public long cascadeOpenCells(int row, int col) {
+        long[] queue = new long[64];
+        int head = 0;
+        int size = 1;
+        long opened = 0;
+        queue[0] = (long) row * width + col;
+
+        while (size > 0 && opened < MAX_CASCADE_CELLS - 1) {
+            long index = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            size--;
+
+            int cellRow = (int) (index / width);
+            int cellCol = (int) (index % width);
+
+            for (int i = Math.max(0, cellRow - 1); i <= Math.min(height - 1, cellRow + 1); i++) {
+                for (int j = Math.max(0, cellCol - 1); j <= Math.min(width - 1, cellCol + 1); j++) {
+                    if (opened == MAX_CASCADE_CELLS - 1 || !open(i, j)) {
+                        continue;
+                    }
+                    opened++;
+
+                    if (nearbyMines(i, j) == 0) {
+                        if (size == queue.length) {
+                            long[] grown = new long[queue.length << 1];
+                            int tail = queue.length - head;
+                            System.arraycopy(queue, head, grown, 0, tail);
+                            System.arraycopy(queue, 0, grown, tail, head);
+                            queue = grown;
+                            head = 0;
+                        }
+                        queue[(head + size) & (queue.length - 1)] = (long) i * width + j;
+                        size++;
+                    }
+                }
+            }
+        }
+
+        return opened;
+    }
+
+    private boolean open(int row, int col) {
+        Chunk chunk = chunkOf(row, col);
+        int cell = cellOf(row, col);
+        byte state = chunk.state[cell];
+        if ((state & (REVEALED_BIT | FLAG_BIT)) != 0) {
+            return false;
+        }
+
+        chunk.state[cell] = (byte) (state | REVEALED_BIT);
+        chunk.revealed++;
+        if ((state & MINE_BIT) == 0) {
+            revealedSafeCells++;
+        } else {
+            chunk.mineOpened = true;
+        }
+        recordChange(row, col);
+        return true;
+    }
+
+    /**
+     * Remembers the chunk of a mine hit before anything in it was opened, so the explosion
+     * is listed by {@link #revealAllMines(FieldCellValueEnum)}.
+     */
+    @Override
+    public TurnOutcomeEnum applyTurn(int row, int col) {
+        if (isMine(row, col)) {
+            explodedChunks.add(chunkIndexOf(row, col));
+        }
+        try {
+            return Minefield.super.applyTurn(row, col);
+        } finally {
+            releaseChunks();
+        }
+    }
+
+    /**
+     * Same as {@link #applyTurn(int, int)} for the unflagged mines a chord would open.
+     */
+    @Override
+    public TurnOutcomeEnum applyAction(TurnActionEnum action, int row, int col) {
+        if (action == TurnActionEnum.REVEAL) {
+            return applyTurn(row, col);
+        }
+        if (action == TurnActionEnum.CHORD && isRevealed(row, col)) {
+            for (int i = Math.max(0, row - 1); i <= Math.min(height - 1, row + 1); i++) {
+                for (int j = Math.max(0, col - 1); j <= Math.min(width - 1, col + 1); j++) {
+                    if (isMine(i, j) && !isFlagged(i, j)) {
+                        explodedChunks.add(chunkIndexOf(i, j));
+                    }
+                }
+            }
+        }
+        try {
+            return Minefield.super.applyAction(action, row, col);
+        } finally {
+            releaseChunks();
+        }
+    }
+
+    /**
+     * Drops the chunks a move only looked at and moves the fully cleared ones to
+     * {@link #clearedChunks}, leaving in memory just the chunks with partial progress.
+     */
+    private void releaseChunks() {
+        chunks.entrySet().removeIf(entry -> {
+            Chunk chunk = entry.getValue();
+            if (chunk.flagged > 0 || chunk.mineOpened) {
+                return false;
+            }
+            if (chunk.revealed == chunk.safe) {
+                clearedChunks.add(entry.getKey());
+                return true;
+            }
+            return chunk.revealed == 0;
+        });
+    }
+
+    /**
+     * Shows the mines of the chunks the player has touched, listing at most
+     * {@value #MAX_CASCADE_CELLS} of them; mines elsewhere are reported with the same symbol
+     * by {@link #getSymbol(int, int)} but are not listed as changes.
+     */
+    @Override
+    public void revealAllMines(FieldCellValueEnum symbol) {
+        mineSymbol = symbol;
+        for (Map.Entry<Long, Chunk> entry : chunks.entrySet()) {
+            long chunkIndex = entry.getKey();
+            if (entry.getValue().revealed > 0 || explodedChunks.contains(chunkIndex)) {
+                listMines(chunkIndex, entry.getValue());
+            }
+        }
+        for (long chunkIndex : clearedChunks) {
+            listMines(chunkIndex, generateChunk(chunkIndex, false));
+        }
+    }
+
+    private void listMines(long chunkIndex, Chunk chunk) {
+        int firstRow = (int) (chunkIndex / chunksAcross) * CHUNK_SIZE;
+        int firstCol = (int) (chunkIndex % chunksAcross) * CHUNK_SIZE;
+        for (int cell = 0; cell < CHUNK_CELLS && changedCellsCount < MAX_CASCADE_CELLS; cell++) {
+            if ((chunk.state[cell] & MINE_BIT) != 0) {
+                recordChange(firstRow + cell / CHUNK_SIZE, firstCol + cell % CHUNK_SIZE);
+            }
+        }
+    }
+
+    @Override
+    public boolean isGameComplete() {
+        return revealedSafeCells == (long) height * width - minesCount;
+    }
+
+    @Override
+    public void clearChanges() {
+        changedCellsCount = 0;
+    }
+
+    @Override
+    public int getChangedRow(int n) {
+        return (int) (changedCells[n] / width);
+    }
+
+    @Override
+    public int getChangedCol(int n) {
+        return (int) (changedCells[n] % width);
+    }
+
+    private void recordChange(int row, int col) {
+        if (changedCellsCount == changedCells.length) {
+            changedCells = Arrays.copyOf(changedCells, changedCells.length << 1);
+        }
+        changedCells[changedCellsCount++] = (long) row * width + col;
+    }
+
+    /**
+     * @return number of chunks holding revealed cells, which is what gets persisted
+     */
+    public int getMaterializedChunks() {
+        return (int) chunks.values().stream().filter(chunk -> chunk.revealed > 0).count() + clearedChunks.size();
+    }
+
+    /**
+     * @return number of chunks whose cell state is held in memory
+     */
+    int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    @Override
+    public byte[] fieldToBytes() {
+        long[] touched = LongStream.concat(
+                        chunks.entrySet().stream()
+                                .filter(entry -> entry.getValue().revealed > 0)
+                                .mapToLong(Map.Entry::getKey),
+                        clearedChunks.stream().mapToLong(Long::longValue))
+                .sorted()
+                .toArray();
+
+        long[] flagged = chunks.entrySet().stream()
+                .filter(entry -> entry.getValue().flagged > 0)
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+
+        int bitmapsSize = (touched.length + flagged.length) * (8 + CHUNK_CELLS / 8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bitmapsSize + (flagged.length > 0 ? 4 : 0));
+        buffer.put(VERSION_CHUNKED);
+        buffer.put((byte) mineSymbol.ordinal());
+        buffer.putInt(height);
+        buffer.putInt(width);
+        buffer.putInt(minesCount);
+        buffer.putLong(seed);
+        buffer.putInt(touched.length);
+
+        putBitmaps(buffer, touched, REVEALED_BIT);
+        if (flagged.length > 0) {
+            buffer.putInt(flagged.length);
+            putBitmaps(buffer, flagged, FLAG_BIT);
+        }
+
+        return buffer.array();
+    }
+
+    private void putBitmaps(ByteBuffer buffer, long[] chunkIndices, byte bit) {
+        for (long chunkIndex : chunkIndices) {
+            buffer.putLong(chunkIndex);
+            Chunk chunk = chunks.get(chunkIndex);
+            byte[] state = chunk != null ? chunk.state : generateChunk(chunkIndex, true).state;
+            byte[] bitmap = new byte[CHUNK_CELLS / 8];
+            for (int cell = 0; cell < CHUNK_CELLS; cell++) {
+                if ((state[cell] & bit) != 0) {
+                    bitmap[cell >> 3] |= (byte) (1 << (cell & 7));
+                }
+            }
+            buffer.put(bitmap);
+        }
+    }
+
+    public static ChunkedFieldManager decode(byte[] data) {
+        if (data.length < HEADER_SIZE || data[0] != VERSION_CHUNKED) {
+            throw new MinefieldException("Invalid chunked field data");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.get();
+        FieldCellValueEnum mineSymbol = FieldCodec.mineSymbol(buffer.get());
+        int height = buffer.getInt();
+        int width = buffer.getInt();
+        int minesCount = buffer.getInt();
+        long seed = buffer.getLong();
+        int touched = buffer.getInt();
+
+        ChunkedFieldManager manager = new ChunkedFieldManager(height, width, minesCount, seed);
+        manager.mineSymbol = mineSymbol;
+
+        byte[] bitmap = new byte[CHUNK_CELLS / 8];
+        for (int n = 0; n < touched; n++) {
+            long chunkIndex = buffer.getLong();
+            buffer.get(bitmap);
+            Chunk chunk = manager.chunk(chunkIndex);
+            for (int cell = 0; cell < CHUNK_CELLS; cell++) {
+                if ((bitmap[cell >> 3] & (1 << (cell & 7))) != 0) {
+                    chunk.state[cell] |= REVEALED_BIT;
+                    chunk.revealed++;
+                    if ((chunk.state[cell] & MINE_BIT) == 0) {
+                        manager.revealedSafeCells++;
+                    } else {
+                        chunk.mineOpened = true;
+                    }
+                }
+            }
+        }
+
+        // boards saved before flags existed end here
+        int flagged = buffer.hasRemaining() ? buffer.getInt() : 0;
+        for (int n = 0; n < flagged; n++) {
+            long chunkIndex = buffer.getLong();
+            buffer.get(bitmap);
+            Chunk chunk = manager.chunk(chunkIndex);
+            for (int cell = 0; cell < CHUNK_CELLS; cell++) {
+                if ((bitmap[cell >> 3] & (1 << (cell & 7))) != 0) {
+                    chunk.state[cell] |= FLAG_BIT;
+                    chunk.flagged++;
+                }
+            }
+        }
+
+        manager.releaseChunks();
+        return manager;
+    }
+
+    private Chunk chunkOf(int row, int col) {
+        return chunk(chunkIndexOf(row, col));
+    }
+
+    private long chunkIndexOf(int row, int col) {
+        return (long) (row / CHUNK_SIZE) * chunksAcross + col / CHUNK_SIZE;
+    }
+
+    private static int cellOf(int row, int col) {
+        return (row % CHUNK_SIZE) * CHUNK_SIZE + col % CHUNK_SIZE;
+    }
+
+    private Chunk chunk(long chunkIndex) {
+        Chunk chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunk = generateChunk(chunkIndex, clearedChunks.remove(chunkIndex));
+            chunks.put(chunkIndex, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * @param cleared whether to open every safe cell, rebuilding a chunk from {@link #clearedChunks}
+     */
+    private Chunk generateChunk(long chunkIndex, boolean cleared) {
+        int chunkRow = (int) (chunkIndex / chunksAcross);
+        int chunkCol = (int) (chunkIndex % chunksAcross);
+        int chunkHeight = Math.min(CHUNK_SIZE, height - chunkRow * CHUNK_SIZE);
+        int chunkWidth = Math.min(CHUNK_SIZE, width - chunkCol * CHUNK_SIZE);
+        int area = chunkHeight * chunkWidth;
+
+        long cellsBefore = (long) chunkRow * CHUNK_SIZE * width + (long) chunkHeight * chunkCol * CHUNK_SIZE;
+        int mines = (int) (minesUpTo(cellsBefore + area) - minesUpTo(cellsBefore));
+
+        Chunk chunk = new Chunk();
+        int[] cells = new int[area];
+        for (int i = 0; i < area; i++) {
+            cells[i] = i;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed ^ (chunkIndex * 0x9E3779B97F4A7C15L));
+        for (int i = 0; i < mines; i++) {
+            int j = i + random.nextInt(area - i);
+            int picked = cells[j];
+            cells[j] = cells[i];
+            cells[i] = picked;
+            chunk.state[(picked / chunkWidth) * CHUNK_SIZE + picked % chunkWidth] = MINE_BIT;
+        }
+
+        chunk.safe = area - mines;
+        if (cleared) {
+            for (int i = 0; i < chunkHeight; i++) {
+                for (int j = 0; j < chunkWidth; j++) {
+                    if (chunk.state[i * CHUNK_SIZE + j] == 0) {
+                        chunk.state[i * CHUNK_SIZE + j] = REVEALED_BIT;
+                    }
+                }
+            }
+            chunk.revealed = chunk.safe;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Mines falling into the first {@code cells} cells in chunk order, so that summing
+     * over all chunks gives exactly {@code minesCount}.
+     */
+    private long minesUpTo(long cells) {
+        return BigInteger.valueOf(minesCount)
+                .multiply(BigInteger.valueOf(cells))
+                .divide(BigInteger.valueOf((long) height * width))
+                .longValue();
+    }
+
+    private static final class Chunk {
+        private final byte[] state = new byte[CHUNK_CELLS];
+        private int revealed;
+        private int flagged;
+        private int safe;
+        private boolean mineOpened;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.example.minesweeper.managers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.FieldCell;
+import ru.example.minesweeper.model.FieldCellValueEnum;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of a minefield.
+ * <p>
+ * Layout of version 1: a version byte, the symbol currently shown on mine cells,
+ * height and width as big-endian ints, then one nibble per cell in row-major order
+ * (two cells per byte): bit 0 mine, bit 1 revealed, bit 2 flagged, bit 3 unused.
+ * Neighbour counts and displaying symbols are not stored,
+ * they are recomputed on decode. The nibble is the low half of a {@link FieldManager} cell state.
+ * <p>
+ * Rows written before the binary format are JSON arrays of {@link FieldCell};
+ * they start with {@code '['} and are still readable through {@link #decode(byte[])}.
+ */
+public final class FieldCodec {
+
+    public static final byte VERSION_1 = 1;
+
+    static final int HEADER_SIZE = 10;
+
+    static final int MINE_BIT = 1;
+    static final int REVEALED_BIT = 1 << 1;
+    static final int FLAG_BIT = 1 << 2;
+
+    private static final byte LEGACY_JSON_START = '[';
+
+    private FieldCodec() {
+    }
+
+    /**
+     * Cells of a dense board: one byte per cell in row-major order with the format's bits in the
+     * low nibble, and the symbol shown on mines.
+     */
+    record States(int height, int width, byte[] cells, FieldCellValueEnum mineSymbol) {
+    }
+
+    public static byte[] encode(FieldCell[][] field) {
+        States states = fromCells(field);
+        return encode(states.height(), states.width(), states.cells(), states.mineSymbol());
+    }
+
+    /**
+     * Encodes the low nibble of each cell state; the high nibble is ignored.
+     */
+    static byte[] encode(int height, int width, byte[] cells, FieldCellValueEnum mineSymbol) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (cells.length + 1) / 2);
+        buffer.put(VERSION_1);
+        buffer.put((byte) mineSymbol.ordinal());
+        buffer.putInt(height);
+        buffer.putInt(width);
+
+        byte[] data = buffer.array();
+        for (int index = 0; index < cells.length; index++) {
+            data[HEADER_SIZE + (index >> 1)] |= (byte) ((cells[index] & 0x0F) << ((index & 1) << 2));
+        }
+
+        return data;
+    }
+
+    /**
+     * Decodes into {@link FieldCell} objects; boards themselves are read by {@link FieldManager#FieldManager(byte[])}.
+     */
+    public static FieldCell[][] decode(byte[] data) {
+        return new FieldManager(data).getField();
+    }
+
+    static States decodeStates(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new MinefieldException("Empty field data");
+        }
+
+        if (data[0] == LEGACY_JSON_START) {
+            return decodeLegacyJson(new String(data, StandardCharsets.UTF_8));
+        }
+
+        if (data[0] != VERSION_1) {
+            throw new MinefieldException("Unsupported field format version: " + data[0]);
+        }
+
+        if (data.length < HEADER_SIZE) {
+            throw new MinefieldException("Truncated field data");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.get();
+        FieldCellValueEnum mineSymbol = mineSymbol(buffer.get());
+        int height = buffer.getInt();
+        int width = buffer.getInt();
+
+        if (data.length < HEADER_SIZE + (height * width + 1) / 2) {
+            throw new MinefieldException("Truncated field data");
+        }
+
+        byte[] cells = new byte[height * width];
+        for (int index = 0; index < cells.length; index++) {
+            cells[index] = (byte) ((data[HEADER_SIZE + (index >> 1)] >> ((index & 1) << 2)) & 0x0F);
+        }
+
+        return new States(height, width, cells, mineSymbol);
+    }
+
+    /**
+     * Reads the stored mine symbol, which comes from the database and is not trusted.
+     */
+    static FieldCellValueEnum mineSymbol(byte ordinal) {
+        FieldCellValueEnum[] symbols = FieldCellValueEnum.values();
+        if ((ordinal & 0xFF) >= symbols.length) {
+            throw new MinefieldException("Corrupt board");
+        }
+        return symbols[ordinal & 0xFF];
+    }
+
+    static States decodeLegacyJson(String json) {
+        try {
+            return fromCells(new ObjectMapper().readValue(json, FieldCell[][].class));
+        } catch (IOException ex) {
+            throw new MinefieldException(ex.getMessage());
+        }
+    }
+
+    private static States fromCells(FieldCell[][] field) {
+        int height = field.length;
+        int width = field[0].length;
+        byte[] cells = new byte[height * width];
+        FieldCellValueEnum mineSymbol = FieldCellValueEnum.EMPTY;
+
+        int index = 0;
+        for (FieldCell[] row : field) {
+            for (FieldCell cell : row) {
+                cells[index++] = (byte) ((cell.isMine() ? MINE_BIT : 0)
+                        | (cell.isRevealed() ? REVEALED_BIT : 0)
+                        | (cell.isFlagged() ? FLAG_BIT : 0));
+                if (cell.isMine()) {
+                    mineSymbol = cell.getDisplayingSymbol();
+                }
+            }
+        }
+
+        return new States(height, width, cells, mineSymbol);
+    }
+}
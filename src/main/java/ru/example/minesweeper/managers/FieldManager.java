@@ -2,39 +2,89 @@ package ru.example.minesweeper.managers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
 import lombok.Getter;
 import ru.example.minesweeper.exceptions.MinefieldException;
 import ru.example.minesweeper.model.FieldCell;
 import ru.example.minesweeper.model.FieldCellValueEnum;
 
-import java.io.IOException;
-import java.util.Random;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Dense board held as one state byte per cell in row-major order: the {@link FieldCodec} bits
+ * (mine, revealed, flagged) in the low nibble and the number of neighbouring mines in the high one.
+ * Mines all show the same symbol, kept once for the board.
+ * <p>
+ * {@link #getField()} exposes the cells as {@link FieldCell} objects for callers that still work
+ * on them; they read and write the state bytes of this board.
+ */
 @Getter
-public class FieldManager {
+public class FieldManager implements Minefield {
+
+    private static final int INITIAL_QUEUE_CAPACITY = 64;
+
+    private static final int MINE = FieldCodec.MINE_BIT;
+    private static final int REVEALED = FieldCodec.REVEALED_BIT;
+    private static final int FLAG = FieldCodec.FLAG_BIT;
+    private static final int COUNT_SHIFT = 4;
+
+    /**
+     * Symbol of a safe cell by its state byte.
+     */
+    private static final FieldCellValueEnum[] SAFE_SYMBOLS = new FieldCellValueEnum[256];
+
+    static {
+        for (int state = 0; state < SAFE_SYMBOLS.length; state++) {
+            int nearbyMines = state >>> COUNT_SHIFT;
+            if ((state & REVEALED) != 0) {
+                SAFE_SYMBOLS[state] = nearbyMines <= 8 ? FieldCellValueEnum.ofNearbyMines(nearbyMines) : null;
+            } else {
+                SAFE_SYMBOLS[state] = (state & FLAG) != 0 ? FieldCellValueEnum.FLAG : FieldCellValueEnum.EMPTY;
+            }
+        }
+    }
 
     private final int height;
     private final int width;
-    private final FieldCell[][] field;
+    @Getter(AccessLevel.NONE)
+    private final byte[] cells;
+    @Getter(AccessLevel.NONE)
+    private FieldCellValueEnum mineSymbol = FieldCellValueEnum.EMPTY;
+    private int minesCount;
+    private long revealedSafeCells;
+
+    @Getter(AccessLevel.NONE)
+    private int[] changedCells = new int[INITIAL_QUEUE_CAPACITY];
+    private int changedCellsCount;
 
     public FieldManager(int height, int width) {
         this.height = height;
         this.width = width;
-        this.field = new FieldCell[height][width];
-
-        initField();
+        this.cells = new byte[height * width];
     }
 
     public FieldManager(String serializedField) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            this.field = objectMapper.readValue(serializedField, FieldCell[][].class);
-        } catch (IOException ex) {
-            throw new MinefieldException(ex.getMessage());
-        }
-        this.height = field.length;
-        this.width = field[0].length;
+        this(FieldCodec.decodeLegacyJson(serializedField));
+    }
+
+    public FieldManager(byte[] serializedField) {
+        this(FieldCodec.decodeStates(serializedField));
+    }
+
+    private FieldManager(FieldCodec.States states) {
+        this.height = states.height();
+        this.width = states.width();
+        this.cells = states.cells();
+        this.mineSymbol = states.mineSymbol();
+
+        restoreCounters();
+    }
+
+    @Override
+    public byte[] fieldToBytes() {
+        return FieldCodec.encode(height, width, cells, mineSymbol);
     }
 
     public String fieldToString() {
@@ -42,101 +92,365 @@ public class FieldManager {
         ObjectMapper objectMapper = new ObjectMapper();
 
         try {
-            result = objectMapper.writeValueAsString(field);
+            result = objectMapper.writeValueAsString(getField());
         } catch (JsonProcessingException ex) {
             throw new MinefieldException(ex.getMessage());
         }
         return result;
     }
 
-    private void initField() {
+    /**
+     * Rebuilds the counters and the neighbour counts from the mine, revealed and flag bits.
+     */
+    private void restoreCounters() {
+        for (int index = 0; index < cells.length; index++) {
+            int state = cells[index];
+            if ((state & MINE) != 0) {
+                minesCount++;
+                incrementNeighbors(index / width, index % width);
+            } else if ((state & REVEALED) != 0) {
+                revealedSafeCells++;
+            }
+        }
+    }
+
+    /**
+     * Cells of this board as {@link FieldCell} views over its state; a new array on every call.
+     */
+    public FieldCell[][] getField() {
+        FieldCell[][] field = new FieldCell[height][width];
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
-                field[i][j] = new FieldCell();
+                field[i][j] = new CellView(i * width + j);
             }
         }
+        return field;
     }
 
     public void placeMines(int minesCount) {
-        Random random = new Random();
-        int mines = minesCount;
-
-        while (mines != 0) {
-            int row = random.nextInt(height);
-            int col = random.nextInt(width);
-            FieldCell cell = field[row][col];
+        placeMines(minesCount, ThreadLocalRandom.current().nextLong());
+    }
 
-            if (!cell.isMine()) {
-                cell.setMine(true);
+    /**
+     * Places mines on cells picked by a partial Fisher–Yates shuffle of the flattened indices,
+     * so the work is proportional to the number of mines.
+     * Above half density the safe cells are sampled instead. The same seed always produces
+     * the same board.
+     */
+    public void placeMines(int minesCount, long seed) {
+        int area = height * width;
+        SplittableRandom random = new SplittableRandom(seed);
 
-                incrementNeighbors(row, col);
-                mines--;
+        if (minesCount > area / 2) {
+            boolean[] safe = new boolean[area];
+            for (int index : sampleIndices(area, area - minesCount, random)) {
+                safe[index] = true;
+            }
+            for (int index = 0; index < area; index++) {
+                if (!safe[index]) {
+                    placeMine(index / width, index % width);
+                }
+            }
+        } else {
+            for (int index : sampleIndices(area, minesCount, random)) {
+                placeMine(index / width, index % width);
             }
         }
+
+        this.minesCount += minesCount;
+    }
+
+    /**
+     * Draws {@code count} distinct indices below {@code area}. Positions moved by the shuffle
+     * are kept in an open-addressing table sized for {@code count} entries.
+     */
+    private static int[] sampleIndices(int area, int count, SplittableRandom random) {
+        int capacity = Integer.highestOneBit(Math.max(4, count * 4) - 1) << 1;
+        int mask = capacity - 1;
+        int[] keys = new int[capacity];
+        int[] values = new int[capacity];
+        Arrays.fill(keys, -1);
+        int[] sample = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(area - i);
+
+            int slotJ = slot(keys, mask, j);
+            int picked = keys[slotJ] == j ? values[slotJ] : j;
+            int slotI = slot(keys, mask, i);
+            int current = keys[slotI] == i ? values[slotI] : i;
+
+            slotJ = slot(keys, mask, j);
+            keys[slotJ] = j;
+            values[slotJ] = current;
+            sample[i] = picked;
+        }
+
+        return sample;
+    }
+
+    private static int slot(int[] keys, int mask, int key) {
+        int slot = (key * 0x9E3779B9) & mask;
+        while (keys[slot] != -1 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void placeMine(int row, int col) {
+        cells[row * width + col] |= MINE;
+        incrementNeighbors(row, col);
     }
 
     private void incrementNeighbors(int row, int col) {
         for (int i = Math.max(0, row - 1); i <= Math.min(height - 1, row + 1); i++) {
+            int rowStart = i * width;
             for (int j = Math.max(0, col - 1); j <= Math.min(width - 1, col + 1); j++) {
                 if (i != row || j != col) {
-                    field[i][j].incrementNearbyMine();
+                    cells[rowStart + j] += 1 << COUNT_SHIFT;
                 }
             }
         }
     }
 
     public FieldCell getCellToReveal(int row, int col) {
-        if (field[row][col].isRevealed()) {
+        if (isRevealed(row, col)) {
             throw new MinefieldException("Cell already revealed");
         }
 
-        return field[row][col];
+        return new CellView(row * width + col);
     }
 
+    @Override
     public void revealAllMines(FieldCellValueEnum symbol) {
-        Stream.of(field)
-                .flatMap(Stream::of)
-                .filter(FieldCell::isMine)
-                .forEach(fieldCell -> fieldCell.setDisplayingSymbol(symbol));
+        mineSymbol = symbol;
+        for (int index = 0; index < cells.length; index++) {
+            if ((cells[index] & MINE) != 0) {
+                recordChange(index);
+            }
+        }
+    }
+
+    @Override
+    public void clearChanges() {
+        changedCellsCount = 0;
+    }
+
+    @Override
+    public int getChangedRow(int n) {
+        return changedCells[n] / width;
+    }
+
+    @Override
+    public int getChangedCol(int n) {
+        return changedCells[n] % width;
+    }
+
+    private void recordChange(int index) {
+        if (changedCellsCount == changedCells.length) {
+            changedCells = Arrays.copyOf(changedCells, changedCells.length << 1);
+        }
+        changedCells[changedCellsCount++] = index;
+    }
+
+    @Override
+    public boolean isMine(int row, int col) {
+        return (cells[row * width + col] & MINE) != 0;
+    }
+
+    @Override
+    public boolean isRevealed(int row, int col) {
+        return (cells[row * width + col] & REVEALED) != 0;
     }
 
+    @Override
+    public FieldCellValueEnum getSymbol(int row, int col) {
+        return symbolOf(cells[row * width + col] & 0xFF);
+    }
+
+    private FieldCellValueEnum symbolOf(int state) {
+        if ((state & MINE) != 0) {
+            if (mineSymbol != FieldCellValueEnum.EMPTY) {
+                return mineSymbol;
+            }
+            return (state & FLAG) != 0 ? FieldCellValueEnum.FLAG : FieldCellValueEnum.EMPTY;
+        }
+        return SAFE_SYMBOLS[state];
+    }
+
+    @Override
+    public boolean isFlagged(int row, int col) {
+        return (cells[row * width + col] & FLAG) != 0;
+    }
+
+    @Override
+    public void setFlagged(int row, int col, boolean flagged) {
+        int index = row * width + col;
+        cells[index] = (byte) (flagged ? cells[index] | FLAG : cells[index] & ~FLAG);
+        recordChange(index);
+    }
+
+    @Override
+    public int getNearbyMines(int row, int col) {
+        return (cells[row * width + col] & 0xFF) >>> COUNT_SHIFT;
+    }
+
+    @Override
+    public long revealCell(int row, int col) {
+        int index = row * width + col;
+        cells[index] |= REVEALED;
+        revealedSafeCells++;
+        recordChange(index);
+
+        long opened = 1;
+        if ((cells[index] & 0xFF) >>> COUNT_SHIFT == 0) {
+            opened += cascadeOpenCells(row, col);
+        }
+        return opened;
+    }
+
+    @Override
     public boolean isGameComplete() {
-        int openedCellsCount = 0;
-        int minesCount = 0;
+        return revealedSafeCells == width * height - minesCount;
+    }
 
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                if (field[i][j].isRevealed() && !field[i][j].isMine()) {
-                    openedCellsCount++;
-                }
+    /**
+     * Opens the neighbours of a zero cell and keeps flooding through every zero cell it reaches.
+     * Flagged cells are left closed. Works on a queue of flattened indices, so stack depth does not depend on the board size.
+     *
+     * @return number of cells opened by this call
+     */
+    public int cascadeOpenCells(int row, int col) {
+        int[] queue = new int[INITIAL_QUEUE_CAPACITY];
+        int head = 0;
+        int size = 1;
+        int opened = 0;
+        queue[0] = row * width + col;
+
+        while (size > 0) {
+            int index = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            size--;
+
+            int cellRow = index / width;
+            int cellCol = index % width;
 
-                if (field[i][j].isMine()) {
-                    minesCount++;
+            for (int i = Math.max(0, cellRow - 1); i <= Math.min(height - 1, cellRow + 1); i++) {
+                int rowStart = i * width;
+                for (int j = Math.max(0, cellCol - 1); j <= Math.min(width - 1, cellCol + 1); j++) {
+                    int neighbour = rowStart + j;
+                    int state = cells[neighbour];
+                    if ((state & (REVEALED | FLAG)) != 0) {
+                        continue;
+                    }
+                    cells[neighbour] = (byte) (state | REVEALED);
+                    opened++;
+                    recordChange(neighbour);
+                    if ((state & MINE) == 0) {
+                        revealedSafeCells++;
+                    }
+
+                    if ((state & 0xFF) >>> COUNT_SHIFT == 0) {
+                        if (size == queue.length) {
+                            queue = grow(queue, head);
+                            head = 0;
+                        }
+                        queue[(head + size) & (queue.length - 1)] = neighbour;
+                        size++;
+                    }
                 }
             }
         }
 
-        int noMineCellsCount = width * height - minesCount;
+        return opened;
+    }
 
-        return openedCellsCount == noMineCellsCount;
+    private static int[] grow(int[] queue, int head) {
+        int[] grown = new int[queue.length << 1];
+        int tail = queue.length - head;
+        System.arraycopy(queue, head, grown, 0, tail);
+        System.arraycopy(queue, 0, grown, tail, head);
+        return grown;
     }
 
-    public void cascadeOpenCells(int row, int col) {
-        for (int i = Math.max(0, row - 1); i <= Math.min(height - 1, row + 1); i++) {
-            for (int j = Math.max(0, col - 1); j <= Math.min(width - 1, col + 1); j++) {
-                if (field[i][j].isRevealed()) {
-                    continue;
-                }
-                field[i][j].setRevealed(true);
-                field[i][j].setDisplayingSymbol(
-                        FieldCellValueEnum.fromSymbol(
-                                String.valueOf(field[i][j].getNearbyMine())
-                        )
-                );
-
-                if (field[i][j].getNearbyMine() == 0) {
-                    cascadeOpenCells(i, j);
-                }
+    /**
+     * {@link FieldCell} reading and writing one cell of this board. The displaying symbol follows
+     * from the cell's state, so setting it only has an effect on mines, where it changes the
+     * symbol of every mine.
+     */
+    private final class CellView extends FieldCell {
+
+        private final int index;
+
+        private CellView(int index) {
+            this.index = index;
+        }
+
+        private boolean has(int bit) {
+            return (cells[index] & bit) != 0;
+        }
+
+        private void set(int bit, boolean value) {
+            cells[index] = (byte) (value ? cells[index] | bit : cells[index] & ~bit);
+        }
+
+        @Override
+        public int getNearbyMine() {
+            return (cells[index] & 0xFF) >>> COUNT_SHIFT;
+        }
+
+        @Override
+        public void setNearbyMine(int nearbyMine) {
+            cells[index] = (byte) ((cells[index] & 0x0F) | (nearbyMine << COUNT_SHIFT));
+        }
+
+        @Override
+        public void incrementNearbyMine() {
+            if (!isMine()) {
+                setNearbyMine(getNearbyMine() + 1);
+            }
+        }
+
+        @Override
+        public boolean isRevealed() {
+            return has(REVEALED);
+        }
+
+        @Override
+        public void setRevealed(boolean revealed) {
+            set(REVEALED, revealed);
+        }
+
+        @Override
+        public boolean isMine() {
+            return has(MINE);
+        }
+
+        @Override
+        public void setMine(boolean mine) {
+            set(MINE, mine);
+        }
+
+        @Override
+        public boolean isFlagged() {
+            return has(FLAG);
+        }
+
+        @Override
+        public void setFlagged(boolean flagged) {
+            set(FLAG, flagged);
+        }
+
+        @Override
+        public FieldCellValueEnum getDisplayingSymbol() {
+            // a flag is not part of the symbol stored in a FieldCell
+            return symbolOf(cells[index] & 0xFF & ~FLAG);
+        }
+
+        @Override
+        public void setDisplayingSymbol(FieldCellValueEnum displayingSymbol) {
+            if (isMine()) {
+                mineSymbol = displayingSymbol;
             }
         }
     }
@@ -0,0 +1,188 @@
+package ru.example.minesweeper.managers;
+
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.FieldCellValueEnum;
+import ru.example.minesweeper.model.TurnActionEnum;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+
+/**
+ * Board operations used by the game service, implemented by the dense {@link FieldManager}
+ * and by {@link ChunkedFieldManager} for fields too large to allocate up front.
+ */
+public interface Minefield {
+
+    int getHeight();
+
+    int getWidth();
+
+    int getMinesCount();
+
+    boolean isMine(int row, int col);
+
+    boolean isRevealed(int row, int col);
+
+    FieldCellValueEnum getSymbol(int row, int col);
+
+    boolean isFlagged(int row, int col);
+
+    /**
+     * Sets or clears the flag of a hidden cell and records it as changed.
+     */
+    void setFlagged(int row, int col, boolean flagged);
+
+    int getNearbyMines(int row, int col);
+
+    /**
+     * Opens a safe cell and, if it has no mines around, cascades from it.
+     *
+     * @return number of cells opened, including the cell itself
+     */
+    long revealCell(int row, int col);
+
+    void revealAllMines(FieldCellValueEnum symbol);
+
+    long getRevealedSafeCells();
+
+    boolean isGameComplete();
+
+    /**
+     * Forgets the cells recorded as changed, called before applying a new turn.
+     */
+    void clearChanges();
+
+    int getChangedCellsCount();
+
+    int getChangedRow(int n);
+
+    int getChangedCol(int n);
+
+    byte[] fieldToBytes();
+
+    /**
+     * @return true if the board cannot be rendered as a full matrix in a response
+     */
+    default boolean isChunked() {
+        return false;
+    }
+
+    /**
+     * Applies one move of any kind; see {@link TurnActionEnum}.
+     */
+    default TurnOutcomeEnum applyAction(TurnActionEnum action, int row, int col) {
+        return switch (action) {
+            case REVEAL -> applyTurn(row, col);
+            case FLAG, UNFLAG -> applyFlag(row, col, action == TurnActionEnum.FLAG);
+            case CHORD -> applyChord(row, col);
+        };
+    }
+
+    /**
+     * Applies one reveal: a mine ends the game and shows all mines, a safe cell is opened
+     * (cascading from zeros) and opening the last safe cell wins.
+     */
+    default TurnOutcomeEnum applyTurn(int row, int col) {
+        if (isRevealed(row, col)) {
+            throw new MinefieldException("Cell already revealed");
+        }
+        if (isFlagged(row, col)) {
+            throw new MinefieldException("Cell is flagged");
+        }
+
+        if (isMine(row, col)) {
+            revealAllMines(FieldCellValueEnum.OPENED_MINE);
+            return TurnOutcomeEnum.EXPLODED;
+        }
+
+        revealCell(row, col);
+        if (isGameComplete()) {
+            revealAllMines(FieldCellValueEnum.MINE);
+            return TurnOutcomeEnum.WON;
+        }
+        return TurnOutcomeEnum.OPENED;
+    }
+
+    private TurnOutcomeEnum applyFlag(int row, int col, boolean flagged) {
+        if (isRevealed(row, col)) {
+            throw new MinefieldException("Cell already revealed");
+        }
+        if (isFlagged(row, col) == flagged) {
+            throw new MinefieldException(flagged ? "Cell already flagged" : "Cell is not flagged");
+        }
+        setFlagged(row, col, flagged);
+        return flagged ? TurnOutcomeEnum.FLAGGED : TurnOutcomeEnum.UNFLAGGED;
+    }
+
+    /**
+     * Opens every hidden, unflagged neighbour of an opened number once the flags around it
+     * match the number. Each neighbour goes through {@link #revealCell(int, int)}, so zeros
+     * cascade the same way as on a reveal; a wrong flag means a mine is opened and the game is lost.
+     */
+    private TurnOutcomeEnum applyChord(int row, int col) {
+        if (!isRevealed(row, col) || getNearbyMines(row, col) == 0) {
+            throw new MinefieldException("Chord requires an opened number");
+        }
+
+        int flags = 0;
+        int hidden = 0;
+        for (int i = Math.max(0, row - 1); i <= Math.min(getHeight() - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(getWidth() - 1, col + 1); j++) {
+                if (isFlagged(i, j)) {
+                    flags++;
+                } else if (!isRevealed(i, j)) {
+                    hidden++;
+                }
+            }
+        }
+        if (flags != getNearbyMines(row, col)) {
+            throw new MinefieldException("Flags around cell do not match its number");
+        }
+        if (hidden == 0) {
+            throw new MinefieldException("Chord has no cells to open");
+        }
+
+        boolean exploded = false;
+        for (int i = Math.max(0, row - 1); i <= Math.min(getHeight() - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(getWidth() - 1, col + 1); j++) {
+                // an earlier neighbour's cascade may already have opened this one
+                if (isFlagged(i, j) || isRevealed(i, j)) {
+                    continue;
+                }
+                if (isMine(i, j)) {
+                    exploded = true;
+                } else {
+                    revealCell(i, j);
+                }
+            }
+        }
+
+        if (exploded) {
+            revealAllMines(FieldCellValueEnum.OPENED_MINE);
+            return TurnOutcomeEnum.EXPLODED;
+        }
+        if (isGameComplete()) {
+            revealAllMines(FieldCellValueEnum.MINE);
+            return TurnOutcomeEnum.WON;
+        }
+        return TurnOutcomeEnum.OPENED;
+    }
+
+    /**
+     * Builds the initial board for a seed; the same arguments always give the same board.
+     */
+    static Minefield create(int height, int width, int minesCount, long seed, boolean chunked) {
+        if (chunked) {
+            return new ChunkedFieldManager(height, width, minesCount, seed);
+        }
+        FieldManager fieldManager = new FieldManager(height, width);
+        fieldManager.placeMines(minesCount, seed);
+        return fieldManager;
+    }
+
+    static Minefield decode(byte[] serializedField) {
+        if (serializedField != null && serializedField.length > 0
+                && serializedField[0] == ChunkedFieldManager.VERSION_CHUNKED) {
+            return ChunkedFieldManager.decode(serializedField);
+        }
+        return new FieldManager(serializedField);
+    }
+}
@@ -0,0 +1,562 @@
+package ru.example.minesweeper.managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Works out what the player can know from the opened numbers alone; mine positions of hidden
+ * cells are never looked at, and flags are not trusted.
+ * <p>
+ * Every opened number with hidden neighbours is a constraint "these cells hold exactly n mines".
+ * Constraints are first propagated (a satisfied number clears its other neighbours, a number with
+ * as many hidden neighbours as mines fills them, and a constraint contained in another settles
+ * their difference). The hidden cells left undecided split into components that share no
+ * constraint; each is enumerated on the fork-join pool, giving exact answers for cells that are
+ * safe or mined in every solution and a probability for the rest. Solutions with {@code k} mines
+ * are weighted by the odds of the remaining mine density, so components are treated as independent.
+ * <p>
+ * The solver stops at the deadline and returns what it has settled so far, marked as partial.
+ */
+public class MinefieldSolver {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final ForkJoinPool pool;
+    private final int maxComponentCells;
+
+    /**
+     * @param pool              pool the components are enumerated on, or null to enumerate them
+     *                          in the calling thread
+     * @param maxComponentCells largest component that is enumerated; larger ones only get the
+     *                          average density
+     */
+    public MinefieldSolver(ForkJoinPool pool, int maxComponentCells) {
+        this.pool = pool;
+        this.maxComponentCells = maxComponentCells;
+    }
+
+    /**
+     * Solver for callers that already run many solves in parallel.
+     */
+    public static MinefieldSolver sequential(int maxComponentCells) {
+        return new MinefieldSolver(null, maxComponentCells);
+    }
+
+    /**
+     * Stops the pool the solver was created with; the common pool ignores this.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} value after which a partial result is returned
+     */
+    public SolverResult solve(Minefield minefield, long deadline) {
+        return solve(minefield, 0, 0, minefield.getHeight(), minefield.getWidth(), deadline);
+    }
+
+    /**
+     * Same as {@link #solve(Minefield, long)} using only the numbers opened inside a window of the board,
+     * for boards too large to scan.
+     */
+    public SolverResult solve(Minefield minefield, int top, int left, int height, int width, long deadline) {
+        Constraints constraints = new Constraints(minefield);
+        for (int row = Math.max(0, top); row < Math.min(minefield.getHeight(), top + height); row++) {
+            for (int col = Math.max(0, left); col < Math.min(minefield.getWidth(), left + width); col++) {
+                if (minefield.isRevealed(row, col)) {
+                    constraints.add(row, col);
+                }
+            }
+        }
+
+        boolean partial = !constraints.propagate(deadline);
+
+        double[] probabilities = new double[constraints.size()];
+        Arrays.fill(probabilities, Double.NaN);
+        long knownMines = constraints.count(MINE);
+        long hidden = (long) minefield.getHeight() * minefield.getWidth() - minefield.getRevealedSafeCells();
+        double density = clamp((double) (minefield.getMinesCount() - knownMines)
+                / Math.max(1, hidden - knownMines - constraints.count(SAFE)));
+
+        if (!partial) {
+            List<int[]> components = constraints.components();
+            List<ForkJoinTask<long[][]>> tasks = new ArrayList<>(components.size());
+            for (int[] component : components) {
+                if (component.length > maxComponentCells) {
+                    tasks.add(null);
+                } else if (pool == null) {
+                    ComponentTask task = new ComponentTask(constraints, component, deadline);
+                    task.invoke();
+                    tasks.add(task);
+                } else {
+                    tasks.add(pool.submit(new ComponentTask(constraints, component, deadline)));
+                }
+            }
+
+            for (int n = 0; n < components.size(); n++) {
+                long[][] counts = tasks.get(n) == null ? null : await(tasks.get(n), deadline);
+                if (counts == null) {
+                    partial = true;
+                    continue;
+                }
+                constraints.applyCounts(components.get(n), counts, density, probabilities);
+            }
+        }
+
+        List<SolverResult.Cell> safe = new ArrayList<>();
+        List<SolverResult.Cell> mines = new ArrayList<>();
+        List<SolverResult.Cell> frontier = new ArrayList<>();
+        double expectedMines = 0;
+        for (int var = 0; var < constraints.size(); var++) {
+            int row = constraints.row(var);
+            int col = constraints.col(var);
+            switch (constraints.state[var]) {
+                case SAFE -> safe.add(new SolverResult.Cell(row, col, 0));
+                case MINE -> {
+                    mines.add(new SolverResult.Cell(row, col, 1));
+                    expectedMines++;
+                }
+                default -> {
+                    double probability = Double.isNaN(probabilities[var]) ? density : probabilities[var];
+                    frontier.add(new SolverResult.Cell(row, col, probability));
+                    expectedMines += probability;
+                }
+            }
+        }
+
+        Comparator<SolverResult.Cell> byPosition = Comparator.comparingInt(SolverResult.Cell::row)
+                .thenComparingInt(SolverResult.Cell::col);
+        safe.sort(byPosition);
+        mines.sort(byPosition);
+        frontier.sort(byPosition);
+
+        long others = hidden - constraints.size();
+        double otherProbability = others <= 0 ? 0 : clamp((minefield.getMinesCount() - expectedMines) / others);
+        return new SolverResult(safe, mines, frontier, otherProbability, partial);
+    }
+
+    private static long[][] await(ForkJoinTask<long[][]> task, long deadline) {
+        try {
+            return task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            task.cancel(true);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            return null;
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Solver failed", ex.getCause());
+        }
+    }
+
+    private static double clamp(double probability) {
+        return Math.min(1, Math.max(0, probability));
+    }
+
+    /**
+     * Hidden cells next to opened numbers, numbered in the order they are met, and the numbers
+     * over them.
+     */
+    private static final class Constraints {
+
+        private final Minefield minefield;
+        private final Map<Long, Integer> vars = new HashMap<>();
+        private int[] rows = new int[64];
+        private int[] cols = new int[64];
+        private byte[] state = new byte[64];
+
+        private final List<int[]> cells = new ArrayList<>();
+        private final List<Integer> mines = new ArrayList<>();
+
+        private Constraints(Minefield minefield) {
+            this.minefield = minefield;
+        }
+
+        int size() {
+            return vars.size();
+        }
+
+        int row(int var) {
+            return rows[var];
+        }
+
+        int col(int var) {
+            return cols[var];
+        }
+
+        void add(int row, int col) {
+            int[] neighbours = new int[8];
+            int count = 0;
+            for (int i = Math.max(0, row - 1); i <= Math.min(minefield.getHeight() - 1, row + 1); i++) {
+                for (int j = Math.max(0, col - 1); j <= Math.min(minefield.getWidth() - 1, col + 1); j++) {
+                    if (!minefield.isRevealed(i, j)) {
+                        neighbours[count++] = var(i, j);
+                    }
+                }
+            }
+            if (count > 0) {
+                cells.add(Arrays.copyOf(neighbours, count));
+                mines.add(minefield.getNearbyMines(row, col));
+            }
+        }
+
+        private int var(int row, int col) {
+            return vars.computeIfAbsent((long) row * minefield.getWidth() + col, key -> {
+                int var = vars.size();
+                if (var == rows.length) {
+                    rows = Arrays.copyOf(rows, var << 1);
+                    cols = Arrays.copyOf(cols, var << 1);
+                    state = Arrays.copyOf(state, var << 1);
+                }
+                rows[var] = row;
+                cols[var] = col;
+                return var;
+            });
+        }
+
+        long count(byte value) {
+            long count = 0;
+            for (int var = 0; var < size(); var++) {
+                if (state[var] == value) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Settles cells until nothing changes.
+         *
+         * @return false if the deadline was hit first
+         */
+        boolean propagate(long deadline) {
+            int[][] constraintsOfVar = constraintsOfVar();
+            boolean changed = true;
+            while (changed) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                changed = false;
+                for (int c = 0; c < cells.size(); c++) {
+                    changed |= settle(unknowns(c), remaining(c));
+                }
+                if (!changed) {
+                    changed = settleSubsets(constraintsOfVar);
+                }
+            }
+            return true;
+        }
+
+        private boolean settle(int[] unknown, int remaining) {
+            if (unknown.length == 0) {
+                return false;
+            }
+            if (remaining == 0) {
+                mark(unknown, SAFE);
+                return true;
+            }
+            if (remaining == unknown.length) {
+                mark(unknown, MINE);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * When the hidden cells of one number all surround another, the other's extra cells hold
+         * the difference of their mines.
+         */
+        private boolean settleSubsets(int[][] constraintsOfVar) {
+            for (int a = 0; a < cells.size(); a++) {
+                int[] inner = unknowns(a);
+                if (inner.length == 0) {
+                    continue;
+                }
+                for (int b : constraintsOfVar[inner[0]]) {
+                    if (b == a) {
+                        continue;
+                    }
+                    int[] outer = unknowns(b);
+                    int[] difference = difference(outer, inner);
+                    if (difference == null || difference.length == 0) {
+                        continue;
+                    }
+                    int remaining = remaining(b) - remaining(a);
+                    if (remaining == 0 || remaining == difference.length) {
+                        mark(difference, remaining == 0 ? SAFE : MINE);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return cells of {@code outer} not in {@code inner}, or null if {@code inner} is not contained in it
+         */
+        private static int[] difference(int[] outer, int[] inner) {
+            int[] difference = new int[outer.length];
+            int count = 0;
+            int matched = 0;
+            for (int var : outer) {
+                boolean found = false;
+                for (int other : inner) {
+                    found |= var == other;
+                }
+                if (found) {
+                    matched++;
+                } else {
+                    difference[count++] = var;
+                }
+            }
+            return matched == inner.length ? Arrays.copyOf(difference, count) : null;
+        }
+
+        private void mark(int[] unknown, byte value) {
+            for (int var : unknown) {
+                state[var] = value;
+            }
+        }
+
+        int[] unknowns(int constraint) {
+            int[] all = cells.get(constraint);
+            int[] unknown = new int[all.length];
+            int count = 0;
+            for (int var : all) {
+                if (state[var] == UNKNOWN) {
+                    unknown[count++] = var;
+                }
+            }
+            return count == all.length ? unknown : Arrays.copyOf(unknown, count);
+        }
+
+        int remaining(int constraint) {
+            int remaining = mines.get(constraint);
+            for (int var : cells.get(constraint)) {
+                if (state[var] == MINE) {
+                    remaining--;
+                }
+            }
+            return remaining;
+        }
+
+        private int[][] constraintsOfVar() {
+            int[] counts = new int[size()];
+            for (int[] constraint : cells) {
+                for (int var : constraint) {
+                    counts[var]++;
+                }
+            }
+            int[][] result = new int[size()][];
+            for (int var = 0; var < size(); var++) {
+                result[var] = new int[counts[var]];
+                counts[var] = 0;
+            }
+            for (int c = 0; c < cells.size(); c++) {
+                for (int var : cells.get(c)) {
+                    result[var][counts[var]++] = c;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Groups undecided cells linked by a shared number, each group listed in the order its
+         * numbers are met so that enumeration prunes early.
+         */
+        List<int[]> components() {
+            int[] parent = new int[size()];
+            for (int var = 0; var < parent.length; var++) {
+                parent[var] = var;
+            }
+            for (int c = 0; c < cells.size(); c++) {
+                int[] unknown = unknowns(c);
+                for (int n = 1; n < unknown.length; n++) {
+                    parent[find(parent, unknown[n])] = find(parent, unknown[0]);
+                }
+            }
+
+            Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+            boolean[] listed = new boolean[size()];
+            for (int c = 0; c < cells.size(); c++) {
+                for (int var : unknowns(c)) {
+                    if (!listed[var]) {
+                        listed[var] = true;
+                        groups.computeIfAbsent(find(parent, var), root -> new ArrayList<>()).add(var);
+                    }
+                }
+            }
+            return groups.values().stream()
+                    .map(group -> group.stream().mapToInt(Integer::intValue).toArray())
+                    .toList();
+        }
+
+        private static int find(int[] parent, int var) {
+            while (parent[var] != var) {
+                parent[var] = parent[parent[var]];
+                var = parent[var];
+            }
+            return var;
+        }
+
+        /**
+         * Turns the per-mine-count solution counts of a component into cell states and probabilities.
+         */
+        void applyCounts(int[] component, long[][] counts, double density, double[] probabilities) {
+            long[] solutions = counts[0];
+            double odds = density >= 1 ? Double.MAX_VALUE : density / (1 - density);
+            double total = 0;
+            double[] weights = new double[solutions.length];
+            long totalSolutions = 0;
+            for (int k = 0; k < solutions.length; k++) {
+                weights[k] = Math.pow(odds, k);
+                total += weights[k] * solutions[k];
+                totalSolutions += solutions[k];
+            }
+            if (totalSolutions == 0) {
+                return;
+            }
+
+            for (int n = 0; n < component.length; n++) {
+                double weighted = 0;
+                long withMine = 0;
+                for (int k = 0; k < solutions.length; k++) {
+                    weighted += weights[k] * counts[k + 1][n];
+                    withMine += counts[k + 1][n];
+                }
+                int var = component[n];
+                if (withMine == 0) {
+                    state[var] = SAFE;
+                } else if (withMine == totalSolutions) {
+                    state[var] = MINE;
+                } else {
+                    probabilities[var] = total > 0 ? weighted / total : density;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the mine layouts of one component that satisfy all its numbers.
+     * The result holds the number of solutions per mine count in row 0 and, in row {@code k + 1},
+     * how many solutions with {@code k} mines put a mine in each cell; null if the deadline was hit.
+     */
+    private static final class ComponentTask extends RecursiveTask<long[][]> {
+
+        private final int[] vars;
+        private final int[][] constraintsOfVar;
+        private final int[] remaining;
+        private final int[] assigned;
+        private final int[] unassigned;
+        private final boolean[] value;
+        private final long deadline;
+        private final long[][] counts;
+
+        private long nodes;
+        private boolean aborted;
+
+        private ComponentTask(Constraints constraints, int[] vars, long deadline) {
+            this.vars = vars;
+            this.deadline = deadline;
+
+            Map<Integer, Integer> local = new HashMap<>();
+            for (int n = 0; n < vars.length; n++) {
+                local.put(vars[n], n);
+            }
+            List<int[]> componentConstraints = new ArrayList<>();
+            List<Integer> componentRemaining = new ArrayList<>();
+            for (int c = 0; c < constraints.cells.size(); c++) {
+                int[] unknown = constraints.unknowns(c);
+                if (unknown.length > 0 && local.containsKey(unknown[0])) {
+                    componentConstraints.add(Arrays.stream(unknown).map(local::get).toArray());
+                    componentRemaining.add(constraints.remaining(c));
+                }
+            }
+
+            List<List<Integer>> byVar = new ArrayList<>();
+            for (int n = 0; n < vars.length; n++) {
+                byVar.add(new ArrayList<>());
+            }
+            this.remaining = new int[componentConstraints.size()];
+            this.unassigned = new int[componentConstraints.size()];
+            for (int c = 0; c < componentConstraints.size(); c++) {
+                remaining[c] = componentRemaining.get(c);
+                unassigned[c] = componentConstraints.get(c).length;
+                for (int n : componentConstraints.get(c)) {
+                    byVar.get(n).add(c);
+                }
+            }
+            this.constraintsOfVar = byVar.stream()
+                    .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                    .toArray(int[][]::new);
+            this.assigned = new int[componentConstraints.size()];
+            this.value = new boolean[vars.length];
+            this.counts = new long[vars.length + 2][];
+        }
+
+        @Override
+        protected long[][] compute() {
+            counts[0] = new long[vars.length + 1];
+            for (int k = 0; k <= vars.length; k++) {
+                counts[k + 1] = new long[vars.length];
+            }
+            search(0, 0);
+            return aborted ? null : counts;
+        }
+
+        private void search(int depth, int mines) {
+            if (aborted) {
+                return;
+            }
+            if (++nodes % DEADLINE_CHECK_INTERVAL == 0 && (System.nanoTime() > deadline || isCancelled())) {
+                aborted = true;
+                return;
+            }
+            if (depth == vars.length) {
+                counts[0][mines]++;
+                for (int n = 0; n < vars.length; n++) {
+                    if (value[n]) {
+                        counts[mines + 1][n]++;
+                    }
+                }
+                return;
+            }
+
+            for (int mine = 0; mine <= 1; mine++) {
+                boolean consistent = true;
+                for (int c : constraintsOfVar[depth]) {
+                    unassigned[c]--;
+                    assigned[c] += mine;
+                    consistent &= assigned[c] <= remaining[c] && assigned[c] + unassigned[c] >= remaining[c];
+                }
+                if (consistent) {
+                    value[depth] = mine == 1;
+                    search(depth + 1, mines + mine);
+                }
+                for (int c : constraintsOfVar[depth]) {
+                    unassigned[c]++;
+                    assigned[c] -= mine;
+                }
+            }
+        }
+    }
+}
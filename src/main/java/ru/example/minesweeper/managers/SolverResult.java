@@ -0,0 +1,23 @@
+package ru.example.minesweeper.managers;
+
+import java.util.List;
+
+/**
+ * What {@link MinefieldSolver} could tell from the opened numbers.
+ *
+ * @param safe               hidden cells that cannot hold a mine
+ * @param mines              hidden cells that must hold a mine
+ * @param frontier           other hidden cells next to an opened number, with their mine probability
+ * @param otherProbability   mine probability of a hidden cell not touching any opened number
+ * @param partial            true if the deadline was hit or a frontier component was too large to enumerate;
+ *                           the cells listed are still certain, but some may be missing
+ */
+public record SolverResult(List<Cell> safe,
+                           List<Cell> mines,
+                           List<Cell> frontier,
+                           double otherProbability,
+                           boolean partial) {
+
+    public record Cell(int row, int col, double mineProbability) {
+    }
+}
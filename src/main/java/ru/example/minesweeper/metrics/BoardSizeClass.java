@@ -0,0 +1,32 @@
+package ru.example.minesweeper.metrics;
+
+/**
+ * Bounded tag for board sizes, named after the classic difficulty with at most as many cells.
+ */
+public enum BoardSizeClass {
+    BEGINNER(81),
+    INTERMEDIATE(256),
+    EXPERT(480),
+    LARGE(2_500),
+    HUGE(Long.MAX_VALUE);
+
+    private final long maxCells;
+
+    BoardSizeClass(long maxCells) {
+        this.maxCells = maxCells;
+    }
+
+    public static BoardSizeClass of(int height, int width) {
+        long cells = (long) height * width;
+        for (BoardSizeClass sizeClass : values()) {
+            if (cells <= sizeClass.maxCells) {
+                return sizeClass;
+            }
+        }
+        return HUGE;
+    }
+
+    String tag() {
+        return name().toLowerCase();
+    }
+}
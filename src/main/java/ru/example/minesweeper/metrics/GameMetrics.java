@@ -0,0 +1,248 @@
+package ru.example.minesweeper.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.example.minesweeper.dto.NoGuessStatsResponse;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game engine meters. Every meter is registered up front, so recording is a clock read
+ * and an atomic add with no lookup or allocation on the request path.
+ * <ul>
+ *     <li>{@code minesweeper.game.create}, {@code minesweeper.game.turn} - request timers</li>
+ *     <li>{@code minesweeper.game.phase} - time per {@link GamePhase}</li>
+ *     <li>{@code minesweeper.turn.outcomes} - applied moves by outcome</li>
+ *     <li>{@code minesweeper.turn.rejected} - refused turns and moves by reason</li>
+ *     <li>{@code minesweeper.cascade.cells} - cells opened by one move</li>
+ *     <li>{@code minesweeper.board.bytes} - size of an encoded board</li>
+ *     <li>{@code minesweeper.noguess.generate} - no-guess board searches by {@link BoardSizeClass}
+ *     and result, with p50/p95/p99</li>
+ *     <li>{@code minesweeper.noguess.candidates} - boards tested per search</li>
+ * </ul>
+ */
+@Component
+public class GameMetrics {
+
+    private final Timer createTimer;
+    private final Timer turnTimer;
+    private final Timer batchTurnTimer;
+    private final Map<GamePhase, Timer> phaseTimers = new EnumMap<>(GamePhase.class);
+    private final Map<TurnOutcomeEnum, Counter> outcomes = new EnumMap<>(TurnOutcomeEnum.class);
+    private final Map<RejectionReason, Counter> rejections = new EnumMap<>(RejectionReason.class);
+    private final DistributionSummary cascadeCells;
+    private final DistributionSummary boardBytes;
+    private final Map<BoardSizeClass, Timer> noGuessGenerated = new EnumMap<>(BoardSizeClass.class);
+    private final Map<BoardSizeClass, Timer> noGuessFailed = new EnumMap<>(BoardSizeClass.class);
+    private final Map<BoardSizeClass, DistributionSummary> noGuessCandidates = new EnumMap<>(BoardSizeClass.class);
+
+    public GameMetrics(MeterRegistry registry) {
+        createTimer = Timer.builder("minesweeper.game.create")
+                .description("New game requests")
+                .register(registry);
+        turnTimer = Timer.builder("minesweeper.game.turn")
+                .description("Turn requests")
+                .tag("type", "single")
+                .register(registry);
+        batchTurnTimer = Timer.builder("minesweeper.game.turn")
+                .description("Turn requests")
+                .tag("type", "batch")
+                .register(registry);
+
+        for (GamePhase phase : GamePhase.values()) {
+            phaseTimers.put(phase, Timer.builder("minesweeper.game.phase")
+                    .description("Time spent in each step of creating games and applying turns")
+                    .tag("phase", phase.tag())
+                    .register(registry));
+        }
+        for (TurnOutcomeEnum outcome : TurnOutcomeEnum.values()) {
+            if (outcome != TurnOutcomeEnum.REJECTED && outcome != TurnOutcomeEnum.SKIPPED) {
+                outcomes.put(outcome, Counter.builder("minesweeper.turn.outcomes")
+                        .description("Applied moves by outcome")
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(registry));
+            }
+        }
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejections.put(reason, Counter.builder("minesweeper.turn.rejected")
+                    .description("Refused turns and batch moves by reason")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(registry));
+        }
+
+        cascadeCells = DistributionSummary.builder("minesweeper.cascade.cells")
+                .description("Cells opened by one move")
+                .baseUnit("cells")
+                .register(registry);
+        boardBytes = DistributionSummary.builder("minesweeper.board.bytes")
+                .description("Size of an encoded board")
+                .baseUnit("bytes")
+                .register(registry);
+
+        for (BoardSizeClass size : BoardSizeClass.values()) {
+            noGuessGenerated.put(size, noGuessTimer(registry, size, "generated"));
+            noGuessFailed.put(size, noGuessTimer(registry, size, "failed"));
+            noGuessCandidates.put(size, DistributionSummary.builder("minesweeper.noguess.candidates")
+                    .description("Boards tested by one no-guess search")
+                    .tag("size", size.tag())
+                    .register(registry));
+        }
+    }
+
+    private static Timer noGuessTimer(MeterRegistry registry, BoardSizeClass size, String result) {
+        return Timer.builder("minesweeper.noguess.generate")
+                .description("No-guess board searches; failed ones hit the time cap and fell back to a regular board")
+                .tag("size", size.tag())
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * Meters that are kept in memory only, for code built outside the Spring context.
+     */
+    public static GameMetrics standalone() {
+        return new GameMetrics(new SimpleMeterRegistry());
+    }
+
+    public void recordCreate(long startNanos) {
+        createTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTurn(long startNanos, boolean batch) {
+        (batch ? batchTurnTimer : turnTimer).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time since {@code startNanos} against the phase.
+     *
+     * @return the current time, to start timing the next phase
+     */
+    public long recordPhase(GamePhase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseTimers.get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void recordOutcome(TurnOutcomeEnum outcome, long openedCells) {
+        Counter counter = outcomes.get(outcome);
+        if (counter != null) {
+            counter.increment();
+        }
+        if (openedCells > 0) {
+            cascadeCells.record(openedCells);
+        }
+    }
+
+    public void recordRejected(MinefieldException ex) {
+        rejections.get(RejectionReason.of(ex.getMessage())).increment();
+    }
+
+    public void recordBoardSize(int bytes) {
+        boardBytes.record(bytes);
+    }
+
+    public void recordNoGuess(int height, int width, boolean generated, long candidates, long startNanos) {
+        BoardSizeClass size = BoardSizeClass.of(height, width);
+        (generated ? noGuessGenerated : noGuessFailed).get(size)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        noGuessCandidates.get(size).record(candidates);
+    }
+
+    /**
+     * Per size class that has seen a search: counts, failure rate, and percentiles of successful searches.
+     */
+    public List<NoGuessStatsResponse> noGuessStats() {
+        List<NoGuessStatsResponse> stats = new ArrayList<>();
+        for (BoardSizeClass size : BoardSizeClass.values()) {
+            Timer generated = noGuessGenerated.get(size);
+            long failed = noGuessFailed.get(size).count();
+            long total = generated.count() + failed;
+            if (total == 0) {
+                continue;
+            }
+
+            NoGuessStatsResponse.NoGuessStatsResponseBuilder response = NoGuessStatsResponse.builder()
+                    .size(size.tag())
+                    .generated(generated.count())
+                    .failed(failed)
+                    .failureRate((double) failed / total)
+                    .avgCandidates(noGuessCandidates.get(size).mean());
+            for (ValueAtPercentile percentile : generated.takeSnapshot().percentileValues()) {
+                double millis = percentile.value(TimeUnit.MILLISECONDS);
+                if (percentile.percentile() == 0.5) {
+                    response.p50Ms(millis);
+                } else if (percentile.percentile() == 0.95) {
+                    response.p95Ms(millis);
+                } else if (percentile.percentile() == 0.99) {
+                    response.p99Ms(millis);
+                }
+            }
+            stats.add(response.build());
+        }
+        return stats;
+    }
+
+    /**
+     * Bounded set of tags for {@link MinefieldException} messages, which may carry ids.
+     */
+    enum RejectionReason {
+        ALREADY_REVEALED,
+        FLAG_STATE,
+        INVALID_CHORD,
+        GAME_COMPLETED,
+        INVALID_COORDINATES,
+        GAME_NOT_FOUND,
+        INVALID_GAME,
+        TOO_MANY_MOVES,
+        CONCURRENT_MODIFICATION,
+        OTHER;
+
+        static RejectionReason of(String message) {
+            if (message == null) {
+                return OTHER;
+            }
+            if (message.startsWith("Cell already revealed")) {
+                return ALREADY_REVEALED;
+            }
+            if (message.startsWith("Cell is flagged") || message.startsWith("Cell already flagged")
+                    || message.startsWith("Cell is not flagged")) {
+                return FLAG_STATE;
+            }
+            if (message.startsWith("Chord") || message.startsWith("Flags around cell")) {
+                return INVALID_CHORD;
+            }
+            if (message.startsWith("Game already completed")) {
+                return GAME_COMPLETED;
+            }
+            if (message.startsWith("Invalid move coordinates")) {
+                return INVALID_COORDINATES;
+            }
+            if (message.startsWith("There is no Game")) {
+                return GAME_NOT_FOUND;
+            }
+            if (message.startsWith("Incorrect field size") || message.startsWith("Mine count")
+                    || message.startsWith("No-guess") || message.startsWith("Invalid start cell")) {
+                return INVALID_GAME;
+            }
+            if (message.startsWith("Too many moves")) {
+                return TOO_MANY_MOVES;
+            }
+            if (message.startsWith("Game was modified concurrently")) {
+                return CONCURRENT_MODIFICATION;
+            }
+            return OTHER;
+        }
+    }
+}
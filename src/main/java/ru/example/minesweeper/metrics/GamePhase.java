@@ -0,0 +1,39 @@
+package ru.example.minesweeper.metrics;
+
+/**
+ * Steps of creating a game or applying a turn, timed separately by {@link GameMetrics}.
+ */
+public enum GamePhase {
+    /**
+     * Finding the game in the cache or reading its row.
+     */
+    LOAD,
+    /**
+     * Decoding the stored board (and replaying logged moves) on first use.
+     */
+    DESERIALIZE,
+    /**
+     * Placing mines for a new game.
+     */
+    GENERATE,
+    /**
+     * Applying the moves to the board.
+     */
+    COMPUTE,
+    /**
+     * Running the constraint solver for a hint or auto-open.
+     */
+    SOLVE,
+    /**
+     * Encoding the board for storage.
+     */
+    SERIALIZE,
+    /**
+     * Writing games to the database.
+     */
+    SAVE;
+
+    String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.example.minesweeper.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A game moved out of {@code games} by {@link ru.example.minesweeper.services.GameArchiver},
+ * with its final board deflated.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "games_archive")
+public class ArchivedGame {
+
+    @Id
+    private UUID id;
+
+    private int width;
+    private int height;
+    private int minesCount;
+    private long seed;
+    private boolean completed;
+    private long boardVersion;
+    private Instant archivedAt;
+    @Column(columnDefinition = "bytea")
+    private byte[] field;
+}
@@ -10,6 +10,7 @@ public class FieldCell {
     private int nearbyMine = 0;
     private boolean revealed = false;
     private boolean mine = false;
+    private boolean flagged = false;
     private FieldCellValueEnum displayingSymbol = FieldCellValueEnum.EMPTY;
 
     public void incrementNearbyMine() {
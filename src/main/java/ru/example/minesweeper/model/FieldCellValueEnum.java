@@ -15,7 +15,12 @@ public enum FieldCellValueEnum {
     SEVEN("7"),
     EIGHT("8"),
     MINE("M"),
-    OPENED_MINE("X");
+    OPENED_MINE("X"),
+    FLAG("F");
+
+    private static final FieldCellValueEnum[] NEARBY_MINES = {
+            ZERO, ONE, TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT
+    };
 
     private final String symbol;
 
@@ -27,6 +32,10 @@ public enum FieldCellValueEnum {
         return symbol;
     }
 
+    public static FieldCellValueEnum ofNearbyMines(int nearbyMines) {
+        return NEARBY_MINES[nearbyMines];
+    }
+
     public static FieldCellValueEnum fromSymbol(String symbol) {
         for (FieldCellValueEnum value : values()) {
             if (value.getSymbol().equals(symbol)) {
@@ -3,6 +3,7 @@ package ru.example.minesweeper.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
@@ -24,7 +26,24 @@ public class Game extends AbstractPersistable<UUID> {
     private int width;
     private int height;
     private int minesCount;
+    private long seed;
     private boolean completed;
-    @Column(columnDefinition = "TEXT")
-    private String field;
+    private long boardVersion;
+    private long snapshotVersion;
+    @Version
+    private long rowVersion;
+    /**
+     * Time the row was last written; archival measures idleness from it.
+     */
+    private Instant updatedAt;
+    @Column(columnDefinition = "bytea")
+    private byte[] field;
+
+    /**
+     * Lets stores that do not go through JPA assign the id.
+     */
+    @Override
+    public void setId(UUID id) {
+        super.setId(id);
+    }
 }
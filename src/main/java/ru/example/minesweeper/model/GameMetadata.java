@@ -0,0 +1,16 @@
+package ru.example.minesweeper.model;
+
+import java.util.UUID;
+
+/**
+ * The columns of {@link Game} a turn is validated against, read without the board.
+ * Size and mine count never change and a game never leaves the completed state, so a copy
+ * that is out of date can only let through a turn that the full game then rejects.
+ */
+public record GameMetadata(UUID id, int height, int width, int minesCount, boolean completed, long boardVersion) {
+
+    public static GameMetadata of(Game game) {
+        return new GameMetadata(game.getId(), game.getHeight(), game.getWidth(), game.getMinesCount(),
+                game.isCompleted(), game.getBoardVersion());
+    }
+}
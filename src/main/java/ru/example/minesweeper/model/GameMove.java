@@ -0,0 +1,46 @@
+package ru.example.minesweeper.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * One applied move of a game, numbered by the board version it produced.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "game_moves", indexes = @Index(name = "game_moves_game_seq_idx", columnList = "gameId, seq", unique = true))
+public class GameMove {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private UUID gameId;
+    private long seq;
+
+    @Column(name = "move_row")
+    private int row;
+
+    @Column(name = "move_col")
+    private int col;
+
+    @Builder.Default
+    @Column(name = "move_action", nullable = false, columnDefinition = "smallint")
+    private TurnActionEnum action = TurnActionEnum.REVEAL;
+}
@@ -0,0 +1,24 @@
+package ru.example.minesweeper.model;
+
+/**
+ * What a move does to its cell. Stored by ordinal in {@code game_moves.move_action},
+ * so new actions go at the end.
+ */
+public enum TurnActionEnum {
+    /**
+     * Opens the cell, cascading from zeros.
+     */
+    REVEAL,
+    /**
+     * Marks a hidden cell as a suspected mine; flagged cells are not opened by reveals or cascades.
+     */
+    FLAG,
+    /**
+     * Removes a flag.
+     */
+    UNFLAG,
+    /**
+     * On an opened number with as many flags around it, opens all other hidden neighbours.
+     */
+    CHORD
+}
@@ -0,0 +1,18 @@
+package ru.example.minesweeper.model;
+
+public enum TurnOutcomeEnum {
+    OPENED,
+    EXPLODED,
+    WON,
+    FLAGGED,
+    UNFLAGGED,
+    REJECTED,
+    SKIPPED;
+
+    /**
+     * @return true if the move ended the game
+     */
+    public boolean isFinal() {
+        return this == EXPLODED || this == WON;
+    }
+}
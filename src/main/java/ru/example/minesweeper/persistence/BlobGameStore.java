@@ -0,0 +1,82 @@
+package ru.example.minesweeper.persistence;
+
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.metrics.GamePhase;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores the whole encoded board in {@code games.field} on every save.
+ * Concurrent writers are detected by the {@code @Version} check on {@link Game}.
+ */
+public class BlobGameStore implements GameStore {
+
+    private final GameRepository gameRepository;
+    private final GameWriter gameWriter;
+    private final GameArchive gameArchive;
+    private final GameMetrics gameMetrics;
+
+    public BlobGameStore(GameRepository gameRepository) {
+        this(gameRepository, new JpaGameWriter(gameRepository, null), GameArchive.NONE, GameMetrics.standalone());
+    }
+
+    public BlobGameStore(GameRepository gameRepository, GameWriter gameWriter, GameArchive gameArchive,
+                         GameMetrics gameMetrics) {
+        this.gameRepository = gameRepository;
+        this.gameWriter = gameWriter;
+        this.gameArchive = gameArchive;
+        this.gameMetrics = gameMetrics;
+    }
+
+    @Override
+    public Game create(Game game) {
+        game.setUpdatedAt(Instant.now());
+        return gameRepository.save(game);
+    }
+
+    @Override
+    public Optional<CachedGame> load(UUID gameId) {
+        return gameRepository.findById(gameId)
+                .or(() -> gameArchive.restore(gameId))
+                .map(game -> new CachedGame(game, () -> Minefield.decode(game.getField())));
+    }
+
+    @Override
+    public Optional<GameMetadata> loadMetadata(UUID gameId) {
+        return gameRepository.findMetadataById(gameId)
+                .or(() -> gameArchive.findMetadata(gameId));
+    }
+
+    @Override
+    public void save(List<CachedGame> games) {
+        List<BoardRow> batch = new ArrayList<>(games.size());
+        Instant now = Instant.now();
+        for (CachedGame cached : games) {
+            synchronized (cached) {
+                cached.drainPendingMoves();
+                if (cached.isLoaded()) {
+                    long start = System.nanoTime();
+                    byte[] field = cached.getMinefield().fieldToBytes();
+                    gameMetrics.recordPhase(GamePhase.SERIALIZE, start);
+                    gameMetrics.recordBoardSize(field.length);
+                    cached.getGame().setField(field);
+                }
+                cached.getGame().setUpdatedAt(now);
+                batch.add(BoardRow.of(cached.getGame()));
+            }
+        }
+
+        long start = System.nanoTime();
+        gameWriter.updateBoards(batch);
+        gameMetrics.recordPhase(GamePhase.SAVE, start);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.example.minesweeper.persistence;
+
+import ru.example.minesweeper.model.Game;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The columns a {@link GameWriter} writes for one game, copied while the game's monitor is held.
+ * Turns applied after the copy keep changing the {@link Game}, so the writer binds these values
+ * and only touches {@code game} to set the new row version once the write is committed.
+ */
+public record BoardRow(Game game, byte[] field, boolean completed, long boardVersion, long snapshotVersion,
+                       Instant updatedAt, long rowVersion) {
+
+    /**
+     * Must be called holding the monitor of the game's {@link ru.example.minesweeper.cache.CachedGame}.
+     */
+    public static BoardRow of(Game game) {
+        return new BoardRow(game, game.getField(), game.isCompleted(), game.getBoardVersion(),
+                game.getSnapshotVersion(), game.getUpdatedAt(), game.getRowVersion());
+    }
+
+    public UUID id() {
+        return game.getId();
+    }
+}
@@ -0,0 +1,182 @@
+package ru.example.minesweeper.persistence;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.managers.ChunkedFieldManager;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.metrics.GamePhase;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+import ru.example.minesweeper.model.GameMove;
+import ru.example.minesweeper.repositories.GameMoveRepository;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores a game as its seed plus an append-only log of moves in {@code game_moves}.
+ * <p>
+ * Each save inserts one small row per applied move. The encoded board in {@code games.field}
+ * is only rewritten as a snapshot every {@code snapshotInterval} moves and when the game ends,
+ * so loading replays at most that many moves on top of the last snapshot.
+ * Two writers appending the same move number collide on the unique {@code (game_id, seq)} index,
+ * which is reported as an optimistic locking failure.
+ */
+public class EventLogGameStore implements GameStore {
+
+    private final GameRepository gameRepository;
+    private final GameMoveRepository gameMoveRepository;
+    private final GameWriter gameWriter;
+    private final GameArchive gameArchive;
+    private final int snapshotInterval;
+    private final GameMetrics gameMetrics;
+
+    public EventLogGameStore(GameRepository gameRepository, GameMoveRepository gameMoveRepository,
+                             int snapshotInterval) {
+        this(gameRepository, gameMoveRepository, new JpaGameWriter(gameRepository, gameMoveRepository),
+                GameArchive.NONE, snapshotInterval, GameMetrics.standalone());
+    }
+
+    public EventLogGameStore(GameRepository gameRepository, GameMoveRepository gameMoveRepository,
+                             GameWriter gameWriter, GameArchive gameArchive, int snapshotInterval,
+                             GameMetrics gameMetrics) {
+        this.gameRepository = gameRepository;
+        this.gameMoveRepository = gameMoveRepository;
+        this.gameWriter = gameWriter;
+        this.gameArchive = gameArchive;
+        this.snapshotInterval = snapshotInterval;
+        this.gameMetrics = gameMetrics;
+    }
+
+    @Override
+    public Game create(Game game) {
+        game.setSnapshotVersion(game.getBoardVersion());
+        game.setUpdatedAt(Instant.now());
+        return gameRepository.save(game);
+    }
+
+    @Override
+    public Optional<CachedGame> load(UUID gameId) {
+        return gameRepository.findById(gameId)
+                .or(() -> gameArchive.restore(gameId))
+                .map(game -> new CachedGame(game, () -> replayFromSnapshot(game)));
+    }
+
+    @Override
+    public Optional<GameMetadata> loadMetadata(UUID gameId) {
+        return gameRepository.findMetadataById(gameId)
+                .or(() -> gameArchive.findMetadata(gameId));
+    }
+
+    private Minefield replayFromSnapshot(Game game) {
+        Minefield minefield = Minefield.decode(game.getField());
+        List<GameMove> moves = gameMoveRepository.findByGameIdAndSeqGreaterThanOrderBySeq(
+                game.getId(), game.getSnapshotVersion());
+
+        for (GameMove move : moves) {
+            if (minefield.applyAction(move.getAction(), move.getRow(), move.getCol()).isFinal()) {
+                game.setCompleted(true);
+            }
+            game.setBoardVersion(move.getSeq());
+        }
+        minefield.clearChanges();
+
+        return minefield;
+    }
+
+    @Override
+    @Transactional
+    public void save(List<CachedGame> games) {
+        Map<CachedGame, List<GameMove>> drained = new IdentityHashMap<>();
+        List<GameMove> moves = new ArrayList<>();
+        List<BoardRow> snapshots = new ArrayList<>();
+        List<Long> previousSnapshotVersions = new ArrayList<>();
+
+        for (CachedGame cached : games) {
+            synchronized (cached) {
+                List<GameMove> pending = cached.drainPendingMoves();
+                drained.put(cached, pending);
+                moves.addAll(pending);
+
+                Game game = cached.getGame();
+                boolean snapshotDue = game.isCompleted()
+                        || game.getBoardVersion() - game.getSnapshotVersion() >= snapshotInterval;
+                if (cached.isLoaded() && snapshotDue && game.getSnapshotVersion() != game.getBoardVersion()) {
+                    long start = System.nanoTime();
+                    byte[] field = cached.getMinefield().fieldToBytes();
+                    gameMetrics.recordPhase(GamePhase.SERIALIZE, start);
+                    gameMetrics.recordBoardSize(field.length);
+                    game.setField(field);
+                    previousSnapshotVersions.add(game.getSnapshotVersion());
+                    game.setSnapshotVersion(game.getBoardVersion());
+                    game.setUpdatedAt(Instant.now());
+                    snapshots.add(BoardRow.of(game));
+                }
+            }
+        }
+
+        try {
+            long start = System.nanoTime();
+            gameWriter.insertMoves(moves);
+            if (!snapshots.isEmpty()) {
+                gameWriter.updateBoards(snapshots);
+            }
+            gameMetrics.recordPhase(GamePhase.SAVE, start);
+        } catch (DataIntegrityViolationException ex) {
+            rollBack(drained, snapshots, previousSnapshotVersions);
+            throw new OptimisticLockingFailureException("Move already logged by another writer", ex);
+        } catch (RuntimeException ex) {
+            rollBack(drained, snapshots, previousSnapshotVersions);
+            throw ex;
+        }
+    }
+
+    /**
+     * Puts back what a failed save took from the games, as the transaction discards all of its
+     * writes: the drained moves and the snapshot versions, so the next save writes both again.
+     */
+    private static void rollBack(Map<CachedGame, List<GameMove>> drained, List<BoardRow> snapshots,
+                                 List<Long> previousSnapshotVersions) {
+        drained.forEach(CachedGame::restorePendingMoves);
+        for (int i = 0; i < snapshots.size(); i++) {
+            snapshots.get(i).game().setSnapshotVersion(previousSnapshotVersions.get(i));
+        }
+    }
+
+    /**
+     * Rebuilds the board from the seed by applying the first {@code upToSeq} logged moves.
+     * Intended for audit and debugging; moves still waiting in the cache are not included.
+     */
+    public ReplayedGame replay(Game game, long upToSeq) {
+        if (game.getSeed() == 0) {
+            throw new MinefieldException("Game has no seed to replay from");
+        }
+
+        boolean chunked = game.getField() != null && game.getField().length > 0
+                && game.getField()[0] == ChunkedFieldManager.VERSION_CHUNKED;
+        Minefield minefield = Minefield.create(
+                game.getHeight(), game.getWidth(), game.getMinesCount(), game.getSeed(), chunked);
+
+        boolean completed = false;
+        long version = 0;
+        for (GameMove move : gameMoveRepository.findByGameIdAndSeqLessThanEqualOrderBySeq(game.getId(), upToSeq)) {
+            if (minefield.applyAction(move.getAction(), move.getRow(), move.getCol()).isFinal()) {
+                completed = true;
+            }
+            version = move.getSeq();
+        }
+        minefield.clearChanges();
+
+        return new ReplayedGame(minefield, completed, version);
+    }
+}
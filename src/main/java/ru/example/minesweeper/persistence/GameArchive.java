@@ -0,0 +1,49 @@
+package ru.example.minesweeper.persistence;
+
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cold storage of games moved out of {@code games}. Stores fall back to it for ids they do not
+ * find, so archived games resolve like live ones.
+ */
+public interface GameArchive {
+
+    /**
+     * Archive that holds nothing, for stores built without one.
+     */
+    GameArchive NONE = new GameArchive() {
+        @Override
+        public boolean archive(Game game, byte[] field) {
+            return false;
+        }
+
+        @Override
+        public Optional<GameMetadata> findMetadata(UUID gameId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Game> restore(UUID gameId) {
+            return Optional.empty();
+        }
+    };
+
+    /**
+     * Moves the game to the archive with {@code field} as its final board, unless its row was
+     * written since it was read.
+     *
+     * @return false if the row was changed or is gone
+     */
+    boolean archive(Game game, byte[] field);
+
+    Optional<GameMetadata> findMetadata(UUID gameId);
+
+    /**
+     * Moves an archived game back into {@code games}, so it can be loaded and played like any other.
+     */
+    Optional<Game> restore(UUID gameId);
+}
@@ -0,0 +1,50 @@
+package ru.example.minesweeper.persistence;
+
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persistence of live games under {@link ru.example.minesweeper.cache.GameCache}.
+ * The implementation is chosen by {@code minefield.persistence.mode}.
+ */
+public interface GameStore {
+
+    /**
+     * Saves a new game whose {@link Game#getField()} holds the initial board.
+     */
+    Game create(Game game);
+
+    /**
+     * @return the game with a board that is only built when first used
+     */
+    Optional<CachedGame> load(UUID gameId);
+
+    /**
+     * @return the game's size, mine count, completed flag and version, without reading the board
+     */
+    Optional<GameMetadata> loadMetadata(UUID gameId);
+
+    /**
+     * Persists the state of games that changed since their last save. Called without holding
+     * the games' monitors; implementations lock each game while reading it.
+     *
+     * @throws org.springframework.dao.ConcurrencyFailureException if a game was changed elsewhere
+     *                                                             since it was loaded
+     */
+    void save(List<CachedGame> games);
+
+    /**
+     * Copies the {@link Game#getRowVersion()} assigned by a save back onto the games still held
+     * in memory, so their next save is checked against the row it just wrote.
+     */
+    static void copyRowVersions(List<Game> games, List<Game> saved) {
+        for (int i = 0; i < games.size() && i < saved.size(); i++) {
+            games.get(i).setRowVersion(saved.get(i).getRowVersion());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.example.minesweeper.persistence;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.example.minesweeper.model.GameMove;
+
+import java.util.List;
+
+/**
+ * Writes the rows a {@link GameStore} save produces for games that already exist.
+ * The implementation is chosen by {@code minefield.persistence.writer}.
+ */
+public interface GameWriter {
+
+    /**
+     * Writes the board, completed flag and versions of each row if the game's row still has the
+     * {@link BoardRow#rowVersion()} it was copied with, and sets the new row version on the game
+     * once the write is committed.
+     *
+     * @throws org.springframework.dao.OptimisticLockingFailureException if a row was changed
+     *                                                                   elsewhere; the other games
+     *                                                                   may have been written
+     */
+    void updateBoards(List<BoardRow> rows);
+
+    /**
+     * @throws org.springframework.dao.DataIntegrityViolationException if a move with the same
+     *                                                                 number is already logged
+     */
+    void insertMoves(List<GameMove> moves);
+
+    /**
+     * Runs {@code action} after the surrounding transaction commits, or right away outside one,
+     * so that a rolled back batch leaves the row versions of the games in memory untouched.
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
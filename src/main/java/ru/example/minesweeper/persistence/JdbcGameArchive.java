@@ -0,0 +1,154 @@
+package ru.example.minesweeper.persistence;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.ArchivedGame;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+import ru.example.minesweeper.repositories.ArchivedGameRepository;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Archive in the {@code games_archive} table. Boards are stored deflated; a row moves between
+ * the tables in one transaction, and the delete from {@code games} is checked against the row
+ * version so a game written in the meantime stays live. Logged moves are kept for replay.
+ */
+public class JdbcGameArchive implements GameArchive, MeterBinder {
+
+    static final String DELETE_GAME = "DELETE FROM games WHERE id = ? AND row_version = ?";
+
+    static final String INSERT_ARCHIVED = "INSERT INTO games_archive "
+            + "(id, width, height, mines_count, seed, completed, board_version, archived_at, field) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final String INSERT_RESTORED = "INSERT INTO games "
+            + "(id, width, height, mines_count, seed, completed, board_version, snapshot_version, row_version, "
+            + "updated_at, field) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    static final String DELETE_ARCHIVED = "DELETE FROM games_archive WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedGameRepository archivedGameRepository;
+    private final GameRepository gameRepository;
+
+    private final LongAdder archived = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+
+    public JdbcGameArchive(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           ArchivedGameRepository archivedGameRepository, GameRepository gameRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archivedGameRepository = archivedGameRepository;
+        this.gameRepository = gameRepository;
+    }
+
+    @Override
+    public boolean archive(Game game, byte[] field) {
+        byte[] deflated = deflate(field);
+        boolean moved = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(DELETE_GAME, game.getId(), game.getRowVersion()) == 0) {
+                return false;
+            }
+            jdbcTemplate.update(INSERT_ARCHIVED, game.getId(), game.getWidth(), game.getHeight(),
+                    game.getMinesCount(), game.getSeed(), game.isCompleted(), game.getBoardVersion(),
+                    Timestamp.from(Instant.now()), deflated);
+            return true;
+        }));
+        if (moved) {
+            archived.increment();
+        }
+        return moved;
+    }
+
+    @Override
+    public Optional<GameMetadata> findMetadata(UUID gameId) {
+        return archivedGameRepository.findMetadataById(gameId);
+    }
+
+    @Override
+    public Optional<Game> restore(UUID gameId) {
+        Optional<ArchivedGame> found = archivedGameRepository.findById(gameId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ArchivedGame archivedGame = found.get();
+        byte[] field = inflate(archivedGame.getField());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_RESTORED, gameId, archivedGame.getWidth(), archivedGame.getHeight(),
+                        archivedGame.getMinesCount(), archivedGame.getSeed(), archivedGame.isCompleted(),
+                        archivedGame.getBoardVersion(), archivedGame.getBoardVersion(),
+                        Timestamp.from(Instant.now()), field);
+                jdbcTemplate.update(DELETE_ARCHIVED, gameId);
+            });
+            restored.increment();
+        } catch (DuplicateKeyException ex) {
+            // restored by another instance in the meantime
+        }
+        return gameRepository.findById(gameId);
+    }
+
+    static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(16, data.length / 4));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new MinefieldException("Truncated archived field data");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException ex) {
+            throw new MinefieldException("Corrupt archived field data: " + ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("minesweeper.archive.archived", archived, LongAdder::sum)
+                .description("Games moved to the archive table")
+                .register(registry);
+        FunctionCounter.builder("minesweeper.archive.restored", restored, LongAdder::sum)
+                .description("Archived games moved back to the live table")
+                .register(registry);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.example.minesweeper.persistence;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.example.minesweeper.model.GameMove;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes with plain JDBC batches: one versioned {@code UPDATE} per game and one {@code INSERT}
+ * per move, sent in a single round trip per batch, with no entity loading or dirty checking.
+ */
+public class JdbcGameWriter implements GameWriter {
+
+    static final String UPDATE_BOARD = "UPDATE games SET field = ?, completed = ?, board_version = ?, "
+            + "snapshot_version = ?, updated_at = ?, row_version = row_version + 1 WHERE id = ? AND row_version = ?";
+
+    static final String INSERT_MOVE = "INSERT INTO game_moves (game_id, seq, move_row, move_col, move_action) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcGameWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void updateBoards(List<BoardRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_BOARD, rows, rows.size(), (statement, row) -> {
+            statement.setBytes(1, row.field());
+            statement.setBoolean(2, row.completed());
+            statement.setLong(3, row.boardVersion());
+            statement.setLong(4, row.snapshotVersion());
+            statement.setTimestamp(5, row.updatedAt() == null ? null : Timestamp.from(row.updatedAt()));
+            statement.setObject(6, row.id());
+            statement.setLong(7, row.rowVersion());
+        });
+
+        BoardRow stale = null;
+        List<BoardRow> written = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BoardRow row = rows.get(i);
+            // drivers may report SUCCESS_NO_INFO (-2) for a batched statement that did run
+            if (updated[0][i] == 0) {
+                stale = row;
+            } else {
+                written.add(row);
+            }
+        }
+        GameWriter.afterCommit(() -> written.forEach(row -> row.game().setRowVersion(row.rowVersion() + 1)));
+        if (stale != null) {
+            throw new OptimisticLockingFailureException("Game " + stale.id() + " was changed by another writer");
+        }
+    }
+
+    @Override
+    public void insertMoves(List<GameMove> moves) {
+        if (moves.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_MOVE, moves, moves.size(), (statement, move) -> {
+            statement.setObject(1, move.getGameId());
+            statement.setLong(2, move.getSeq());
+            statement.setInt(3, move.getRow());
+            statement.setInt(4, move.getCol());
+            statement.setInt(5, move.getAction().ordinal());
+        });
+    }
+}
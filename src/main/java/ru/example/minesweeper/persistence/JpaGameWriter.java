@@ -0,0 +1,56 @@
+package ru.example.minesweeper.persistence;
+
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMove;
+import ru.example.minesweeper.repositories.GameMoveRepository;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.util.List;
+
+/**
+ * Saves through the repositories. Each row is merged as a detached copy of its game, which reads
+ * the row before updating it, and each move insert returns its generated id one statement at a time.
+ */
+public class JpaGameWriter implements GameWriter {
+
+    private final GameRepository gameRepository;
+    private final GameMoveRepository gameMoveRepository;
+
+    public JpaGameWriter(GameRepository gameRepository, GameMoveRepository gameMoveRepository) {
+        this.gameRepository = gameRepository;
+        this.gameMoveRepository = gameMoveRepository;
+    }
+
+    @Override
+    public void updateBoards(List<BoardRow> rows) {
+        List<Game> saved = gameRepository.saveAll(rows.stream().map(JpaGameWriter::toEntity).toList());
+        GameWriter.afterCommit(() -> GameStore.copyRowVersions(rows.stream().map(BoardRow::game).toList(), saved));
+    }
+
+    /**
+     * The live game keeps taking turns during the save, so the merge gets a copy carrying the
+     * row's values; only the size, mines and seed, which never change, are read from the game.
+     */
+    private static Game toEntity(BoardRow row) {
+        Game game = row.game();
+        Game entity = Game.builder()
+                .width(game.getWidth())
+                .height(game.getHeight())
+                .minesCount(game.getMinesCount())
+                .seed(game.getSeed())
+                .completed(row.completed())
+                .boardVersion(row.boardVersion())
+                .snapshotVersion(row.snapshotVersion())
+                .rowVersion(row.rowVersion())
+                .updatedAt(row.updatedAt())
+                .field(row.field())
+                .build();
+        entity.setId(row.id());
+        return entity;
+    }
+
+    @Override
+    public void insertMoves(List<GameMove> moves) {
+        gameMoveRepository.saveAll(moves);
+    }
+}
@@ -0,0 +1,546 @@
+package ru.example.minesweeper.persistence;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.metrics.GamePhase;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps games in a memory-mapped file instead of the database, for single-node deployments.
+ * <p>
+ * The file is a log of records, each holding a whole game; a save appends a new record and
+ * {@link OffHeapIndex} points every game id at its newest one. A record is its length, the game,
+ * a CRC of the game and a commit marker written last. On open the log is replayed up to the first
+ * record without a valid marker and CRC, so a save torn by a crash is dropped as a whole. With
+ * {@code sync} every commit is forced to disk before the save returns; without it a process crash
+ * loses nothing, but a power loss may lose the latest saves.
+ * <p>
+ * Superseded records are garbage. Every {@code compactInterval}, once there is more garbage than
+ * live data, live records are copied to a new file that atomically replaces the old one. Completed
+ * games not written for {@code completedRetention} are dropped then; zero keeps them.
+ * <p>
+ * The whole file is mapped as one buffer indexed by {@code int}, so it cannot grow past 2 GiB.
+ * A save that would grow it further compacts first, and only fails with "Game store is full"
+ * when the newest records of all games leave no room for it.
+ */
+@Slf4j
+public class MappedGameStore implements GameStore, MeterBinder, Closeable {
+
+    static final int MAGIC = 0x4d534753;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final byte COMMITTED = (byte) 0xc7;
+    static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    // record: int length, game, int crc of the game, commit marker
+    private static final int RECORD_OVERHEAD = 4 + 4 + 1;
+
+    // game: id, height, width, mines count, seed, completed, board version, snapshot version,
+    // row version, updated at (epoch ms), field
+    private static final int GAME_HEIGHT = 16;
+    private static final int GAME_WIDTH = 20;
+    private static final int GAME_MINES = 24;
+    private static final int GAME_SEED = 28;
+    private static final int GAME_COMPLETED = 36;
+    private static final int GAME_BOARD_VERSION = 37;
+    private static final int GAME_SNAPSHOT_VERSION = 45;
+    private static final int GAME_ROW_VERSION = 53;
+    private static final int GAME_UPDATED_AT = 61;
+    private static final int GAME_FIELD = 69;
+
+    private final Path path;
+    private final long initialSize;
+    private final boolean sync;
+    private final Duration completedRetention;
+    private final GameMetrics gameMetrics;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService compactor;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private OffHeapIndex index;
+    private long tail;
+    private long liveBytes;
+    private long maxSize = MAX_SIZE;
+
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder droppedGames = new LongAdder();
+
+    public MappedGameStore(Path path, long initialSize) {
+        this(path, initialSize, false, Duration.ZERO, Duration.ZERO, GameMetrics.standalone());
+    }
+
+    public MappedGameStore(Path path, long initialSize, boolean sync, Duration compactInterval,
+                           Duration completedRetention, GameMetrics gameMetrics) {
+        this.path = path;
+        this.initialSize = Math.min(Math.max(HEADER_SIZE, initialSize), MAX_SIZE);
+        this.sync = sync;
+        this.completedRetention = completedRetention;
+        this.gameMetrics = gameMetrics;
+        try {
+            open();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open game store " + path, ex);
+        }
+
+        if (compactInterval.isPositive()) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-store-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compactIfWorthIt, compactInterval.toMillis(),
+                    compactInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            compactor = null;
+        }
+    }
+
+    private void open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // left by a compaction interrupted before it replaced the file
+        Files.deleteIfExists(compactionPath());
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), initialSize));
+        if (created) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new MinefieldException("Not a game store file: " + path);
+        }
+        recover();
+    }
+
+    /**
+     * Rebuilds the index from the log, stopping at the first record that was not committed.
+     */
+    private void recover() {
+        index = new OffHeapIndex(1024);
+        tail = HEADER_SIZE;
+        liveBytes = 0;
+        while (tail + 4 <= buffer.capacity()) {
+            int length = buffer.getInt((int) tail);
+            if (length == 0) {
+                return;
+            }
+            if (!isCommitted(tail, length)) {
+                log.warn("Dropping uncommitted record at offset {} of {}", tail, path);
+                zero(tail, buffer.capacity());
+                return;
+            }
+            indexRecord(readId(tail), tail, length);
+            tail += RECORD_OVERHEAD + length;
+        }
+    }
+
+    private boolean isCommitted(long offset, int length) {
+        if (length < GAME_FIELD || offset + RECORD_OVERHEAD + length > buffer.capacity()) {
+            return false;
+        }
+        int position = (int) offset;
+        return buffer.get(position + 8 + length) == COMMITTED
+                && buffer.getInt(position + 4 + length) == crc(position + 4, length);
+    }
+
+    private void indexRecord(UUID gameId, long offset, int length) {
+        long previous = index.put(gameId, offset);
+        if (previous >= 0) {
+            liveBytes -= RECORD_OVERHEAD + buffer.getInt((int) previous);
+        }
+        liveBytes += RECORD_OVERHEAD + length;
+    }
+
+    @Override
+    public Game create(Game game) {
+        game.setId(UUID.randomUUID());
+        game.setUpdatedAt(Instant.now());
+        lock.writeLock().lock();
+        try {
+            append(game);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return game;
+    }
+
+    @Override
+    public Optional<CachedGame> load(UUID gameId) {
+        lock.readLock().lock();
+        try {
+            long offset = index.get(gameId);
+            if (offset < 0) {
+                return Optional.empty();
+            }
+            Game game = readGame(offset);
+            return Optional.of(new CachedGame(game, () -> Minefield.decode(game.getField())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<GameMetadata> loadMetadata(UUID gameId) {
+        lock.readLock().lock();
+        try {
+            long offset = index.get(gameId);
+            if (offset < 0) {
+                return Optional.empty();
+            }
+            int game = (int) offset + 4;
+            return Optional.of(new GameMetadata(gameId, buffer.getInt(game + GAME_HEIGHT),
+                    buffer.getInt(game + GAME_WIDTH), buffer.getInt(game + GAME_MINES),
+                    buffer.get(game + GAME_COMPLETED) != 0, buffer.getLong(game + GAME_BOARD_VERSION)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends every game whose stored row version still matches; the others were dropped by a
+     * compaction or written by another copy, and are reported after the rest are saved.
+     */
+    @Override
+    public void save(List<CachedGame> games) {
+        List<UUID> stale = new ArrayList<>();
+        Instant now = Instant.now();
+        for (CachedGame cached : games) {
+            synchronized (cached) {
+                cached.drainPendingMoves();
+                if (cached.isLoaded()) {
+                    long start = System.nanoTime();
+                    byte[] field = cached.getMinefield().fieldToBytes();
+                    gameMetrics.recordPhase(GamePhase.SERIALIZE, start);
+                    gameMetrics.recordBoardSize(field.length);
+                    cached.getGame().setField(field);
+                }
+
+                Game game = cached.getGame();
+                long start = System.nanoTime();
+                lock.writeLock().lock();
+                try {
+                    long offset = index.get(game.getId());
+                    if (offset < 0 || buffer.getLong((int) offset + 4 + GAME_ROW_VERSION) != game.getRowVersion()) {
+                        stale.add(game.getId());
+                        continue;
+                    }
+                    game.setUpdatedAt(now);
+                    game.setRowVersion(game.getRowVersion() + 1);
+                    try {
+                        append(game);
+                    } catch (RuntimeException ex) {
+                        game.setRowVersion(game.getRowVersion() - 1);
+                        throw ex;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                gameMetrics.recordPhase(GamePhase.SAVE, start);
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            throw new OptimisticLockingFailureException("Games were changed or removed since they were loaded: " + stale);
+        }
+    }
+
+    /**
+     * Must be called under the write lock.
+     */
+    private void append(Game game) {
+        byte[] field = game.getField();
+        int length = GAME_FIELD + field.length;
+        ensureCapacity(RECORD_OVERHEAD + length);
+
+        int position = (int) tail;
+        int start = position + 4;
+        buffer.putInt(position, length);
+        buffer.putLong(start, game.getId().getMostSignificantBits());
+        buffer.putLong(start + 8, game.getId().getLeastSignificantBits());
+        buffer.putInt(start + GAME_HEIGHT, game.getHeight());
+        buffer.putInt(start + GAME_WIDTH, game.getWidth());
+        buffer.putInt(start + GAME_MINES, game.getMinesCount());
+        buffer.putLong(start + GAME_SEED, game.getSeed());
+        buffer.put(start + GAME_COMPLETED, (byte) (game.isCompleted() ? 1 : 0));
+        buffer.putLong(start + GAME_BOARD_VERSION, game.getBoardVersion());
+        buffer.putLong(start + GAME_SNAPSHOT_VERSION, game.getSnapshotVersion());
+        buffer.putLong(start + GAME_ROW_VERSION, game.getRowVersion());
+        buffer.putLong(start + GAME_UPDATED_AT, game.getUpdatedAt() == null ? 0 : game.getUpdatedAt().toEpochMilli());
+        buffer.put(start + GAME_FIELD, field);
+        buffer.putInt(start + length, crc(start, length));
+        if (sync) {
+            buffer.force(position, RECORD_OVERHEAD + length - 1);
+        }
+        // the record only exists once this byte is written
+        buffer.put(start + length + 4, COMMITTED);
+        if (sync) {
+            buffer.force(start + length + 4, 1);
+        }
+
+        indexRecord(game.getId(), tail, length);
+        tail += RECORD_OVERHEAD + length;
+    }
+
+    /**
+     * Makes room for a record at {@code tail}, compacting first if the file would have to grow past
+     * {@code maxSize}. Must be called under the write lock.
+     */
+    private void ensureCapacity(int recordSize) {
+        if (tail + recordSize > maxSize && tail - HEADER_SIZE > liveBytes) {
+            log.warn("Game store {} reached {} bytes, compacting before the save", path, tail);
+            compact();
+        }
+        long required = tail + recordSize;
+        if (required > maxSize) {
+            throw new MinefieldException("Game store is full: " + path);
+        }
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long size = buffer.capacity();
+        while (size < required) {
+            size *= 2;
+        }
+        size = Math.min(size, maxSize);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot grow game store " + path, ex);
+        }
+    }
+
+    private Game readGame(long offset) {
+        int game = (int) offset + 4;
+        int length = buffer.getInt((int) offset);
+        byte[] field = new byte[length - GAME_FIELD];
+        buffer.get(game + GAME_FIELD, field);
+        long updatedAt = buffer.getLong(game + GAME_UPDATED_AT);
+
+        Game result = Game.builder()
+                .height(buffer.getInt(game + GAME_HEIGHT))
+                .width(buffer.getInt(game + GAME_WIDTH))
+                .minesCount(buffer.getInt(game + GAME_MINES))
+                .seed(buffer.getLong(game + GAME_SEED))
+                .completed(buffer.get(game + GAME_COMPLETED) != 0)
+                .boardVersion(buffer.getLong(game + GAME_BOARD_VERSION))
+                .snapshotVersion(buffer.getLong(game + GAME_SNAPSHOT_VERSION))
+                .rowVersion(buffer.getLong(game + GAME_ROW_VERSION))
+                .updatedAt(updatedAt == 0 ? null : Instant.ofEpochMilli(updatedAt))
+                .field(field)
+                .build();
+        result.setId(readId(offset));
+        return result;
+    }
+
+    private UUID readId(long offset) {
+        int game = (int) offset + 4;
+        return new UUID(buffer.getLong(game), buffer.getLong(game + 8));
+    }
+
+    private int crc(int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private void zero(long from, long to) {
+        byte[] zeros = new byte[8192];
+        for (long position = from; position < to; position += zeros.length) {
+            buffer.put((int) position, zeros, 0, (int) Math.min(zeros.length, to - position));
+        }
+    }
+
+    private void compactIfWorthIt() {
+        try {
+            if (garbageBytes() > liveBytes()) {
+                compact();
+            }
+        } catch (RuntimeException ex) {
+            log.error("Compaction of {} failed", path, ex);
+        }
+    }
+
+    /**
+     * Rewrites the file with only the newest record of every game, leaving out completed games past
+     * {@code completedRetention}. Saves wait for it to finish.
+     *
+     * @return number of games dropped
+     */
+    public int compact() {
+        FileChannel newChannel = null;
+        lock.writeLock().lock();
+        try {
+            long expiredBefore = completedRetention.isPositive()
+                    ? Instant.now().minus(completedRetention).toEpochMilli()
+                    : Long.MIN_VALUE;
+            List<Long> kept = new ArrayList<>(index.size());
+            long keptBytes = 0;
+            int dropped = 0;
+            for (long offset : offsets()) {
+                int game = (int) offset + 4;
+                if (buffer.get(game + GAME_COMPLETED) != 0 && buffer.getLong(game + GAME_UPDATED_AT) < expiredBefore) {
+                    dropped++;
+                    continue;
+                }
+                kept.add(offset);
+                keptBytes += RECORD_OVERHEAD + buffer.getInt((int) offset);
+            }
+
+            Path compacted = compactionPath();
+            long size = initialSize;
+            while (size < HEADER_SIZE + keptBytes) {
+                size *= 2;
+            }
+            newChannel = FileChannel.open(compacted, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer newBuffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, maxSize));
+            newBuffer.putInt(0, MAGIC);
+            newBuffer.putInt(4, FORMAT_VERSION);
+            OffHeapIndex newIndex = new OffHeapIndex(kept.size());
+            int position = HEADER_SIZE;
+            for (long offset : kept) {
+                int recordSize = RECORD_OVERHEAD + buffer.getInt((int) offset);
+                newBuffer.put(position, buffer, (int) offset, recordSize);
+                newIndex.put(readId(offset), position);
+                position += recordSize;
+            }
+            newBuffer.force();
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            channel.close();
+            channel = newChannel;
+            buffer = newBuffer;
+            index = newIndex;
+            tail = position;
+            liveBytes = keptBytes;
+
+            compactions.increment();
+            droppedGames.add(dropped);
+            log.info("Compacted {}: kept {} games, dropped {}", path, kept.size(), dropped);
+            return dropped;
+        } catch (IOException ex) {
+            closeQuietly(newChannel);
+            throw new UncheckedIOException("Cannot compact game store " + path, ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void closeQuietly(FileChannel newChannel) {
+        if (newChannel == null) {
+            return;
+        }
+        try {
+            newChannel.close();
+            Files.deleteIfExists(compactionPath());
+        } catch (IOException ex) {
+            log.warn("Cannot remove {}", compactionPath(), ex);
+        }
+    }
+
+    private List<Long> offsets() {
+        List<Long> offsets = new ArrayList<>(index.size());
+        index.forEach((gameId, offset) -> offsets.add(offset));
+        // in file order, so the copy reads the old file sequentially
+        offsets.sort(null);
+        return offsets;
+    }
+
+    private Path compactionPath() {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    public long liveBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long garbageBytes() {
+        lock.readLock().lock();
+        try {
+            return tail - HEADER_SIZE - liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minesweeper.store.games", this, MappedGameStore::size)
+                .description("Games in the mapped game store")
+                .register(registry);
+        Gauge.builder("minesweeper.store.live.bytes", this, MappedGameStore::liveBytes)
+                .description("Bytes of the newest record of every game")
+                .register(registry);
+        Gauge.builder("minesweeper.store.garbage.bytes", this, MappedGameStore::garbageBytes)
+                .description("Bytes of superseded records, reclaimed by compaction")
+                .register(registry);
+        FunctionCounter.builder("minesweeper.store.compactions", compactions, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("minesweeper.store.dropped", droppedGames, LongAdder::sum)
+                .description("Completed games dropped by compaction")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.example.minesweeper.persistence;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Open-addressing hash map from game id to file offset in a direct buffer, so that millions of
+ * games cost the garbage collector nothing. A slot holds the two halves of the id and the offset;
+ * offset 0 marks an empty slot, which works because no record starts at the file header.
+ * Not thread-safe; {@link MappedGameStore} guards it with its lock.
+ */
+final class OffHeapIndex {
+
+    private static final int SLOT_SIZE = 24;
+    private static final long EMPTY = 0;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    OffHeapIndex(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the offset of the game's record, or -1 if there is none
+     */
+    long get(UUID gameId) {
+        long msb = gameId.getMostSignificantBits();
+        long lsb = gameId.getLeastSignificantBits();
+        for (int slot = slotOf(msb, lsb); ; slot = (slot + 1) & mask) {
+            int position = slot * SLOT_SIZE;
+            long offset = slots.getLong(position + 16);
+            if (offset == EMPTY) {
+                return -1;
+            }
+            if (slots.getLong(position) == msb && slots.getLong(position + 8) == lsb) {
+                return offset;
+            }
+        }
+    }
+
+    /**
+     * @return the previous offset, or -1 if the game was not indexed
+     */
+    long put(UUID gameId, long offset) {
+        if ((size + 1) * 2L > mask + 1L) {
+            resize();
+        }
+
+        long msb = gameId.getMostSignificantBits();
+        long lsb = gameId.getLeastSignificantBits();
+        for (int slot = slotOf(msb, lsb); ; slot = (slot + 1) & mask) {
+            int position = slot * SLOT_SIZE;
+            long previous = slots.getLong(position + 16);
+            if (previous == EMPTY) {
+                slots.putLong(position, msb);
+                slots.putLong(position + 8, lsb);
+                slots.putLong(position + 16, offset);
+                size++;
+                return -1;
+            }
+            if (slots.getLong(position) == msb && slots.getLong(position + 8) == lsb) {
+                slots.putLong(position + 16, offset);
+                return previous;
+            }
+        }
+    }
+
+    interface EntryConsumer {
+        void accept(UUID gameId, long offset);
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot <= mask; slot++) {
+            int position = slot * SLOT_SIZE;
+            long offset = slots.getLong(position + 16);
+            if (offset != EMPTY) {
+                consumer.accept(new UUID(slots.getLong(position), slots.getLong(position + 8)), offset);
+            }
+        }
+    }
+
+    private void resize() {
+        ByteBuffer old = slots;
+        int oldSlots = mask + 1;
+        if ((long) oldSlots * 2 * SLOT_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Game index is full");
+        }
+        allocate(oldSlots * 2);
+        for (int slot = 0; slot < oldSlots; slot++) {
+            int position = slot * SLOT_SIZE;
+            long offset = old.getLong(position + 16);
+            if (offset != EMPTY) {
+                put(new UUID(old.getLong(position), old.getLong(position + 8)), offset);
+            }
+        }
+    }
+
+    private void allocate(int slotCount) {
+        slots = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE);
+        mask = slotCount - 1;
+        size = 0;
+    }
+
+    private int slotOf(long msb, long lsb) {
+        long hash = msb ^ Long.rotateLeft(lsb, 32);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.example.minesweeper.persistence;
+
+import ru.example.minesweeper.managers.Minefield;
+
+/**
+ * Board rebuilt from a game's seed and move log, as it was after {@code version} moves.
+ */
+public record ReplayedGame(Minefield minefield, boolean completed, long version) {
+}
@@ -0,0 +1,18 @@
+package ru.example.minesweeper.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.example.minesweeper.model.ArchivedGame;
+import ru.example.minesweeper.model.GameMetadata;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ArchivedGameRepository extends JpaRepository<ArchivedGame, UUID> {
+
+    @Query("select new ru.example.minesweeper.model.GameMetadata("
+            + "a.id, a.height, a.width, a.minesCount, a.completed, a.boardVersion) "
+            + "from ArchivedGame a where a.id = :gameId")
+    Optional<GameMetadata> findMetadataById(@Param("gameId") UUID gameId);
+}
@@ -0,0 +1,13 @@
+package ru.example.minesweeper.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.example.minesweeper.model.GameMove;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GameMoveRepository extends JpaRepository<GameMove, Long> {
+    List<GameMove> findByGameIdAndSeqGreaterThanOrderBySeq(UUID gameId, long seq);
+
+    List<GameMove> findByGameIdAndSeqLessThanEqualOrderBySeq(UUID gameId, long seq);
+}
@@ -1,11 +1,19 @@
 package ru.example.minesweeper.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface GameRepository extends JpaRepository<Game, Long> {
     Optional<Game> findById(UUID gameId);
+
+    @Query("select new ru.example.minesweeper.model.GameMetadata("
+            + "g.id, g.height, g.width, g.minesCount, g.completed, g.boardVersion) "
+            + "from Game g where g.id = :gameId")
+    Optional<GameMetadata> findMetadataById(@Param("gameId") UUID gameId);
 }
@@ -0,0 +1,235 @@
+package ru.example.minesweeper.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.example.minesweeper.dto.PoolStatsResponse;
+import ru.example.minesweeper.managers.Minefield;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boards generated ahead of time for the common game sizes listed in {@code minefield.pool.profiles}
+ * as {@code HEIGHTxWIDTHxMINES}. Each profile keeps up to {@code minefield.pool.depth} boards, and a
+ * board taken by {@link #take(int, int, int)} is replaced in the background by
+ * {@code minefield.pool.refill-threads} threads. Refill lag is the time from a board being taken
+ * until its replacement is ready.
+ */
+@Slf4j
+@Component
+public class BoardPool implements MeterBinder {
+
+    @Value("${minefield.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${minefield.pool.depth:64}")
+    private int depth = 64;
+
+    @Value("${minefield.pool.refill-threads:1}")
+    private int refillThreads = 1;
+
+    @Value("${minefield.pool.profiles:9x9x10,16x16x40,16x30x99}")
+    private String[] profiles = {};
+
+    private final Map<Profile, Slot> slots = new ConcurrentHashMap<>();
+    private ExecutorService refiller;
+
+    /**
+     * Board with mines placed from {@code seed}, and its encoded form for the new game row.
+     */
+    public record PooledBoard(long seed, Minefield minefield, byte[] field) {
+    }
+
+    record Profile(int height, int width, int minesCount) {
+
+        static Profile parse(String profile) {
+            String[] parts = profile.trim().split("x");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Board profile should be HEIGHTxWIDTHxMINES: " + profile);
+            }
+            return new Profile(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        }
+
+        @Override
+        public String toString() {
+            return height + "x" + width + "x" + minesCount;
+        }
+    }
+
+    public BoardPool() {
+    }
+
+    public BoardPool(int depth, int refillThreads, String... profiles) {
+        this.enabled = true;
+        this.depth = depth;
+        this.refillThreads = refillThreads;
+        this.profiles = profiles;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || profiles.length == 0 || depth <= 0) {
+            return;
+        }
+
+        for (String value : profiles) {
+            Profile profile = Profile.parse(value);
+            if (profile.minesCount() >= (long) profile.height() * profile.width()) {
+                log.warn("Ignoring board profile {}: too many mines", profile);
+                continue;
+            }
+            slots.put(profile, new Slot(profile, depth));
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        refiller = Executors.newFixedThreadPool(Math.max(1, refillThreads), runnable -> {
+            Thread thread = new Thread(runnable, "board-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        slots.values().forEach(this::scheduleRefill);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refiller != null) {
+            refiller.shutdownNow();
+        }
+    }
+
+    /**
+     * @return a ready board if the size is a pooled profile and its pool is not empty
+     */
+    public Optional<PooledBoard> take(int height, int width, int minesCount) {
+        Slot slot = slots.get(new Profile(height, width, minesCount));
+        if (slot == null) {
+            return Optional.empty();
+        }
+
+        PooledBoard board = slot.boards.poll();
+        if (board == null) {
+            slot.misses.increment();
+        } else {
+            slot.hits.increment();
+            slot.demand.add(System.nanoTime());
+        }
+        scheduleRefill(slot);
+        return Optional.ofNullable(board);
+    }
+
+    private void scheduleRefill(Slot slot) {
+        if (refiller != null && !refiller.isShutdown() && slot.refilling.compareAndSet(false, true)) {
+            refiller.execute(() -> refill(slot));
+        }
+    }
+
+    private void refill(Slot slot) {
+        try {
+            while (slot.boards.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                PooledBoard board = generate(slot.profile);
+
+                Long takenAt = slot.demand.poll();
+                if (takenAt != null) {
+                    long lag = System.nanoTime() - takenAt;
+                    slot.refilled.increment();
+                    slot.lagNanos.add(lag);
+                    slot.maxLagNanos.accumulateAndGet(lag, Math::max);
+                }
+                slot.boards.offer(board);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to refill board pool {}", slot.profile, ex);
+            return;
+        } finally {
+            slot.refilling.set(false);
+        }
+
+        // A board taken after the loop checked capacity but before the flag was reset found
+        // a refill still running and did not schedule one.
+        if (slot.boards.remainingCapacity() > 0) {
+            scheduleRefill(slot);
+        }
+    }
+
+    private static PooledBoard generate(Profile profile) {
+        long seed = ThreadLocalRandom.current().nextLong();
+        Minefield minefield = Minefield.create(profile.height(), profile.width(), profile.minesCount(), seed, false);
+        return new PooledBoard(seed, minefield, minefield.fieldToBytes());
+    }
+
+    public List<PoolStatsResponse> stats() {
+        List<PoolStatsResponse> stats = new ArrayList<>();
+        for (Slot slot : slots.values()) {
+            long hits = slot.hits.sum();
+            long misses = slot.misses.sum();
+            long refilled = slot.refilled.sum();
+            stats.add(PoolStatsResponse.builder()
+                    .profile(slot.profile.toString())
+                    .size(slot.boards.size())
+                    .depth(depth)
+                    .hits(hits)
+                    .misses(misses)
+                    .hitRate(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                    .avgRefillLagMs(refilled == 0 ? 0.0 : slot.lagNanos.sum() / 1e6 / refilled)
+                    .maxRefillLagMs(slot.maxLagNanos.get() / 1e6)
+                    .build());
+        }
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Slot slot : slots.values()) {
+            String profile = slot.profile.toString();
+            FunctionCounter.builder("minesweeper.pool.requests", slot.hits, LongAdder::sum)
+                    .tag("profile", profile).tag("result", "hit").register(registry);
+            FunctionCounter.builder("minesweeper.pool.requests", slot.misses, LongAdder::sum)
+                    .tag("profile", profile).tag("result", "miss").register(registry);
+            Gauge.builder("minesweeper.pool.size", slot.boards, BlockingQueue::size)
+                    .tag("profile", profile).register(registry);
+            FunctionCounter.builder("minesweeper.pool.refill.lag", slot.lagNanos, lag -> lag.sum() / 1e9)
+                    .tag("profile", profile).baseUnit("seconds")
+                    .description("Total time boards were missing from the pool before being replaced")
+                    .register(registry);
+            FunctionCounter.builder("minesweeper.pool.refilled", slot.refilled, LongAdder::sum)
+                    .tag("profile", profile).register(registry);
+        }
+    }
+
+    private static final class Slot {
+        private final Profile profile;
+        private final BlockingQueue<PooledBoard> boards;
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private final ConcurrentLinkedQueue<Long> demand = new ConcurrentLinkedQueue<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder refilled = new LongAdder();
+        private final LongAdder lagNanos = new LongAdder();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+
+        private Slot(Profile profile, int depth) {
+            this.profile = profile;
+            this.boards = new ArrayBlockingQueue<>(depth);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ru.example.minesweeper.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.cache.GameCache;
+import ru.example.minesweeper.cluster.GameOwnership;
+import ru.example.minesweeper.config.PersistenceConfig;
+import ru.example.minesweeper.persistence.GameArchive;
+import ru.example.minesweeper.persistence.GameStore;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves games out of {@code games} into {@link GameArchive}: completed games once they have not
+ * been written for {@code minefield.archive.completed-after}, any game once it has not been
+ * written for {@code minefield.archive.idle-after}. In the event-log mode the row is only written
+ * with a snapshot, so idleness is measured from the last snapshot.
+ * <p>
+ * Runs every {@code minefield.archive.interval} on its own thread, at most
+ * {@code minefield.archive.max-batches} batches of {@code minefield.archive.batch-size} games per run.
+ * It stays out of the way of turns: games held by {@link GameCache}, and games owned by another
+ * instance, whose cache this one cannot see, are skipped, each game is
+ * archived under its {@link GameLocks} lock, a run stops while more than
+ * {@code minefield.archive.max-busy-games} games have turns in progress, and after each batch it
+ * sleeps long enough to keep its share of wall time under {@code minefield.archive.max-duty}.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression(PersistenceConfig.DATABASE_MODE)
+public class GameArchiver {
+
+    static final String SELECT_CANDIDATES = "SELECT id FROM games "
+            + "WHERE updated_at < ? OR (completed AND updated_at < ?) ORDER BY updated_at LIMIT ?";
+
+    @Value("${minefield.archive.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${minefield.archive.interval:1m}")
+    private Duration interval = Duration.ofMinutes(1);
+
+    @Value("${minefield.archive.completed-after:1h}")
+    private Duration completedAfter = Duration.ofHours(1);
+
+    @Value("${minefield.archive.idle-after:30d}")
+    private Duration idleAfter = Duration.ofDays(30);
+
+    @Value("${minefield.archive.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${minefield.archive.max-batches:10}")
+    private int maxBatches = 10;
+
+    @Value("${minefield.archive.max-busy-games:16}")
+    private int maxBusyGames = 16;
+
+    @Value("${minefield.archive.max-duty:0.1}")
+    private double maxDuty = 0.1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameStore gameStore;
+
+    @Autowired
+    private GameArchive gameArchive;
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private GameLocks gameLocks;
+
+    @Autowired
+    private GameOwnership gameOwnership;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-archiver");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("Game archival run failed", ex);
+        }
+    }
+
+    /**
+     * One archival run.
+     *
+     * @return number of games archived
+     */
+    public int run() throws InterruptedException {
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            if (gameLocks.size() > maxBusyGames) {
+                log.debug("Archival paused, {} games busy", gameLocks.size());
+                break;
+            }
+
+            long start = System.nanoTime();
+            Instant now = Instant.now();
+            List<UUID> candidates = jdbcTemplate.queryForList(SELECT_CANDIDATES, UUID.class,
+                    Timestamp.from(now.minus(idleAfter)), Timestamp.from(now.minus(completedAfter)), batchSize);
+            for (UUID gameId : candidates) {
+                // checked again under the lock, a turn may have cached the game or the members changed in between
+                if (isArchivable(gameId) && gameLocks.withLock(gameId, () -> isArchivable(gameId) && archive(gameId))) {
+                    archived++;
+                }
+            }
+            if (candidates.size() < batchSize) {
+                break;
+            }
+
+            long busyNanos = System.nanoTime() - start;
+            TimeUnit.NANOSECONDS.sleep((long) (busyNanos * (1 - maxDuty) / maxDuty));
+        }
+        if (archived > 0) {
+            log.info("Archived {} games", archived);
+        }
+        return archived;
+    }
+
+    private boolean isArchivable(UUID gameId) {
+        return gameOwnership.isLocal(gameId) && !gameCache.contains(gameId);
+    }
+
+    /**
+     * Archives the board as the store rebuilds it, so moves logged after the last snapshot are included.
+     */
+    private boolean archive(UUID gameId) {
+        Optional<CachedGame> loaded = gameStore.load(gameId);
+        if (loaded.isEmpty()) {
+            return false;
+        }
+        CachedGame cached = loaded.get();
+        byte[] field = cached.getMinefield().fieldToBytes();
+        return gameArchive.archive(cached.getGame(), field);
+    }
+}
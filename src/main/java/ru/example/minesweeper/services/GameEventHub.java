@@ -0,0 +1,207 @@
+package ru.example.minesweeper.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.exceptions.MinefieldException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-sent event streams of game updates. A subscriber first gets a {@code state} event with the
+ * board as it is, then a {@code turn} event with the changed cells of every turn applied after it.
+ * <p>
+ * Publishing only queues the event, so turns never wait on clients. Each subscriber has a queue of
+ * {@code minefield.events.buffer} events drained by a virtual thread while it has anything to send;
+ * a subscriber whose queue is full is too slow and is disconnected. Idle streams hold no thread.
+ */
+@Slf4j
+@Component
+public class GameEventHub implements MeterBinder {
+
+    static final String STATE_EVENT = "state";
+    static final String TURN_EVENT = "turn";
+
+    @Value("${minefield.events.buffer:64}")
+    private int buffer = 64;
+
+    @Value("${minefield.events.max-subscribers-per-game:1000}")
+    private int maxSubscribersPerGame = 1000;
+
+    @Value("${minefield.events.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public GameEventHub() {
+    }
+
+    public GameEventHub(int buffer, int maxSubscribersPerGame) {
+        this.buffer = buffer;
+        this.maxSubscribersPerGame = maxSubscribersPerGame;
+    }
+
+    private record Event(String name, long id, GameInfoResponse data) {
+    }
+
+    private final class Subscriber {
+        private final UUID gameId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(buffer);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(UUID gameId, SseEmitter emitter) {
+            this.gameId = gameId;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Opens a stream starting with {@code state}. Must be called under the game's lock, so that no
+     * turn is published between reading the state and registering the subscriber.
+     */
+    public SseEmitter subscribe(UUID gameId, GameInfoResponse state) {
+        return subscribe(gameId, state, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(UUID gameId, GameInfoResponse state, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(gameId, emitter);
+        // compute() so that a concurrent remove() cannot drop the set this subscriber goes into
+        subscribers.compute(gameId, (id, gameSubscribers) -> {
+            Set<Subscriber> result = gameSubscribers == null ? ConcurrentHashMap.newKeySet() : gameSubscribers;
+            if (result.size() >= maxSubscribersPerGame) {
+                throw new MinefieldException("Too many subscribers for game: " + gameId);
+            }
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+
+        enqueue(subscriber, new Event(STATE_EVENT, versionOf(state), state));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(UUID gameId) {
+        if (gameId == null) {
+            return false;
+        }
+        Set<Subscriber> gameSubscribers = subscribers.get(gameId);
+        return gameSubscribers != null && !gameSubscribers.isEmpty();
+    }
+
+    /**
+     * Queues the changes of a turn for every subscriber of the game.
+     */
+    public void publish(UUID gameId, GameInfoResponse delta) {
+        Set<Subscriber> gameSubscribers = subscribers.get(gameId);
+        if (gameSubscribers == null) {
+            return;
+        }
+        Event event = new Event(TURN_EVENT, versionOf(delta), delta);
+        for (Subscriber subscriber : gameSubscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Event event) {
+        if (!subscriber.queue.offer(event)) {
+            dropped.increment();
+            log.debug("Dropping slow subscriber of game {}", subscriber.gameId);
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        scheduleSend(subscriber);
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(event.name())
+                        .id(Long.toString(event.id()))
+                        .data(event.data(), MediaType.APPLICATION_JSON));
+                sent.increment();
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // the client went away or the emitter was already completed
+            remove(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+
+        // An event queued after the loop found the queue empty but before the flag was reset
+        // found a send still running and did not schedule one.
+        if (!subscriber.queue.isEmpty()) {
+            scheduleSend(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.gameId, (id, gameSubscribers) -> {
+            gameSubscribers.remove(subscriber);
+            return gameSubscribers.isEmpty() ? null : gameSubscribers;
+        });
+    }
+
+    private static long versionOf(GameInfoResponse response) {
+        return response.getVersion() == null ? 0 : response.getVersion();
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.values().forEach(gameSubscribers -> gameSubscribers.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minesweeper.events.subscribers", this, GameEventHub::subscriberCount)
+                .description("Open game event streams")
+                .register(registry);
+        FunctionCounter.builder("minesweeper.events.sent", sent, LongAdder::sum)
+                .description("Events written to game event streams")
+                .register(registry);
+        FunctionCounter.builder("minesweeper.events.dropped", dropped, LongAdder::sum)
+                .description("Subscribers disconnected for falling behind")
+                .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.example.minesweeper.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One lock per game that currently has a turn in progress. Turns on the same game run one
+ * at a time, turns on different games never share a lock; an entry is removed as soon as
+ * its last holder or waiter leaves, so the map only grows with the number of busy games.
+ */
+@Component
+public class GameLocks {
+
+    private final ConcurrentHashMap<UUID, Entry> locks = new ConcurrentHashMap<>();
+
+    public <T> T withLock(UUID gameId, Supplier<T> action) {
+        Entry entry = locks.compute(gameId, (id, existing) -> {
+            Entry acquired = existing == null ? new Entry() : existing;
+            acquired.users++;
+            return acquired;
+        });
+
+        entry.lock.lock();
+        try {
+            return action.get();
+        } finally {
+            entry.lock.unlock();
+            locks.computeIfPresent(gameId, (id, existing) -> --existing.users == 0 ? null : existing);
+        }
+    }
+
+    /**
+     * @return number of games with a turn running or waiting
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+}
@@ -5,16 +5,48 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.cache.GameCache;
+import ru.example.minesweeper.cluster.GameOwnership;
+import ru.example.minesweeper.dto.BoardFormat;
+import ru.example.minesweeper.dto.CellChange;
+import ru.example.minesweeper.dto.GameBatchTurnRequest;
+import ru.example.minesweeper.dto.GameBatchTurnResponse;
 import ru.example.minesweeper.dto.GameInfoResponse;
 import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.HintCell;
+import ru.example.minesweeper.dto.HintResponse;
+import ru.example.minesweeper.dto.MoveResult;
 import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.dto.TurnMove;
 import ru.example.minesweeper.exceptions.MinefieldException;
-import ru.example.minesweeper.managers.FieldManager;
-import ru.example.minesweeper.model.FieldCell;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.managers.MinefieldSolver;
+import ru.example.minesweeper.managers.SolverResult;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.metrics.GamePhase;
 import ru.example.minesweeper.model.FieldCellValueEnum;
 import ru.example.minesweeper.model.Game;
-import ru.example.minesweeper.repositories.GameRepository;
+import ru.example.minesweeper.model.GameMetadata;
+import ru.example.minesweeper.model.TurnActionEnum;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+import ru.example.minesweeper.persistence.EventLogGameStore;
+import ru.example.minesweeper.persistence.GameStore;
+import ru.example.minesweeper.persistence.ReplayedGame;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @Getter
@@ -25,116 +57,634 @@ public class GameService {
     @Value("${minefield.fieldlength}")
     private int FIELD_LENGTH;
 
+    @Value("${minefield.chunked.threshold-cells:1000000}")
+    private long CHUNKED_THRESHOLD_CELLS = 1_000_000;
+
+    @Value("${minefield.batch.max-moves:1000}")
+    private int MAX_BATCH_MOVES = 1000;
+
+    @Value("${minefield.turn.max-attempts:3}")
+    private int MAX_TURN_ATTEMPTS = 3;
+
+    @Value("${minefield.solver.deadline-ms:50}")
+    private long SOLVER_DEADLINE_MS = 50;
+
+    @Value("${minefield.solver.window:256}")
+    private int SOLVER_WINDOW = 256;
+
+    @Value("${minefield.solver.hint-guesses:10}")
+    private int HINT_GUESSES = 10;
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private GameStore gameStore;
+
+    @Autowired
+    private GameLocks gameLocks;
+
+    @Autowired
+    private GameMetrics gameMetrics = GameMetrics.standalone();
+
+    @Autowired
+    private BoardPool boardPool = new BoardPool();
+
+    @Autowired
+    private GameEventHub gameEventHub = new GameEventHub();
+
     @Autowired
-    private GameRepository gameRepository;
+    private NoGuessGenerator noGuessGenerator = new NoGuessGenerator();
+
+    @Autowired
+    private MinefieldSolver minefieldSolver = new MinefieldSolver(ForkJoinPool.commonPool(), 24);
+
+    @Autowired
+    private GameOwnership gameOwnership = new GameOwnership();
 
     public GameInfoResponse createGame(NewGameRequest request) {
-        this.validateNewGameRequest(request);
+        long start = System.nanoTime();
+        try {
+            this.validateNewGameRequest(request);
+        } catch (MinefieldException ex) {
+            gameMetrics.recordRejected(ex);
+            throw ex;
+        }
 
         int height = request.getHeight();
         int width = request.getWidth();
         int minesCount = request.getMinesCount();
 
-        FieldManager fieldManager = new FieldManager(height, width);
-        fieldManager.placeMines(minesCount);
+        long seed;
+        Minefield minefield;
+        byte[] field;
+        long phaseStart = System.nanoTime();
+
+        Optional<Long> noGuessSeed = Optional.empty();
+        Optional<BoardPool.PooledBoard> pooled = request.isNoGuess()
+                ? Optional.empty()
+                : boardPool.take(height, width, minesCount);
+        if (pooled.isPresent()) {
+            seed = pooled.get().seed();
+            minefield = pooled.get().minefield();
+            field = pooled.get().field();
+        } else {
+            if (request.isNoGuess()) {
+                NoGuessGenerator.Search search = noGuessGenerator.search(height, width, minesCount,
+                        startRow(request), startCol(request));
+                gameMetrics.recordNoGuess(height, width, search.seed().isPresent(), search.candidates(), phaseStart);
+                noGuessSeed = search.seed();
+            }
+            seed = noGuessSeed.orElseGet(() -> ThreadLocalRandom.current().nextLong());
+            boolean chunked = (long) height * width > CHUNKED_THRESHOLD_CELLS;
+            minefield = Minefield.create(height, width, minesCount, seed, chunked);
+            phaseStart = gameMetrics.recordPhase(GamePhase.GENERATE, phaseStart);
+
+            field = minefield.fieldToBytes();
+            gameMetrics.recordBoardSize(field.length);
+            phaseStart = gameMetrics.recordPhase(GamePhase.SERIALIZE, phaseStart);
+        }
 
         Game newGame = Game.builder()
                 .height(height)
                 .width(width)
                 .minesCount(minesCount)
+                .seed(seed)
                 .completed(false)
-                .field(fieldManager.fieldToString())
+                .field(field)
                 .build();
 
-        Game savedGame = gameRepository.save(newGame);
+        Game savedGame = gameStore.create(newGame);
+        gameMetrics.recordPhase(GamePhase.SAVE, phaseStart);
+        // in a cluster the game's owner loads it from the database on its first turn
+        if (gameOwnership.isLocal(savedGame.getId())) {
+            gameCache.put(savedGame, minefield);
+        }
 
-        return toGameInfo(savedGame, fieldManager.getField());
+        GameInfoResponse response = toGameInfo(savedGame, minefield, request.getFormat());
+        if (request.isNoGuess()) {
+            response.setNoGuess(noGuessSeed.isPresent());
+        }
+        gameMetrics.recordCreate(start);
+        return response;
     }
 
     public GameInfoResponse gameTurn(GameTurnRequest turnRequest) {
-        Game game = gameRepository.findById(turnRequest.getGameId())
-                .orElseThrow(()-> new MinefieldException("There is no Game with id: " + turnRequest.getGameId()));
+        Consumer<GameMetadata> precheck = metadata -> validateGameTurnRequest(turnRequest, metadata);
+        return runTurn(turnRequest.getGameId(), false, precheck, cachedGame -> {
+            Game game = cachedGame.getGame();
 
-        this.validateGameTurnRequest(turnRequest, game);
+            this.validateGameTurnRequest(turnRequest, GameMetadata.of(game));
 
-        int row = turnRequest.getRow();
-        int col = turnRequest.getCol();
+            Minefield minefield = loadMinefield(cachedGame);
+            minefield.clearChanges();
 
-        FieldManager fieldManager = new FieldManager(game.getField());
+            long computeStart = System.nanoTime();
+            applyTurn(cachedGame, minefield, turnRequest.getAction(), turnRequest.getRow(), turnRequest.getCol());
+            if (turnRequest.isAutoOpen()) {
+                autoOpenSafeCells(cachedGame, minefield, turnRequest.getRow(), turnRequest.getCol());
+            }
+            gameMetrics.recordPhase(GamePhase.COMPUTE, computeStart);
+            gameCache.markDirty(cachedGame);
 
-        FieldCell revealingCell = fieldManager.getCellToReveal(row, col);
+            GameInfoResponse response = turnRequest.isDelta()
+                    ? toDeltaInfo(game, minefield)
+                    : toGameInfo(game, minefield, turnRequest.getFormat());
+            publishTurn(game, minefield, response);
+            return response;
+        });
+    }
 
-        if (revealingCell.isMine()) {
-            game.setCompleted(true);
-            fieldManager.revealAllMines(FieldCellValueEnum.OPENED_MINE);
-        } else {
-            revealingCell.setRevealed(true);
-            revealingCell.setDisplayingSymbol(
-                    FieldCellValueEnum.fromSymbol(
-                            String.valueOf(revealingCell.getNearbyMine())
-                    )
-            );
-
-            if (revealingCell.getNearbyMine() == 0) {
-                fieldManager.cascadeOpenCells(row, col);
+    /**
+     * Applies the moves in order against one loaded board and persists once.
+     * Invalid moves are rejected individually; moves after the game ends are skipped.
+     */
+    public GameBatchTurnResponse gameTurns(GameBatchTurnRequest batchRequest) {
+        List<TurnMove> moves = batchRequest.getMoves() == null ? List.of() : batchRequest.getMoves();
+        if (moves.size() > MAX_BATCH_MOVES) {
+            MinefieldException ex = new MinefieldException("Too many moves in batch");
+            gameMetrics.recordRejected(ex);
+            throw ex;
+        }
+
+        return runTurn(batchRequest.getGameId(), true, this::validateNotCompleted, cachedGame -> {
+            Game game = cachedGame.getGame();
+            GameMetadata metadata = GameMetadata.of(game);
+            validateNotCompleted(metadata);
+
+            Minefield minefield = loadMinefield(cachedGame);
+            minefield.clearChanges();
+            long computeStart = System.nanoTime();
+
+            List<MoveResult> results = new ArrayList<>(moves.size());
+            boolean applied = false;
+
+            for (TurnMove move : moves) {
+                MoveResult.MoveResultBuilder result = MoveResult.builder().row(move.getRow()).col(move.getCol());
+
+                if (game.isCompleted()) {
+                    results.add(result.outcome(TurnOutcomeEnum.SKIPPED).build());
+                    continue;
+                }
+
+                try {
+                    validateMoveCoordinates(move.getRow(), move.getCol(), metadata);
+                    long revealedBefore = minefield.getRevealedSafeCells();
+                    TurnOutcomeEnum outcome = applyTurn(cachedGame, minefield, move.getAction(), move.getRow(), move.getCol());
+                    applied = true;
+                    results.add(result.outcome(outcome)
+                            .opened(minefield.getRevealedSafeCells() - revealedBefore)
+                            .build());
+                } catch (MinefieldException ex) {
+                    gameMetrics.recordRejected(ex);
+                    results.add(result.outcome(TurnOutcomeEnum.REJECTED).error(ex.getMessage()).build());
+                }
+            }
+            gameMetrics.recordPhase(GamePhase.COMPUTE, computeStart);
+
+            if (applied) {
+                gameCache.markDirty(cachedGame);
+            }
+
+            GameInfoResponse gameInfo = batchRequest.isDelta()
+                    ? toDeltaInfo(game, minefield)
+                    : toGameInfo(game, minefield, batchRequest.getFormat());
+            if (applied) {
+                publishTurn(game, minefield, gameInfo);
             }
 
-            if (fieldManager.isGameComplete()) {
-                game.setCompleted(true);
-                fieldManager.revealAllMines(FieldCellValueEnum.MINE);
+            return GameBatchTurnResponse.builder()
+                    .moves(results)
+                    .game(gameInfo)
+                    .build();
+        });
+    }
+
+    /**
+     * Opens an event stream of the game's turns, starting from its current state.
+     */
+    public SseEmitter subscribe(UUID gameId) {
+        if (gameId == null) {
+            throw new MinefieldException("There is no Game with id: null");
+        }
+
+        return gameLocks.withLock(gameId, () -> {
+            CachedGame cachedGame = findGame(gameId);
+            synchronized (cachedGame) {
+                Minefield minefield = loadMinefield(cachedGame);
+                GameInfoResponse state = toGameInfo(cachedGame.getGame(), minefield);
+                if (minefield.isChunked()) {
+                    // only changes since the stream opened can be listed for a chunked board
+                    state.setChanges(List.of());
+                }
+                return gameEventHub.subscribe(gameId, state);
+            }
+        });
+    }
+
+    /**
+     * Cells the player can be sure about and the least risky guesses, worked out from the opened
+     * numbers within {@code minefield.solver.deadline-ms}. Chunked boards are solved in a window of
+     * {@code minefield.solver.window} cells around {@code row, col} (the board centre if not given).
+     */
+    public HintResponse hint(UUID gameId, Integer row, Integer col) {
+        try {
+            if (gameId == null) {
+                throw new MinefieldException("There is no Game with id: null");
+            }
+
+            return gameLocks.withLock(gameId, () -> {
+                CachedGame cachedGame = findGame(gameId);
+                synchronized (cachedGame) {
+                    Game game = cachedGame.getGame();
+                    if (game.isCompleted()) {
+                        throw new MinefieldException("Game already completed");
+                    }
+
+                    Minefield minefield = loadMinefield(cachedGame);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SOLVER_DEADLINE_MS);
+                    SolverResult result = solve(minefield,
+                            row == null ? game.getHeight() / 2 : row,
+                            col == null ? game.getWidth() / 2 : col,
+                            deadline);
+
+                    return HintResponse.builder()
+                            .gameId(game.getId())
+                            .version(game.getBoardVersion())
+                            .safe(toHintCells(result.safe()))
+                            .mines(toHintCells(result.mines()))
+                            .guesses(toHintCells(result.frontier().stream()
+                                    .sorted(Comparator.comparingDouble(SolverResult.Cell::mineProbability))
+                                    .limit(HINT_GUESSES)
+                                    .toList()))
+                            .otherProbability(result.otherProbability())
+                            .partial(result.partial())
+                            .build();
+                }
+            });
+        } catch (MinefieldException ex) {
+            gameMetrics.recordRejected(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Rebuilds the board from the game's seed and its first {@code moves} logged moves
+     * (all of them when {@code moves} is null). Only available with the event-log store.
+     */
+    public GameInfoResponse replayGame(UUID gameId, Long moves) {
+        return replayGame(gameId, moves, BoardFormat.MATRIX);
+    }
+
+    public GameInfoResponse replayGame(UUID gameId, Long moves, BoardFormat format) {
+        if (!(gameStore instanceof EventLogGameStore eventLogStore)) {
+            throw new MinefieldException("Replay requires minefield.persistence.mode=event-log");
+        }
+
+        Game game = gameLocks.withLock(gameId, () -> {
+            CachedGame cachedGame = findGame(gameId);
+            gameCache.flush(gameId);
+            return cachedGame.getGame();
+        });
+        ReplayedGame replayed = eventLogStore.replay(game, moves == null ? Long.MAX_VALUE : moves);
+        Minefield minefield = replayed.minefield();
+
+        GameInfoResponse.GameInfoResponseBuilder response = GameInfoResponse.builder()
+                .gameId(game.getId())
+                .height(game.getHeight())
+                .width(game.getWidth())
+                .minesCount(game.getMinesCount())
+                .completed(replayed.completed())
+                .version(replayed.version());
+        if (!minefield.isChunked()) {
+            renderField(response, minefield, format);
+        }
+        return response.build();
+    }
+
+    /**
+     * Runs a turn under the game's lock and monitor. If the save finds that the game was changed
+     * elsewhere (another instance, or a stale row after a failed flush), the cached copy is dropped
+     * and the turn is applied again to a fresh load, at most {@code minefield.turn.max-attempts} times.
+     * <p>
+     * {@code precheck} first runs against the game's metadata, outside the lock, so that turns it
+     * rejects never load the board. The turn itself must validate again against the loaded game.
+     */
+    private <T> T runTurn(UUID gameId, boolean batch, Consumer<GameMetadata> precheck,
+                          Function<CachedGame, T> turn) {
+        long start = System.nanoTime();
+        try {
+            if (gameId == null) {
+                throw new MinefieldException("There is no Game with id: null");
             }
+
+            long metadataStart = System.nanoTime();
+            GameMetadata metadata = gameCache.getMetadata(gameId)
+                    .orElseThrow(() -> new MinefieldException("There is no Game with id: " + gameId));
+            gameMetrics.recordPhase(GamePhase.LOAD, metadataStart);
+            precheck.accept(metadata);
+
+            T result = gameLocks.withLock(gameId, () -> {
+                for (int attempt = 1; ; attempt++) {
+                    long loadStart = System.nanoTime();
+                    CachedGame cachedGame = findGame(gameId);
+                    gameMetrics.recordPhase(GamePhase.LOAD, loadStart);
+                    try {
+                        synchronized (cachedGame) {
+                            return turn.apply(cachedGame);
+                        }
+                    } catch (ConcurrencyFailureException ex) {
+                        gameCache.invalidate(gameId);
+                        if (attempt >= MAX_TURN_ATTEMPTS) {
+                            throw new MinefieldException("Game was modified concurrently, retry the turn", ex);
+                        }
+                    }
+                }
+            });
+            gameMetrics.recordTurn(start, batch);
+            return result;
+        } catch (MinefieldException ex) {
+            gameMetrics.recordRejected(ex);
+            throw ex;
         }
+    }
 
-        game.setField(fieldManager.fieldToString());
-        gameRepository.save(game);
+    /**
+     * Decodes the board on first use, timed as {@link GamePhase#DESERIALIZE}.
+     */
+    private Minefield loadMinefield(CachedGame cachedGame) {
+        if (cachedGame.isLoaded()) {
+            return cachedGame.getMinefield();
+        }
 
-        return toGameInfo(game, fieldManager.getField());
+        long start = System.nanoTime();
+        Minefield minefield = cachedGame.getMinefield();
+        gameMetrics.recordPhase(GamePhase.DESERIALIZE, start);
+        return minefield;
     }
 
-    private GameInfoResponse toGameInfo(Game game, FieldCell[][] field) {
+    private CachedGame findGame(UUID gameId) {
+        return gameCache.get(gameId)
+                .orElseThrow(()-> new MinefieldException("There is no Game with id: " + gameId));
+    }
+
+    /**
+     * Applies one move of any action; it is logged and persisted like a reveal, whatever the action.
+     */
+    private TurnOutcomeEnum applyTurn(CachedGame cachedGame, Minefield minefield,
+                                      TurnActionEnum action, int row, int col) {
+        Game game = cachedGame.getGame();
+        TurnActionEnum turnAction = action == null ? TurnActionEnum.REVEAL : action;
+        long revealedBefore = minefield.getRevealedSafeCells();
+        TurnOutcomeEnum outcome = minefield.applyAction(turnAction, row, col);
+        if (outcome.isFinal()) {
+            game.setCompleted(true);
+        }
+        gameMetrics.recordOutcome(outcome, minefield.getRevealedSafeCells() - revealedBefore);
+
+        game.setBoardVersion(game.getBoardVersion() + 1);
+        cachedGame.recordMove(turnAction, row, col);
+        return outcome;
+    }
+
+    /**
+     * Keeps opening the cells the solver proves safe until there are none left, the game ends or
+     * the solver deadline passes. Every cell is applied and logged as its own reveal; flagged cells
+     * are left to the player.
+     */
+    private void autoOpenSafeCells(CachedGame cachedGame, Minefield minefield, int row, int col) {
+        Game game = cachedGame.getGame();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SOLVER_DEADLINE_MS);
+        boolean opened = true;
+        while (opened && !game.isCompleted() && System.nanoTime() < deadline) {
+            opened = false;
+            for (SolverResult.Cell cell : solve(minefield, row, col, deadline).safe()) {
+                if (game.isCompleted()) {
+                    break;
+                }
+                if (!minefield.isRevealed(cell.row(), cell.col()) && !minefield.isFlagged(cell.row(), cell.col())) {
+                    applyTurn(cachedGame, minefield, TurnActionEnum.REVEAL, cell.row(), cell.col());
+                    opened = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the cells changed by a turn to the game's event streams, reusing the response's
+     * change list when it has one.
+     */
+    private void publishTurn(Game game, Minefield minefield, GameInfoResponse response) {
+        if (!gameEventHub.hasSubscribers(game.getId())) {
+            return;
+        }
+        gameEventHub.publish(game.getId(), response.getChanges() != null ? response : toDeltaInfo(game, minefield));
+    }
+
+    private SolverResult solve(Minefield minefield, int row, int col, long deadline) {
+        long start = System.nanoTime();
+        SolverResult result = minefield.isChunked()
+                ? minefieldSolver.solve(minefield, row - SOLVER_WINDOW / 2, col - SOLVER_WINDOW / 2,
+                        SOLVER_WINDOW, SOLVER_WINDOW, deadline)
+                : minefieldSolver.solve(minefield, deadline);
+        gameMetrics.recordPhase(GamePhase.SOLVE, start);
+        return result;
+    }
+
+    private List<HintCell> toHintCells(List<SolverResult.Cell> cells) {
+        return cells.stream()
+                .map(cell -> new HintCell(cell.row(), cell.col(), cell.mineProbability()))
+                .toList();
+    }
+
+    /**
+     * Full-board response; chunked boards are too large to render and always answer with a delta.
+     */
+    private GameInfoResponse toGameInfo(Game game, Minefield minefield) {
+        return toGameInfo(game, minefield, BoardFormat.MATRIX);
+    }
+
+    private GameInfoResponse toGameInfo(Game game, Minefield minefield, BoardFormat format) {
+        if (minefield.isChunked()) {
+            return toDeltaInfo(game, minefield);
+        }
+
+        GameInfoResponse.GameInfoResponseBuilder response = GameInfoResponse.builder()
+                .gameId(game.getId())
+                .height(game.getHeight())
+                .width(game.getWidth())
+                .minesCount(game.getMinesCount())
+                .completed(game.isCompleted())
+                .version(game.getBoardVersion());
+        renderField(response, minefield, format);
+        return response.build();
+    }
+
+    /**
+     * Writes the board in the requested representation, straight from the minefield's symbols.
+     */
+    private void renderField(GameInfoResponse.GameInfoResponseBuilder response, Minefield minefield, BoardFormat format) {
+        switch (format == null ? BoardFormat.MATRIX : format) {
+            case MATRIX -> response.field(getFieldForResponse(minefield));
+            case ROWS -> response.rows(getRowsForResponse(minefield));
+            case RLE -> response.fieldRle(getRleForResponse(minefield));
+            case PACKED -> response.packedField(getPackedForResponse(minefield));
+        }
+    }
+
+    private GameInfoResponse toDeltaInfo(Game game, Minefield minefield) {
+        List<CellChange> changes = new ArrayList<>(minefield.getChangedCellsCount());
+        for (int i = 0; i < minefield.getChangedCellsCount(); i++) {
+            int row = minefield.getChangedRow(i);
+            int col = minefield.getChangedCol(i);
+            changes.add(new CellChange(row, col, minefield.getSymbol(row, col).getSymbol()));
+        }
+
         return GameInfoResponse.builder()
                 .gameId(game.getId())
                 .height(game.getHeight())
                 .width(game.getWidth())
                 .minesCount(game.getMinesCount())
                 .completed(game.isCompleted())
-                .field(getFieldForResponse(field))
+                .version(game.getBoardVersion())
+                .changes(changes)
                 .build();
     }
 
-    private String[][] getFieldForResponse(FieldCell[][] mineField) {
-        int height = mineField.length;
-        int width = mineField[0].length;
+    private String[][] getFieldForResponse(Minefield minefield) {
+        int height = minefield.getHeight();
+        int width = minefield.getWidth();
 
         String[][] cells = new String[height][width];
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
-                cells[i][j] = mineField[i][j].getDisplayingSymbol().getSymbol();
+                cells[i][j] = minefield.getSymbol(i, j).getSymbol();
             }
         }
 
         return cells;
     }
 
+    private static String[] getRowsForResponse(Minefield minefield) {
+        int height = minefield.getHeight();
+        int width = minefield.getWidth();
+
+        String[] rows = new String[height];
+        StringBuilder row = new StringBuilder(width);
+        for (int i = 0; i < height; i++) {
+            row.setLength(0);
+            for (int j = 0; j < width; j++) {
+                row.append(minefield.getSymbol(i, j).getSymbol());
+            }
+            rows[i] = row.toString();
+        }
+
+        return rows;
+    }
+
+    /**
+     * Row-major runs separated by commas: the symbol, then the run length if it is more than one.
+     */
+    private static String getRleForResponse(Minefield minefield) {
+        int height = minefield.getHeight();
+        int width = minefield.getWidth();
+
+        StringBuilder rle = new StringBuilder();
+        FieldCellValueEnum run = null;
+        int length = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                FieldCellValueEnum symbol = minefield.getSymbol(i, j);
+                if (symbol == run) {
+                    length++;
+                    continue;
+                }
+                appendRun(rle, run, length);
+                run = symbol;
+                length = 1;
+            }
+        }
+        appendRun(rle, run, length);
+
+        return rle.toString();
+    }
+
+    private static void appendRun(StringBuilder rle, FieldCellValueEnum symbol, int length) {
+        if (symbol == null) {
+            return;
+        }
+        if (!rle.isEmpty()) {
+            rle.append(',');
+        }
+        rle.append(symbol.getSymbol());
+        if (length > 1) {
+            rle.append(length);
+        }
+    }
+
+    /**
+     * One {@link FieldCellValueEnum} ordinal per nibble in row-major order, low nibble first.
+     */
+    private static byte[] getPackedForResponse(Minefield minefield) {
+        int height = minefield.getHeight();
+        int width = minefield.getWidth();
+
+        byte[] packed = new byte[(height * width + 1) / 2];
+        int index = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++, index++) {
+                int ordinal = minefield.getSymbol(i, j).ordinal();
+                packed[index >> 1] |= (byte) ((index & 1) == 0 ? ordinal : ordinal << 4);
+            }
+        }
+
+        return packed;
+    }
+
     private void validateNewGameRequest(NewGameRequest newGameRequest) {
         if (newGameRequest.getHeight() > FIELD_LENGTH || newGameRequest.getWidth() > FIELD_LENGTH) {
             throw new MinefieldException("Incorrect field size");
         }
 
-        if (newGameRequest.getMinesCount() >= newGameRequest.getHeight() * newGameRequest.getWidth()) {
+        if (newGameRequest.getMinesCount() >= (long) newGameRequest.getHeight() * newGameRequest.getWidth()) {
             throw new MinefieldException("Mine count should be less then cell counts");
         }
+
+        if (newGameRequest.isNoGuess()) {
+            if ((long) newGameRequest.getHeight() * newGameRequest.getWidth() > CHUNKED_THRESHOLD_CELLS) {
+                throw new MinefieldException("No-guess boards are limited to " + CHUNKED_THRESHOLD_CELLS + " cells");
+            }
+            int startRow = startRow(newGameRequest);
+            int startCol = startCol(newGameRequest);
+            if (startRow < 0 || startRow >= newGameRequest.getHeight()
+                    || startCol < 0 || startCol >= newGameRequest.getWidth()) {
+                throw new MinefieldException("Invalid start cell");
+            }
+        }
     }
 
-    private void validateGameTurnRequest(GameTurnRequest gameTurnRequest, Game game) {
-        if (game.isCompleted()) {
+    private static int startRow(NewGameRequest request) {
+        return request.getStartRow() == null ? request.getHeight() / 2 : request.getStartRow();
+    }
+
+    private static int startCol(NewGameRequest request) {
+        return request.getStartCol() == null ? request.getWidth() / 2 : request.getStartCol();
+    }
+
+    private void validateGameTurnRequest(GameTurnRequest gameTurnRequest, GameMetadata game) {
+        validateNotCompleted(game);
+
+        validateMoveCoordinates(gameTurnRequest.getRow(), gameTurnRequest.getCol(), game);
+    }
+
+    private void validateNotCompleted(GameMetadata game) {
+        if (game.completed()) {
             throw new MinefieldException("Game already completed");
         }
+    }
 
-        int row = gameTurnRequest.getRow();
-        int col = gameTurnRequest.getCol();
-
-        if (row < 0 || row >= game.getHeight() || col < 0 || col >= game.getWidth()) {
+    private void validateMoveCoordinates(int row, int col, GameMetadata game) {
+        if (row < 0 || row >= game.height() || col < 0 || col >= game.width()) {
             throw new MinefieldException("Invalid move coordinates");
         }
     }
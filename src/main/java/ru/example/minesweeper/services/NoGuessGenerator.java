@@ -0,0 +1,159 @@
+package ru.example.minesweeper.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.example.minesweeper.managers.FieldManager;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.managers.MinefieldSolver;
+import ru.example.minesweeper.managers.SolverResult;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds boards that {@link MinefieldSolver} finishes from a given first click without guessing.
+ * <p>
+ * Candidates are ordinary seeded boards, so a found board is rebuilt by {@link Minefield#create}
+ * from its seed like any other game. Every one of the {@code minefield.no-guess.threads} workers
+ * tries random seeds until one passes, another worker's success completes the shared result, or
+ * {@code minefield.no-guess.time-cap-ms} passes.
+ */
+@Slf4j
+@Component
+public class NoGuessGenerator {
+
+    @Value("${minefield.no-guess.threads:0}")
+    private int threads;
+
+    @Value("${minefield.no-guess.time-cap-ms:2000}")
+    private long timeCapMs = 2000;
+
+    @Value("${minefield.no-guess.max-component-cells:16}")
+    private int maxComponentCells = 16;
+
+    private ExecutorService workers;
+    private MinefieldSolver solver = MinefieldSolver.sequential(maxComponentCells);
+
+    /**
+     * Outcome of one search: the seed, or empty if the time cap passed first.
+     */
+    public record Search(Optional<Long> seed, long candidates) {
+    }
+
+    public NoGuessGenerator() {
+    }
+
+    public NoGuessGenerator(int threads, long timeCapMs) {
+        this.threads = threads;
+        this.timeCapMs = timeCapMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        solver = MinefieldSolver.sequential(maxComponentCells);
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount(), runnable -> {
+            Thread thread = new Thread(runnable, "no-guess-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private int workerCount() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Searches for a seed whose board has an empty cell at {@code startRow, startCol} and can be
+     * solved from there. Without started workers the search runs in the calling thread.
+     */
+    public Search search(int height, int width, int minesCount, int startRow, int startCol) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeCapMs);
+        CompletableFuture<Long> found = new CompletableFuture<>();
+        AtomicLong candidates = new AtomicLong();
+        Runnable worker = () -> {
+            try {
+                while (!found.isDone() && System.nanoTime() < deadline) {
+                    long seed = ThreadLocalRandom.current().nextLong();
+                    candidates.incrementAndGet();
+                    if (isSolvable(height, width, minesCount, seed, startRow, startCol, deadline)) {
+                        found.complete(seed);
+                    }
+                }
+            } catch (RuntimeException ex) {
+                found.completeExceptionally(ex);
+            }
+        };
+
+        if (workers == null || workers.isShutdown()) {
+            worker.run();
+        } else {
+            for (int n = 0; n < workerCount(); n++) {
+                workers.execute(worker);
+            }
+        }
+
+        try {
+            return new Search(Optional.of(found.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)),
+                    candidates.get());
+        } catch (TimeoutException ex) {
+            return new Search(Optional.empty(), candidates.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Search(Optional.empty(), candidates.get());
+        } catch (ExecutionException ex) {
+            log.error("No-guess search failed for {}x{}x{}", height, width, minesCount, ex.getCause());
+            return new Search(Optional.empty(), candidates.get());
+        } finally {
+            // stops the workers still testing candidates
+            found.complete(null);
+        }
+    }
+
+    /**
+     * Plays the board from the start cell, opening only cells the solver proves safe.
+     */
+    boolean isSolvable(int height, int width, int minesCount, long seed, int startRow, int startCol, long deadline) {
+        FieldManager board = new FieldManager(height, width);
+        board.placeMines(minesCount, seed);
+        if (board.isMine(startRow, startCol) || board.getNearbyMines(startRow, startCol) != 0) {
+            return false;
+        }
+
+        board.revealCell(startRow, startCol);
+        while (!board.isGameComplete()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            boolean opened = false;
+            for (SolverResult.Cell cell : solver.solve(board, deadline).safe()) {
+                if (!board.isRevealed(cell.row(), cell.col())) {
+                    board.revealCell(cell.row(), cell.col());
+                    opened = true;
+                }
+            }
+            if (!opened) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -5,8 +5,54 @@ CREATE TABLE games (
     width integer NOT NULL,
     height integer NOT NULL,
     mines_count integer NOT NULL,
+    seed bigint NOT NULL DEFAULT 0,
+    completed boolean NOT NULL DEFAULT false,
+    board_version bigint NOT NULL DEFAULT 0,
+    snapshot_version bigint NOT NULL DEFAULT 0,
+    row_version bigint NOT NULL DEFAULT 0,
     field text NOT NULL
 );
 
 ALTER TABLE games
-ALTER COLUMN id SET DEFAULT uuid_generate_v4();
\ No newline at end of file
+ALTER COLUMN id SET DEFAULT uuid_generate_v4();
+
+-- Boards are stored in the compact binary format (see FieldCodec).
+-- Existing JSON rows keep their bytes and are still decoded by the legacy path.
+ALTER TABLE games
+ALTER COLUMN field TYPE bytea USING convert_to(field, 'UTF8');
+
+
+-- Move log of games persisted in the event-log mode (see EventLogGameStore).
+CREATE TABLE game_moves (
+    id bigserial PRIMARY KEY,
+    game_id uuid NOT NULL,
+    seq bigint NOT NULL,
+    move_row integer NOT NULL,
+    move_col integer NOT NULL,
+    move_action smallint NOT NULL DEFAULT 0
+);
+
+CREATE UNIQUE INDEX game_moves_game_seq_idx ON game_moves (game_id, seq);
+
+-- Last write of the row, used to find games to archive (see GameArchiver).
+ALTER TABLE games
+ADD COLUMN updated_at timestamptz NOT NULL DEFAULT now();
+
+CREATE INDEX games_updated_at_idx ON games (updated_at);
+
+-- Completed and idle games moved out of games (see JdbcGameArchive).
+-- The board is deflated by the application, so it is kept out of line without compressing it again.
+CREATE TABLE games_archive (
+    id uuid PRIMARY KEY,
+    width integer NOT NULL,
+    height integer NOT NULL,
+    mines_count integer NOT NULL,
+    seed bigint NOT NULL DEFAULT 0,
+    completed boolean NOT NULL,
+    board_version bigint NOT NULL,
+    archived_at timestamptz NOT NULL,
+    field bytea NOT NULL
+);
+
+ALTER TABLE games_archive
+ALTER COLUMN field SET STORAGE EXTERNAL;
@@ -0,0 +1,220 @@
+package ru.example.minesweeper.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.example.minesweeper.dto.CacheStatsResponse;
+import ru.example.minesweeper.managers.FieldManager;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+import ru.example.minesweeper.persistence.BlobGameStore;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameCacheTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private GameCache gameCache;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        gameCache = new GameCache(new BlobGameStore(gameRepository), true, 2);
+    }
+
+    @Test
+    void testHitAfterPut() {
+        Game game = newGame();
+        CachedGame cached = gameCache.put(game, new FieldManager(3, 3));
+
+        Optional<CachedGame> found = gameCache.get(game.getId());
+
+        assertSame(cached, found.orElseThrow());
+        assertEquals(1, gameCache.stats().getHits());
+        verify(gameRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void testMissLoadsFromRepository() {
+        Game game = newGame();
+        game.setField(new FieldManager(3, 3).fieldToBytes());
+        when(gameRepository.findById(game.getId())).thenReturn(Optional.of(game));
+
+        CachedGame first = gameCache.get(game.getId()).orElseThrow();
+        CachedGame second = gameCache.get(game.getId()).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1, gameCache.stats().getMisses());
+        assertEquals(1, gameCache.stats().getHits());
+        verify(gameRepository, times(1)).findById(game.getId());
+    }
+
+    @Test
+    void testMetadataIsCachedWithoutTheBoard() {
+        UUID gameId = UUID.randomUUID();
+        when(gameRepository.findMetadataById(gameId))
+                .thenReturn(Optional.of(new GameMetadata(gameId, 3, 3, 1, true, 4)));
+
+        GameMetadata first = gameCache.getMetadata(gameId).orElseThrow();
+        GameMetadata second = gameCache.getMetadata(gameId).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1, gameCache.stats().getMetadataMisses());
+        assertEquals(1, gameCache.stats().getMetadataHits());
+        verify(gameRepository, times(1)).findMetadataById(gameId);
+        verify(gameRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void testMetadataOfCachedGameNeedsNoRead() {
+        Game game = newGame();
+        game.setCompleted(true);
+        gameCache.put(game, new FieldManager(3, 3));
+
+        GameMetadata metadata = gameCache.getMetadata(game.getId()).orElseThrow();
+
+        assertTrue(metadata.completed());
+        verify(gameRepository, never()).findMetadataById(any(UUID.class));
+    }
+
+    @Test
+    void testDirtyGamesAreFlushedOnce() {
+        Game game = newGame();
+        CachedGame cached = gameCache.put(game, new FieldManager(3, 3));
+        gameCache.markDirty(cached);
+
+        gameCache.flush();
+        gameCache.flush();
+
+        verify(gameRepository, times(1)).saveAll(List.of(game));
+        assertNotNull(game.getField());
+        assertFalse(cached.isDirty());
+    }
+
+    @Test
+    void testFlushOfOneGameSavesOnlyThatGame() {
+        Game game = newGame();
+        Game other = newGame();
+        CachedGame cached = gameCache.put(game, new FieldManager(3, 3));
+        CachedGame otherCached = gameCache.put(other, new FieldManager(3, 3));
+        gameCache.markDirty(cached);
+        gameCache.markDirty(otherCached);
+
+        gameCache.flush(game.getId());
+        gameCache.flush(game.getId());
+
+        verify(gameRepository, times(1)).saveAll(List.of(game));
+        assertFalse(cached.isDirty());
+        assertTrue(otherCached.isDirty());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        Game first = newGame();
+        Game second = newGame();
+        Game third = newGame();
+        gameCache.put(first, new FieldManager(3, 3));
+        gameCache.put(second, new FieldManager(3, 3));
+        gameCache.get(first.getId());
+
+        gameCache.put(third, new FieldManager(3, 3));
+
+        CacheStatsResponse stats = gameCache.stats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+        when(gameRepository.findById(second.getId())).thenReturn(Optional.empty());
+        assertFalse(gameCache.get(second.getId()).isPresent());
+    }
+
+    @Test
+    void testEvictedDirtyGameIsServedUntilFlushed() {
+        Game first = newGame();
+        CachedGame cached = gameCache.put(first, new FieldManager(3, 3));
+        gameCache.markDirty(cached);
+        gameCache.put(newGame(), new FieldManager(3, 3));
+        gameCache.put(newGame(), new FieldManager(3, 3));
+
+        assertSame(cached, gameCache.get(first.getId()).orElseThrow());
+        verify(gameRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void testGameEvictedDuringFailedSaveIsKeptAndSavedLater() {
+        Game game = newGame();
+        CachedGame cached = gameCache.put(game, new FieldManager(3, 3));
+        gameCache.markDirty(cached);
+        when(gameRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            // turns on other games evict this one while its save is running
+            gameCache.put(newGame(), new FieldManager(3, 3));
+            gameCache.put(newGame(), new FieldManager(3, 3));
+            throw new IllegalStateException("database unavailable");
+        });
+
+        gameCache.flush();
+
+        assertEquals(1, gameCache.stats().getPendingEvicted());
+        assertTrue(cached.isDirty());
+        assertSame(cached, gameCache.get(game.getId()).orElseThrow());
+        verify(gameRepository, never()).findById(any(UUID.class));
+
+        doAnswer(invocation -> invocation.getArgument(0)).when(gameRepository).saveAll(anyList());
+        gameCache.flush();
+
+        verify(gameRepository, times(2)).saveAll(List.of(game));
+        assertFalse(cached.isDirty());
+    }
+
+    @Test
+    void testIdleGamesAreEvictedOnFlush() {
+        ReflectionTestUtils.setField(gameCache, "idleTimeout", Duration.ZERO);
+        Game game = newGame();
+        CachedGame cached = gameCache.put(game, new FieldManager(3, 3));
+        gameCache.markDirty(cached);
+        ReflectionTestUtils.setField(cached, "lastAccess", 0L);
+
+        gameCache.flush();
+
+        assertEquals(0, gameCache.stats().getSize());
+        assertEquals(0, gameCache.stats().getPendingEvicted());
+        verify(gameRepository).saveAll(anyList());
+    }
+
+    @Test
+    void testDisabledCacheWritesThrough() {
+        GameCache writeThrough = new GameCache(new BlobGameStore(gameRepository), false, 0);
+        Game game = newGame();
+        CachedGame cached = writeThrough.put(game, new FieldManager(3, 3));
+
+        writeThrough.markDirty(cached);
+
+        verify(gameRepository).saveAll(List.of(game));
+        assertEquals(0, writeThrough.stats().getSize());
+    }
+
+    private Game newGame() {
+        Game game = Game.builder().height(3).width(3).build();
+        ReflectionTestUtils.setField(game, "id", UUID.randomUUID());
+        return game;
+    }
+}
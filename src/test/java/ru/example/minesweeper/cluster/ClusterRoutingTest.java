@@ -0,0 +1,237 @@
+package ru.example.minesweeper.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.example.minesweeper.MinesweeperApplication;
+import ru.example.minesweeper.cache.GameCache;
+import ru.example.minesweeper.services.GameArchiver;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two instances on one machine sharing one database.
+ */
+class ClusterRoutingTest {
+
+    private static final String NEW_GAME = "{\"height\": 9, \"width\": 9, \"mines_count\": 10}";
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String SECRET = "cluster-test-secret";
+
+    private static String first;
+    private static String second;
+    private static String firstManagement;
+    private static String secondManagement;
+    private static ConfigurableApplicationContext firstContext;
+    private static ConfigurableApplicationContext secondContext;
+
+    @BeforeAll
+    static void startInstances() throws IOException {
+        int firstPort = freePort();
+        int secondPort = freePort();
+        int firstManagementPort = freePort();
+        int secondManagementPort = freePort();
+        first = "http://localhost:" + firstPort;
+        second = "http://localhost:" + secondPort;
+        firstManagement = "http://localhost:" + firstManagementPort;
+        secondManagement = "http://localhost:" + secondManagementPort;
+        firstContext = start(firstPort, firstManagementPort, first);
+        secondContext = start(secondPort, secondManagementPort, second);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        secondContext.close();
+        firstContext.close();
+    }
+
+    @AfterEach
+    void restoreMembers() throws Exception {
+        setMembers(firstManagement, first, second);
+        setMembers(secondManagement, first, second);
+    }
+
+    @Test
+    void testTurnIsForwardedToOwnerAndOwnershipHandsOff() throws Exception {
+        UUID gameId = createGameOwnedBy(second);
+
+        HttpResponse<String> turn = post(first + "/api/turn",
+                "{\"game_id\": \"" + gameId + "\", \"row\": 0, \"col\": 0, \"action\": \"FLAG\"}");
+
+        assertEquals(200, turn.statusCode());
+        assertEquals(gameId.toString(), objectMapper.readTree(turn.body()).get("game_id").asText());
+        assertTrue(cache(secondContext).contains(gameId));
+        assertFalse(cache(firstContext).contains(gameId));
+
+        assertEquals(200, setMembers(firstManagement, first).statusCode());
+        assertEquals(200, setMembers(secondManagement, first).statusCode());
+
+        assertFalse(cache(secondContext).contains(gameId));
+        JdbcTemplate jdbcTemplate = firstContext.getBean(JdbcTemplate.class);
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT board_version FROM games WHERE id = ?", Long.class, gameId));
+
+        HttpResponse<String> unflag = post(first + "/api/turn",
+                "{\"game_id\": \"" + gameId + "\", \"row\": 0, \"col\": 0, \"action\": \"UNFLAG\"}");
+
+        assertEquals(200, unflag.statusCode(), unflag.body());
+        assertTrue(cache(firstContext).contains(gameId));
+    }
+
+    @Test
+    void testForwardedTurnOnNonOwnerIsNotKeptInCache() throws Exception {
+        UUID gameId = createGameOwnedBy(second);
+        // the second instance now routes the game to the first, which still sees the second as owner
+        setMembers(secondManagement, first);
+
+        HttpResponse<String> turn = post(second + "/api/turn",
+                "{\"game_id\": \"" + gameId + "\", \"row\": 0, \"col\": 0, \"action\": \"FLAG\"}");
+
+        assertEquals(200, turn.statusCode(), turn.body());
+        assertFalse(cache(firstContext).contains(gameId));
+        assertFalse(cache(secondContext).contains(gameId));
+        JdbcTemplate jdbcTemplate = firstContext.getBean(JdbcTemplate.class);
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT board_version FROM games WHERE id = ?", Long.class, gameId));
+    }
+
+    /**
+     * The owner's cache is invisible to the other instance, whose archiver must not move the game
+     * away under it; the owner's next save would then find no row and drop the turns it holds.
+     */
+    @Test
+    void testNonOwnerDoesNotArchiveGameCachedByOwner() throws Exception {
+        UUID gameId = createGameOwnedBy(second);
+        HttpResponse<String> turn = post(second + "/api/turn",
+                "{\"game_id\": \"" + gameId + "\", \"row\": 0, \"col\": 0, \"action\": \"FLAG\"}");
+        assertEquals(200, turn.statusCode(), turn.body());
+        assertTrue(cache(secondContext).contains(gameId));
+        JdbcTemplate jdbcTemplate = firstContext.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE games SET completed = true, updated_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(365))), gameId);
+
+        firstContext.getBean(GameArchiver.class).run();
+
+        assertTrue(cache(secondContext).contains(gameId));
+        cache(secondContext).flush();
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT board_version FROM games WHERE id = ?", Long.class, gameId));
+    }
+
+    @Test
+    void testForwardedHeaderFromClientIsNotTrusted() throws Exception {
+        UUID gameId = createGameOwnedBy(second);
+
+        HttpResponse<String> turn = client.send(HttpRequest.newBuilder()
+                        .uri(URI.create(first + "/api/turn"))
+                        .header("Content-Type", "application/json")
+                        .header(GameRoutingAdvice.FORWARDED_HEADER, second)
+                        .header(GameRoutingAdvice.SECRET_HEADER, "guessed")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"game_id\": \"" + gameId + "\", \"row\": 0, \"col\": 0, \"action\": \"FLAG\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(307, turn.statusCode());
+        assertEquals(second + "/api/turn", turn.headers().firstValue("Location").orElseThrow());
+        assertFalse(cache(firstContext).contains(gameId));
+    }
+
+    @Test
+    void testMembersCannotBeChangedOnPublicPort() throws Exception {
+        assertEquals(404, setMembers(first, first).statusCode());
+        assertEquals(List.of(first, second), ownership(firstContext).state().getMembers());
+    }
+
+    @Test
+    void testEventStreamIsRedirectedToOwner() throws Exception {
+        UUID gameId = createGameOwnedBy(second);
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                        .uri(URI.create(first + "/api/games/" + gameId + "/events"))
+                        .timeout(Duration.ofSeconds(5))
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(307, response.statusCode());
+        assertEquals(second + "/api/games/" + gameId + "/events", response.headers().firstValue("Location").orElseThrow());
+    }
+
+    private static UUID createGameOwnedBy(String owner) throws Exception {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(first, second), 128);
+        while (true) {
+            JsonNode game = objectMapper.readTree(post(first + "/api/new", NEW_GAME).body());
+            UUID gameId = UUID.fromString(game.get("game_id").asText());
+            if (ring.ownerOf(gameId).equals(owner)) {
+                return gameId;
+            }
+        }
+    }
+
+    private static GameCache cache(ConfigurableApplicationContext context) {
+        return context.getBean(GameCache.class);
+    }
+
+    private static GameOwnership ownership(ConfigurableApplicationContext context) {
+        return context.getBean(GameOwnership.class);
+    }
+
+    private static HttpResponse<String> setMembers(String management, String... members) throws Exception {
+        return post(management + "/actuator/cluster",
+                objectMapper.writeValueAsString(Map.of("members", String.join(",", members))));
+    }
+
+    private static HttpResponse<String> post(String url, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder()
+                        .uri(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static ConfigurableApplicationContext start(int port, int managementPort, String self) {
+        return new SpringApplicationBuilder(MinesweeperApplication.class).run(
+                "--server.port=" + port,
+                "--management.server.port=" + managementPort,
+                "--management.endpoints.web.exposure.include=cluster",
+                "--spring.datasource.url=jdbc:h2:mem:cluster_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--minefield.archive.enabled=false",
+                "--minefield.cluster.enabled=true",
+                "--minefield.cluster.self=" + self,
+                "--minefield.cluster.members=" + first + "," + second,
+                "--minefield.cluster.secret=" + SECRET);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.example.minesweeper.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int GAMES = 30_000;
+
+    @Test
+    void testGamesAreSpreadEvenly() {
+        List<String> members = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+        ConsistentHashRing ring = new ConsistentHashRing(members, 128);
+
+        Map<String, Integer> owned = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < GAMES; i++) {
+            owned.merge(ring.ownerOf(new UUID(random.nextLong(), random.nextLong())), 1, Integer::sum);
+        }
+
+        assertEquals(members.size(), owned.size());
+        for (int count : owned.values()) {
+            assertTrue(Math.abs(count - GAMES / 3) < GAMES / 3 * 0.2, "Uneven share: " + owned);
+        }
+    }
+
+    @Test
+    void testAddingAMemberOnlyMovesGamesToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("http://a:8080", "http://b:8080"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("http://a:8080", "http://b:8080", "http://c:8080"), 128);
+
+        int moved = 0;
+        Random random = new Random(2);
+        for (int i = 0; i < GAMES; i++) {
+            UUID gameId = new UUID(random.nextLong(), random.nextLong());
+            String owner = after.ownerOf(gameId);
+            if (!owner.equals(before.ownerOf(gameId))) {
+                assertEquals("http://c:8080", owner);
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - GAMES / 3) < GAMES / 3 * 0.2, "Moved: " + moved);
+    }
+
+    @Test
+    void testOwnerDoesNotDependOnMemberOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("http://a:8080", "http://b:8080"), 64);
+        ConsistentHashRing reversed = new ConsistentHashRing(List.of("http://b:8080", "http://a:8080"), 64);
+
+        for (int i = 0; i < 1000; i++) {
+            UUID gameId = UUID.randomUUID();
+            assertEquals(ring.ownerOf(gameId), reversed.ownerOf(gameId));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.example.minesweeper.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.persistence.GameArchive;
+import ru.example.minesweeper.persistence.GameStore;
+import ru.example.minesweeper.persistence.GameWriter;
+import ru.example.minesweeper.persistence.MappedGameStore;
+import ru.example.minesweeper.services.GameArchiver;
+import ru.example.minesweeper.services.GameService;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The mapped mode keeps games in a local file and must start without a database.
+ */
+@SpringBootTest(properties = {
+        "minefield.persistence.mode=mapped",
+        "spring.datasource.url=",
+        "spring.datasource.driverClassName="
+})
+@DirtiesContext
+class PersistenceConfigTest {
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private GameService gameService;
+
+    @DynamicPropertySource
+    static void mappedPath(DynamicPropertyRegistry registry) {
+        registry.add("minefield.persistence.mapped.path", () -> directory.resolve("games.db").toString());
+    }
+
+    @Test
+    void testMappedModeStartsWithoutDatasource() {
+        for (Class<?> type : new Class<?>[]{DataSource.class, EntityManagerFactory.class, JdbcTemplate.class,
+                GameWriter.class, GameArchive.class, GameArchiver.class}) {
+            assertTrue(context.getBeanNamesForType(type).length == 0, type.getSimpleName());
+        }
+        assertInstanceOf(MappedGameStore.class, context.getBean(GameStore.class));
+
+        NewGameRequest newGameRequest = new NewGameRequest();
+        newGameRequest.setHeight(9);
+        newGameRequest.setWidth(9);
+        newGameRequest.setMinesCount(10);
+        GameInfoResponse game = gameService.createGame(newGameRequest);
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(game.getGameId());
+        turnRequest.setRow(0);
+        turnRequest.setCol(0);
+        GameInfoResponse turn = gameService.gameTurn(turnRequest);
+
+        assertEquals(game.getGameId(), turn.getGameId());
+        assertEquals(1, turn.getVersion());
+    }
+}
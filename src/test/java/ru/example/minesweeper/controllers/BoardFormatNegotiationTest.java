@@ -0,0 +1,81 @@
+package ru.example.minesweeper.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.example.minesweeper.dto.BoardFormat;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BoardFormatNegotiationTest {
+
+    private static final String NEW_GAME = "{\"height\": 9, \"width\": 9, \"mines_count\": 10}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testJsonMatrixIsTheDefault() throws Exception {
+        mockMvc.perform(post("/api/new").contentType(MediaType.APPLICATION_JSON).content(NEW_GAME))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.field", hasSize(9)))
+                .andExpect(jsonPath("$.rows").doesNotExist());
+    }
+
+    @Test
+    void testRowsFormat() throws Exception {
+        mockMvc.perform(post("/api/new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BoardFormat.ROWS.getMediaType())
+                        .content(NEW_GAME))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows", hasSize(9)))
+                .andExpect(jsonPath("$.rows[0]").value("         "))
+                .andExpect(jsonPath("$.field").doesNotExist());
+    }
+
+    @Test
+    void testRleFormat() throws Exception {
+        mockMvc.perform(post("/api/new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BoardFormat.RLE.getMediaType())
+                        .content(NEW_GAME))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.field_rle").value(" 81"));
+    }
+
+    @Test
+    void testPackedFormat() throws Exception {
+        byte[] body = mockMvc.perform(post("/api/new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(PackedBoardConverter.MEDIA_TYPE)
+                        .content(NEW_GAME))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PackedBoardConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        assertEquals(PackedBoardConverter.FORMAT_VERSION, buffer.get());
+        buffer.getLong();
+        buffer.getLong();
+        assertEquals(9, buffer.getInt());
+        assertEquals(9, buffer.getInt());
+        assertEquals(10, buffer.getInt());
+        assertEquals(0, buffer.get());
+        assertEquals(0L, buffer.getLong());
+        assertEquals(PackedBoardConverter.KIND_BOARD, buffer.get());
+        assertEquals(41, buffer.remaining());
+    }
+}
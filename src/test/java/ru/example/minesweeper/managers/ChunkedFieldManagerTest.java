@@ -0,0 +1,240 @@
+package ru.example.minesweeper.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.FieldCell;
+import ru.example.minesweeper.model.FieldCellValueEnum;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedFieldManagerTest {
+
+    @Test
+    void testMinesCountIsExact() {
+        int height = 150;
+        int width = 200;
+        int minesCount = 4321;
+        ChunkedFieldManager manager = new ChunkedFieldManager(height, width, minesCount, 11L);
+
+        assertEquals(minesCount, countMines(manager));
+    }
+
+    @Test
+    void testLayoutIsDeterministicPerSeed() {
+        ChunkedFieldManager first = new ChunkedFieldManager(130, 130, 2000, 5L);
+        ChunkedFieldManager second = new ChunkedFieldManager(130, 130, 2000, 5L);
+        ChunkedFieldManager other = new ChunkedFieldManager(130, 130, 2000, 6L);
+
+        boolean differs = false;
+        for (int i = 129; i >= 0; i--) {
+            for (int j = 0; j < 130; j++) {
+                assertEquals(first.isMine(i, j), second.isMine(i, j));
+                differs |= first.isMine(i, j) != other.isMine(i, j);
+            }
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    void testRevealMatchesDenseBoardAcrossChunkBorders() {
+        int height = 140;
+        int width = 190;
+        ChunkedFieldManager chunked = new ChunkedFieldManager(height, width, 1500, 3L);
+        FieldManager dense = toDense(chunked);
+
+        int[] start = findZeroCell(dense);
+        chunked.revealCell(start[0], start[1]);
+        dense.revealCell(start[0], start[1]);
+
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                assertEquals(dense.isRevealed(i, j), chunked.isRevealed(i, j));
+                assertEquals(dense.getSymbol(i, j), chunked.getSymbol(i, j));
+            }
+        }
+        assertEquals(dense.getRevealedSafeCells(), chunked.getRevealedSafeCells());
+        assertEquals(chunked.getRevealedSafeCells(), chunked.getChangedCellsCount());
+    }
+
+    @Test
+    void testRoundTripPersistsOnlyTouchedChunks() {
+        ChunkedFieldManager manager = new ChunkedFieldManager(100_000, 100_000, 1_000_000_000, 42L);
+        manager.revealCell(10, 10);
+        manager.revealCell(99_999, 99_999);
+
+        byte[] encoded = manager.fieldToBytes();
+        ChunkedFieldManager decoded = assertInstanceOf(ChunkedFieldManager.class, Minefield.decode(encoded));
+
+        assertTrue(manager.getMaterializedChunks() <= 4);
+        assertTrue(encoded.length < 4 * 1024);
+        assertEquals(manager.getRevealedSafeCells(), decoded.getRevealedSafeCells());
+        assertTrue(decoded.isRevealed(10, 10));
+        assertTrue(decoded.isRevealed(99_999, 99_999));
+        assertFalse(decoded.isRevealed(50_000, 50_000));
+        assertEquals(manager.getSymbol(10, 10), decoded.getSymbol(10, 10));
+    }
+
+    @Test
+    void testRoundTripKeepsFlags() {
+        ChunkedFieldManager manager = new ChunkedFieldManager(100_000, 100_000, 1_000_000_000, 42L);
+        manager.revealCell(10, 10);
+        manager.setFlagged(70_000, 70_000, true);
+        byte[] withoutFlags = new ChunkedFieldManager(100_000, 100_000, 1_000_000_000, 42L).fieldToBytes();
+
+        ChunkedFieldManager decoded = ChunkedFieldManager.decode(manager.fieldToBytes());
+
+        assertTrue(decoded.isFlagged(70_000, 70_000));
+        assertFalse(decoded.isFlagged(10, 10));
+        assertEquals(FieldCellValueEnum.FLAG, decoded.getSymbol(70_000, 70_000));
+        assertFalse(ChunkedFieldManager.decode(withoutFlags).isFlagged(70_000, 70_000));
+    }
+
+    @Test
+    void testRevealAllMinesListsTouchedChunksOnly() {
+        ChunkedFieldManager manager = new ChunkedFieldManager(1000, 1000, 100_000, 9L);
+        manager.revealCell(findSafeCell(manager)[0], findSafeCell(manager)[1]);
+        manager.clearChanges();
+
+        manager.revealAllMines(FieldCellValueEnum.OPENED_MINE);
+
+        assertTrue(manager.getChangedCellsCount() > 0);
+        assertTrue(manager.getChangedCellsCount() < 100_000);
+        for (int i = 0; i < manager.getChangedCellsCount(); i++) {
+            assertTrue(manager.isMine(manager.getChangedRow(i), manager.getChangedCol(i)));
+        }
+    }
+
+    @Test
+    void testExplosionInUntouchedChunkIsListed() {
+        ChunkedFieldManager manager = new ChunkedFieldManager(1000, 1000, 100_000, 9L);
+        int[] mine = findMine(manager);
+
+        assertEquals(TurnOutcomeEnum.EXPLODED, manager.applyTurn(mine[0], mine[1]));
+
+        boolean listed = false;
+        for (int i = 0; i < manager.getChangedCellsCount(); i++) {
+            listed |= manager.getChangedRow(i) == mine[0] && manager.getChangedCol(i) == mine[1];
+        }
+        assertTrue(listed);
+        assertEquals(FieldCellValueEnum.OPENED_MINE, manager.getSymbol(mine[0], mine[1]));
+    }
+
+    @Test
+    void testCascadeOnSparseBoardIsBoundedPerTurn() {
+        ChunkedFieldManager manager = assertInstanceOf(ChunkedFieldManager.class,
+                Minefield.create(20_000, 20_000, 4000, 1L, true));
+
+        assertEquals(TurnOutcomeEnum.OPENED, manager.applyTurn(10_000, 10_000));
+
+        long opened = manager.getRevealedSafeCells();
+        assertEquals(ChunkedFieldManager.MAX_CASCADE_CELLS, opened);
+        assertEquals(opened, manager.getChangedCellsCount());
+        assertTrue(manager.getLoadedChunks() < manager.getMaterializedChunks());
+
+        int[] edge = findHiddenNextToOpenedZero(manager);
+        manager.clearChanges();
+        manager.applyTurn(edge[0], edge[1]);
+
+        assertTrue(manager.getRevealedSafeCells() > opened);
+        assertTrue(manager.getChangedCellsCount() <= ChunkedFieldManager.MAX_CASCADE_CELLS);
+    }
+
+    @Test
+    void testClearedChunksRoundTrip() {
+        ChunkedFieldManager manager = new ChunkedFieldManager(20_000, 20_000, 4000, 1L);
+        manager.applyTurn(10_000, 10_000);
+
+        ChunkedFieldManager decoded = ChunkedFieldManager.decode(manager.fieldToBytes());
+
+        assertEquals(manager.getRevealedSafeCells(), decoded.getRevealedSafeCells());
+        assertEquals(manager.getMaterializedChunks(), decoded.getMaterializedChunks());
+        for (int i = 9_900; i < 10_100; i++) {
+            for (int j = 9_900; j < 10_100; j++) {
+                assertEquals(manager.isRevealed(i, j), decoded.isRevealed(i, j));
+                assertEquals(manager.getSymbol(i, j), decoded.getSymbol(i, j));
+            }
+        }
+    }
+
+    @Test
+    void testDecodeCorruptMineSymbol() {
+        byte[] data = new ChunkedFieldManager(1000, 1000, 100, 9L).fieldToBytes();
+        data[1] = (byte) 0x80;
+
+        MinefieldException ex = assertThrows(MinefieldException.class, () -> ChunkedFieldManager.decode(data));
+        assertEquals("Corrupt board", ex.getMessage());
+    }
+
+    private int[] findHiddenNextToOpenedZero(ChunkedFieldManager manager) {
+        for (int i = 9_600; i < 10_400; i++) {
+            for (int j = 9_601; j < 10_400; j++) {
+                if (!manager.isRevealed(i, j) && manager.isRevealed(i, j - 1) && manager.getNearbyMines(i, j - 1) == 0) {
+                    return new int[]{i, j};
+                }
+            }
+        }
+        throw new IllegalStateException("No hidden cell");
+    }
+
+    private int[] findMine(ChunkedFieldManager manager) {
+        for (int i = 500; i < manager.getHeight(); i++) {
+            for (int j = 500; j < manager.getWidth(); j++) {
+                if (manager.isMine(i, j)) {
+                    return new int[]{i, j};
+                }
+            }
+        }
+        throw new IllegalStateException("No mine");
+    }
+
+    private int countMines(ChunkedFieldManager manager) {
+        int count = 0;
+        for (int i = 0; i < manager.getHeight(); i++) {
+            for (int j = 0; j < manager.getWidth(); j++) {
+                if (manager.isMine(i, j)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private FieldManager toDense(ChunkedFieldManager chunked) {
+        FieldManager layout = new FieldManager(chunked.getHeight(), chunked.getWidth());
+        FieldCell[][] field = layout.getField();
+        for (int i = 0; i < chunked.getHeight(); i++) {
+            for (int j = 0; j < chunked.getWidth(); j++) {
+                field[i][j].setMine(chunked.isMine(i, j));
+            }
+        }
+        return new FieldManager(layout.fieldToBytes());
+    }
+
+    private int[] findZeroCell(FieldManager manager) {
+        for (int i = 0; i < manager.getHeight(); i++) {
+            for (int j = 0; j < manager.getWidth(); j++) {
+                FieldCell cell = manager.getField()[i][j];
+                if (!cell.isMine() && cell.getNearbyMine() == 0) {
+                    return new int[]{i, j};
+                }
+            }
+        }
+        throw new IllegalStateException("No zero cell");
+    }
+
+    private int[] findSafeCell(ChunkedFieldManager manager) {
+        for (int i = 0; i < manager.getHeight(); i++) {
+            for (int j = 0; j < manager.getWidth(); j++) {
+                if (!manager.isMine(i, j)) {
+                    return new int[]{i, j};
+                }
+            }
+        }
+        throw new IllegalStateException("No safe cell");
+    }
+}
@@ -0,0 +1,125 @@
+package ru.example.minesweeper.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.FieldCell;
+import ru.example.minesweeper.model.FieldCellValueEnum;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldCodecTest {
+
+    @Test
+    void testRoundTrip() {
+        FieldManager manager = new FieldManager(7, 11);
+        manager.placeMines(15);
+        openSafeCellsOfFirstRows(manager, 3);
+
+        FieldCell[][] decoded = FieldCodec.decode(manager.fieldToBytes());
+
+        assertSameBoard(manager.getField(), decoded);
+    }
+
+    @Test
+    void testRoundTripKeepsMineSymbol() {
+        FieldManager manager = new FieldManager(5, 5);
+        manager.placeMines(5);
+        manager.revealAllMines(FieldCellValueEnum.OPENED_MINE);
+
+        FieldCell[][] decoded = FieldCodec.decode(manager.fieldToBytes());
+
+        assertSameBoard(manager.getField(), decoded);
+    }
+
+    @Test
+    void testRoundTripKeepsFlags() {
+        FieldManager manager = new FieldManager(6, 6);
+        manager.placeMines(8, 3L);
+        manager.setFlagged(0, 0, true);
+        manager.setFlagged(5, 5, true);
+
+        FieldManager decoded = new FieldManager(manager.fieldToBytes());
+
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                assertEquals(manager.isFlagged(i, j), decoded.isFlagged(i, j));
+            }
+        }
+        assertEquals(FieldCellValueEnum.FLAG, decoded.getSymbol(5, 5));
+    }
+
+    @Test
+    void testEncodedSize() {
+        FieldManager manager = new FieldManager(30, 30);
+        manager.placeMines(150);
+
+        byte[] encoded = manager.fieldToBytes();
+
+        assertEquals(FieldCodec.HEADER_SIZE + 450, encoded.length);
+        assertTrue(encoded.length * 20 < manager.fieldToString().length());
+    }
+
+    @Test
+    void testDecodeLegacyJson() {
+        FieldManager manager = new FieldManager(4, 6);
+        manager.placeMines(6);
+        openSafeCellsOfFirstRows(manager, 2);
+        byte[] legacy = manager.fieldToString().getBytes(StandardCharsets.UTF_8);
+
+        FieldCell[][] decoded = FieldCodec.decode(legacy);
+
+        assertSameBoard(manager.getField(), decoded);
+    }
+
+    @Test
+    void testDecodeUnknownVersion() {
+        MinefieldException minefieldException = assertThrows(
+                MinefieldException.class,
+                () -> FieldCodec.decode(new byte[]{42, 0, 0, 0})
+        );
+        assertEquals("Unsupported field format version: 42", minefieldException.getMessage());
+    }
+
+    @Test
+    void testDecodeCorruptMineSymbol() {
+        byte[] data = FieldCodec.encode(new FieldManager(3, 3).getField());
+        data[1] = (byte) 0xF0;
+
+        MinefieldException minefieldException = assertThrows(
+                MinefieldException.class,
+                () -> FieldCodec.decode(data)
+        );
+        assertEquals("Corrupt board", minefieldException.getMessage());
+    }
+
+    private void openSafeCellsOfFirstRows(FieldManager manager, int rows) {
+        FieldCell[][] field = manager.getField();
+        for (int i = 0; i < rows; i++) {
+            for (FieldCell cell : field[i]) {
+                if (!cell.isMine()) {
+                    cell.setRevealed(true);
+                    cell.setDisplayingSymbol(FieldCellValueEnum.fromSymbol(String.valueOf(cell.getNearbyMine())));
+                }
+            }
+        }
+    }
+
+    private void assertSameBoard(FieldCell[][] expected, FieldCell[][] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].length, actual[i].length);
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals(expected[i][j].isMine(), actual[i][j].isMine());
+                assertEquals(expected[i][j].isRevealed(), actual[i][j].isRevealed());
+                assertEquals(expected[i][j].getDisplayingSymbol(), actual[i][j].getDisplayingSymbol());
+                if (!expected[i][j].isMine()) {
+                    assertEquals(expected[i][j].getNearbyMine(), actual[i][j].getNearbyMine());
+                }
+            }
+        }
+    }
+}
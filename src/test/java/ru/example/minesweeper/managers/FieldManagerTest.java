@@ -2,11 +2,18 @@ package ru.example.minesweeper.managers;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import ru.example.minesweeper.exceptions.MinefieldException;
 import ru.example.minesweeper.model.FieldCell;
 import ru.example.minesweeper.model.FieldCellValueEnum;
+import ru.example.minesweeper.model.TurnActionEnum;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+
+import java.util.Random;
 
 class FieldManagerTest {
 
@@ -36,6 +43,38 @@ class FieldManagerTest {
         checkNeighborCounts(manager.getField());
     }
 
+    @Test
+    void testPlaceMinesIsReproducibleFromSeed() {
+        FieldManager first = new FieldManager(16, 30);
+        FieldManager second = new FieldManager(16, 30);
+
+        first.placeMines(99, 123L);
+        second.placeMines(99, 123L);
+
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 30; j++) {
+                assertEquals(first.getField()[i][j].isMine(), second.getField()[i][j].isMine());
+            }
+        }
+    }
+
+    @Test
+    void testPlaceMinesAtAnyDensity() {
+        int height = 9;
+        int width = 9;
+        int[] densities = {0, 1, 40, 41, 70, 80};
+
+        for (int minesCount : densities) {
+            FieldManager manager = new FieldManager(height, width);
+
+            manager.placeMines(minesCount, minesCount);
+
+            assertEquals(minesCount, countMines(manager.getField()));
+            assertEquals(minesCount, manager.getMinesCount());
+            checkNeighborCounts(manager.getField());
+        }
+    }
+
     private int countMines(FieldCell[][] field) {
         int count = 0;
         for (FieldCell[] row : field) {
@@ -96,6 +135,84 @@ class FieldManagerTest {
         }
     }
 
+    @Test
+    void testFieldViewReadsAndWritesBoardState() {
+        FieldManager manager = boardWithMines(3, 3, new int[]{1, 1});
+        FieldCell[][] field = manager.getField();
+
+        assertEquals(1, field[0][0].getNearbyMine());
+        assertTrue(field[1][1].isMine());
+
+        manager.revealCell(0, 0);
+        assertTrue(field[0][0].isRevealed());
+        assertEquals(FieldCellValueEnum.ONE, field[0][0].getDisplayingSymbol());
+
+        field[2][2].setFlagged(true);
+        assertTrue(manager.isFlagged(2, 2));
+        assertEquals(FieldCellValueEnum.FLAG, manager.getSymbol(2, 2));
+        assertEquals(FieldCellValueEnum.EMPTY, field[2][2].getDisplayingSymbol());
+    }
+
+    @Test
+    void testFlagAndUnflag() {
+        FieldManager manager = boardWithMines(3, 3, new int[]{0, 0});
+
+        assertEquals(TurnOutcomeEnum.FLAGGED, manager.applyAction(TurnActionEnum.FLAG, 0, 0));
+        assertEquals(FieldCellValueEnum.FLAG, manager.getSymbol(0, 0));
+        assertThrows(MinefieldException.class, () -> manager.applyAction(TurnActionEnum.FLAG, 0, 0));
+        assertThrows(MinefieldException.class, () -> manager.applyAction(TurnActionEnum.REVEAL, 0, 0));
+
+        assertEquals(TurnOutcomeEnum.UNFLAGGED, manager.applyAction(TurnActionEnum.UNFLAG, 0, 0));
+        assertEquals(FieldCellValueEnum.EMPTY, manager.getSymbol(0, 0));
+        assertThrows(MinefieldException.class, () -> manager.applyAction(TurnActionEnum.UNFLAG, 0, 0));
+    }
+
+    @Test
+    void testCascadeSkipsFlaggedCells() {
+        FieldManager manager = boardWithMines(5, 5, new int[]{4, 4});
+        manager.applyAction(TurnActionEnum.FLAG, 0, 4);
+
+        manager.applyAction(TurnActionEnum.REVEAL, 0, 0);
+
+        assertFalse(manager.isRevealed(0, 4));
+        assertTrue(manager.isFlagged(0, 4));
+        assertFalse(manager.isGameComplete());
+    }
+
+    @Test
+    void testChordOpensUnflaggedNeighbours() {
+        FieldManager manager = boardWithMines(3, 3, new int[]{0, 0}, new int[]{2, 2});
+        manager.applyAction(TurnActionEnum.REVEAL, 1, 1);
+        manager.applyAction(TurnActionEnum.FLAG, 0, 0);
+
+        assertThrows(MinefieldException.class, () -> manager.applyAction(TurnActionEnum.CHORD, 1, 1));
+
+        manager.applyAction(TurnActionEnum.FLAG, 2, 2);
+        manager.clearChanges();
+
+        assertEquals(TurnOutcomeEnum.WON, manager.applyAction(TurnActionEnum.CHORD, 1, 1));
+        assertTrue(manager.getChangedCellsCount() >= 6);
+        assertThrows(MinefieldException.class, () -> manager.applyAction(TurnActionEnum.CHORD, 0, 1));
+    }
+
+    @Test
+    void testChordWithWrongFlagExplodes() {
+        FieldManager manager = boardWithMines(3, 3, new int[]{0, 0});
+        manager.applyAction(TurnActionEnum.REVEAL, 1, 1);
+        manager.applyAction(TurnActionEnum.FLAG, 0, 1);
+
+        assertEquals(TurnOutcomeEnum.EXPLODED, manager.applyAction(TurnActionEnum.CHORD, 1, 1));
+        assertEquals(FieldCellValueEnum.OPENED_MINE, manager.getSymbol(0, 0));
+    }
+
+    private FieldManager boardWithMines(int height, int width, int[]... mines) {
+        FieldManager template = new FieldManager(height, width);
+        for (int[] mine : mines) {
+            template.getField()[mine[0]][mine[1]].setMine(true);
+        }
+        return new FieldManager(template.fieldToBytes());
+    }
+
     @Test
     void testIsGameComplete() {
         int height = 5;
@@ -113,13 +230,55 @@ class FieldManagerTest {
         FieldCell[][] field = manager.getField();
         for (int i = 0; i < field.length; i++) {
             for (int j = 0; j < field[i].length; j++) {
-                if (!field[i][j].isMine()) {
-                    field[i][j].setRevealed(true);
+                if (!field[i][j].isMine() && !field[i][j].isRevealed()) {
+                    manager.revealCell(i, j);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRevealedSafeCellsCounterMatchesFullScan() {
+        Random random = new Random(7);
+
+        for (int game = 0; game < 100; game++) {
+            int height = 1 + random.nextInt(20);
+            int width = 1 + random.nextInt(20);
+            int minesCount = random.nextInt(height * width);
+            FieldManager manager = new FieldManager(height, width);
+            manager.placeMines(minesCount);
+
+            while (!manager.isGameComplete()) {
+                int row = random.nextInt(height);
+                int col = random.nextInt(width);
+                FieldCell cell = manager.getField()[row][col];
+                if (cell.isMine() || cell.isRevealed()) {
+                    continue;
                 }
+
+                manager.revealCell(row, col);
+
+                assertEquals(countRevealedSafeCells(manager.getField()), manager.getRevealedSafeCells());
+                assertEquals(manager.getRevealedSafeCells(),
+                        new FieldManager(manager.fieldToBytes()).getRevealedSafeCells());
             }
+
+            assertEquals(height * width - minesCount, countRevealedSafeCells(manager.getField()));
         }
     }
 
+    private int countRevealedSafeCells(FieldCell[][] field) {
+        int count = 0;
+        for (FieldCell[] row : field) {
+            for (FieldCell cell : row) {
+                if (cell.isRevealed() && !cell.isMine()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     @Test
     void testCascadeOpenCells() {
         int height = 5;
@@ -135,4 +294,87 @@ class FieldManagerTest {
             }
         }
     }
+
+    @Test
+    void testCascadeOpenCellsMatchesRecursiveReveal() {
+        Random random = new Random(42);
+
+        for (int game = 0; game < 200; game++) {
+            int height = 1 + random.nextInt(25);
+            int width = 1 + random.nextInt(25);
+            int minesCount = random.nextInt(height * width);
+            FieldManager manager = new FieldManager(height, width);
+            manager.placeMines(minesCount);
+            FieldManager reference = new FieldManager(manager.fieldToBytes());
+
+            int start = findZeroCell(manager.getField(), random);
+            if (start < 0) {
+                continue;
+            }
+            int row = start / width;
+            int col = start % width;
+
+            int opened = manager.cascadeOpenCells(row, col);
+            recursiveCascade(reference.getField(), row, col);
+
+            int expectedOpened = 0;
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    FieldCell cell = manager.getField()[i][j];
+                    FieldCell expected = reference.getField()[i][j];
+                    assertEquals(expected.isRevealed(), cell.isRevealed());
+                    assertEquals(expected.getDisplayingSymbol(), cell.getDisplayingSymbol());
+                    if (expected.isRevealed()) {
+                        expectedOpened++;
+                    }
+                }
+            }
+            assertEquals(expectedOpened, opened);
+        }
+    }
+
+    @Test
+    void testCascadeOpenCellsOnLargeBoard() {
+        int height = 1000;
+        int width = 1000;
+        FieldManager manager = new FieldManager(height, width);
+        manager.placeMines(0);
+
+        int opened = manager.cascadeOpenCells(0, 0);
+
+        assertEquals(height * width, opened);
+        assertTrue(manager.getField()[height - 1][width - 1].isRevealed());
+    }
+
+    private int findZeroCell(FieldCell[][] field, Random random) {
+        int height = field.length;
+        int width = field[0].length;
+        int offset = random.nextInt(height * width);
+        for (int k = 0; k < height * width; k++) {
+            int index = (offset + k) % (height * width);
+            FieldCell cell = field[index / width][index % width];
+            if (!cell.isMine() && cell.getNearbyMine() == 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private void recursiveCascade(FieldCell[][] field, int row, int col) {
+        for (int i = Math.max(0, row - 1); i <= Math.min(field.length - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(field[i].length - 1, col + 1); j++) {
+                if (field[i][j].isRevealed()) {
+                    continue;
+                }
+                field[i][j].setRevealed(true);
+                field[i][j].setDisplayingSymbol(
+                        FieldCellValueEnum.fromSymbol(String.valueOf(field[i][j].getNearbyMine()))
+                );
+
+                if (field[i][j].getNearbyMine() == 0) {
+                    recursiveCascade(field, i, j);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package ru.example.minesweeper.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinefieldSolverTest {
+
+    private final MinefieldSolver solver = new MinefieldSolver(ForkJoinPool.commonPool(), 24);
+
+    @Test
+    void testSatisfiedNumbersGiveSafeCellsAndMines() {
+        // the opened 1 in the corner has (1, 1) as its only hidden neighbour
+        FieldManager manager = boardWithMines(3, 3, new int[]{1, 1});
+        manager.revealCell(0, 0);
+        manager.revealCell(0, 1);
+        manager.revealCell(0, 2);
+        manager.revealCell(1, 0);
+
+        SolverResult result = solver.solve(manager, deadlineIn(1000));
+
+        assertFalse(result.partial());
+        assertEquals(List.of(new SolverResult.Cell(1, 1, 1)), result.mines());
+        assertTrue(result.safe().contains(new SolverResult.Cell(1, 2, 0)));
+        assertTrue(result.safe().contains(new SolverResult.Cell(2, 0, 0)));
+        assertTrue(result.safe().contains(new SolverResult.Cell(2, 1, 0)));
+        assertTrue(result.frontier().isEmpty());
+    }
+
+    @Test
+    void testDeductionsNeverContradictTheBoard() {
+        for (long seed = 0; seed < 50; seed++) {
+            FieldManager manager = new FieldManager(16, 30);
+            manager.placeMines(99, seed);
+            openFirstZero(manager);
+
+            SolverResult result = solver.solve(manager, deadlineIn(1000));
+
+            for (SolverResult.Cell cell : result.safe()) {
+                assertFalse(manager.isMine(cell.row(), cell.col()));
+            }
+            for (SolverResult.Cell cell : result.mines()) {
+                assertTrue(manager.isMine(cell.row(), cell.col()));
+            }
+            for (SolverResult.Cell cell : result.frontier()) {
+                assertTrue(cell.mineProbability() > 0 && cell.mineProbability() < 1);
+            }
+        }
+    }
+
+    @Test
+    void testFiftyFiftyHasEvenProbabilities() {
+        // a single opened 1 between two hidden cells
+        FieldManager manager = boardWithMines(1, 3, new int[]{0, 0});
+        manager.revealCell(0, 1);
+
+        SolverResult result = solver.solve(manager, deadlineIn(1000));
+
+        assertTrue(result.safe().isEmpty());
+        assertEquals(2, result.frontier().size());
+        assertEquals(0.5, result.frontier().get(0).mineProbability(), 1e-9);
+        assertEquals(0.5, result.frontier().get(1).mineProbability(), 1e-9);
+    }
+
+    @Test
+    void testExpiredDeadlineReturnsPartialResult() {
+        FieldManager manager = new FieldManager(30, 30);
+        manager.placeMines(150, 4L);
+        openFirstZero(manager);
+
+        SolverResult result = solver.solve(manager, System.nanoTime() - 1);
+
+        assertTrue(result.partial());
+    }
+
+    private static long deadlineIn(long millis) {
+        return System.nanoTime() + millis * 1_000_000;
+    }
+
+    private static void openFirstZero(FieldManager manager) {
+        for (int i = 0; i < manager.getHeight(); i++) {
+            for (int j = 0; j < manager.getWidth(); j++) {
+                if (!manager.isMine(i, j) && manager.getNearbyMines(i, j) == 0) {
+                    manager.revealCell(i, j);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static FieldManager boardWithMines(int height, int width, int[]... mines) {
+        FieldManager template = new FieldManager(height, width);
+        for (int[] mine : mines) {
+            template.getField()[mine[0]][mine[1]].setMine(true);
+        }
+        return new FieldManager(template.fieldToBytes());
+    }
+}
@@ -0,0 +1,75 @@
+package ru.example.minesweeper.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.example.minesweeper.dto.NoGuessStatsResponse;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private GameMetrics gameMetrics;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        gameMetrics = new GameMetrics(registry);
+    }
+
+    @Test
+    void testRejectionsAreTaggedByBoundedReason() {
+        gameMetrics.recordRejected(new MinefieldException("There is no Game with id: 0b8f4e1c-0000-0000-0000-000000000000"));
+        gameMetrics.recordRejected(new MinefieldException("There is no Game with id: 5d1a2b3c-0000-0000-0000-000000000000"));
+        gameMetrics.recordRejected(new MinefieldException("Cell already revealed"));
+        gameMetrics.recordRejected(new MinefieldException("Something new"));
+
+        assertEquals(2.0, registry.get("minesweeper.turn.rejected").tag("reason", "game_not_found").counter().count());
+        assertEquals(1.0, registry.get("minesweeper.turn.rejected").tag("reason", "already_revealed").counter().count());
+        assertEquals(1.0, registry.get("minesweeper.turn.rejected").tag("reason", "other").counter().count());
+    }
+
+    @Test
+    void testOutcomesAndCascadeSizes() {
+        gameMetrics.recordOutcome(TurnOutcomeEnum.OPENED, 12);
+        gameMetrics.recordOutcome(TurnOutcomeEnum.WON, 1);
+        gameMetrics.recordOutcome(TurnOutcomeEnum.EXPLODED, 0);
+
+        assertEquals(1.0, registry.get("minesweeper.turn.outcomes").tag("outcome", "won").counter().count());
+        assertEquals(1.0, registry.get("minesweeper.turn.outcomes").tag("outcome", "exploded").counter().count());
+        assertEquals(2, registry.get("minesweeper.cascade.cells").summary().count());
+        assertEquals(13.0, registry.get("minesweeper.cascade.cells").summary().totalAmount());
+    }
+
+    @Test
+    void testPhaseTimersChain() {
+        long start = System.nanoTime();
+        long next = gameMetrics.recordPhase(GamePhase.COMPUTE, start);
+        gameMetrics.recordPhase(GamePhase.SAVE, next);
+
+        assertEquals(1, registry.get("minesweeper.game.phase").tag("phase", "compute").timer().count());
+        assertEquals(1, registry.get("minesweeper.game.phase").tag("phase", "save").timer().count());
+    }
+
+    @Test
+    void testNoGuessStatsPerSizeClass() {
+        long start = System.nanoTime();
+        gameMetrics.recordNoGuess(9, 9, true, 3, start);
+        gameMetrics.recordNoGuess(9, 9, true, 5, start);
+        gameMetrics.recordNoGuess(9, 9, false, 40, start);
+        gameMetrics.recordNoGuess(16, 30, true, 12, start);
+
+        assertEquals(2, gameMetrics.noGuessStats().size());
+        NoGuessStatsResponse beginner = gameMetrics.noGuessStats().get(0);
+        assertEquals("beginner", beginner.getSize());
+        assertEquals(2, beginner.getGenerated());
+        assertEquals(1, beginner.getFailed());
+        assertEquals(1.0 / 3, beginner.getFailureRate(), 1e-9);
+        assertEquals(16.0, beginner.getAvgCandidates(), 1e-9);
+        assertEquals(1, registry.get("minesweeper.noguess.generate")
+                .tag("size", "expert").tag("result", "generated").timer().count());
+    }
+}
@@ -0,0 +1,40 @@
+package ru.example.minesweeper.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testGameMetricsAreScraped() throws Exception {
+        mockMvc.perform(post("/api/new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"height\": 9, \"width\": 9, \"mines_count\": 10}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("minesweeper_game_create_seconds_count")))
+                .andExpect(content().string(containsString("minesweeper_game_phase_seconds_count{phase=\"generate\"")))
+                .andExpect(content().string(containsString("minesweeper_board_bytes_count")))
+                .andExpect(content().string(containsString("minesweeper_games_active")))
+                .andExpect(content().string(containsString("minesweeper_cache_hits_total")));
+    }
+}
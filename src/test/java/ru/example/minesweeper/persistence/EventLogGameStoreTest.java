@@ -0,0 +1,177 @@
+package ru.example.minesweeper.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMove;
+import ru.example.minesweeper.model.TurnActionEnum;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+import ru.example.minesweeper.repositories.GameMoveRepository;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventLogGameStoreTest {
+
+    private static final long SEED = 77L;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GameMoveRepository gameMoveRepository;
+
+    private final List<GameMove> log = new ArrayList<>();
+
+    private EventLogGameStore store;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        store = new EventLogGameStore(gameRepository, gameMoveRepository, 3);
+
+        when(gameMoveRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            log.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(gameMoveRepository.findByGameIdAndSeqGreaterThanOrderBySeq(any(UUID.class), anyLong()))
+                .thenAnswer(invocation -> log.stream()
+                        .filter(move -> move.getSeq() > (long) invocation.getArgument(1))
+                        .toList());
+        when(gameMoveRepository.findByGameIdAndSeqLessThanEqualOrderBySeq(any(UUID.class), anyLong()))
+                .thenAnswer(invocation -> log.stream()
+                        .filter(move -> move.getSeq() <= (long) invocation.getArgument(1))
+                        .toList());
+    }
+
+    @Test
+    void testMovesAreAppendedAndSnapshotTakenEveryInterval() {
+        Game game = newGame();
+        CachedGame cached = new CachedGame(game, Minefield.create(10, 10, 10, SEED, false));
+
+        play(cached, 2);
+        store.save(List.of(cached));
+
+        assertEquals(2, log.size());
+        assertEquals(0, game.getSnapshotVersion());
+        verify(gameRepository, never()).saveAll(anyList());
+
+        play(cached, 1);
+        store.save(List.of(cached));
+
+        assertEquals(3, log.size());
+        assertEquals(3, game.getSnapshotVersion());
+        verify(gameRepository).saveAll(List.of(game));
+    }
+
+    @Test
+    void testLoadReplaysMovesAfterSnapshot() {
+        Game game = newGame();
+        CachedGame cached = new CachedGame(game, Minefield.create(10, 10, 10, SEED, false));
+        play(cached, 4);
+        store.save(List.of(cached));
+        byte[] expected = cached.getMinefield().fieldToBytes();
+
+        Game stored = copy(game);
+        when(gameRepository.findById(game.getId())).thenReturn(Optional.of(stored));
+        CachedGame loaded = store.load(game.getId()).orElseThrow();
+
+        assertArrayEquals(expected, loaded.getMinefield().fieldToBytes());
+        assertEquals(game.getBoardVersion(), stored.getBoardVersion());
+        assertEquals(game.isCompleted(), stored.isCompleted());
+    }
+
+    @Test
+    void testReplayRebuildsBoardFromSeed() {
+        Game game = newGame();
+        CachedGame cached = new CachedGame(game, Minefield.create(10, 10, 10, SEED, false));
+        play(cached, 1);
+        byte[] afterFirstMove = cached.getMinefield().fieldToBytes();
+        play(cached, 2);
+        store.save(List.of(cached));
+
+        ReplayedGame replayed = store.replay(game, 1);
+
+        assertEquals(1, replayed.version());
+        assertArrayEquals(afterFirstMove, replayed.minefield().fieldToBytes());
+        assertArrayEquals(cached.getMinefield().fieldToBytes(),
+                store.replay(game, Long.MAX_VALUE).minefield().fieldToBytes());
+    }
+
+    @Test
+    void testFailedSaveKeepsPendingMoves() {
+        Game game = newGame();
+        CachedGame cached = new CachedGame(game, Minefield.create(10, 10, 10, SEED, false));
+        play(cached, 2);
+        when(gameMoveRepository.saveAll(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> store.save(List.of(cached)));
+
+        assertEquals(2, cached.drainPendingMoves().size());
+    }
+
+    /**
+     * Opens the first {@code moves} unrevealed safe cells in row-major order, as GameService does.
+     */
+    private void play(CachedGame cached, int moves) {
+        Minefield minefield = cached.getMinefield();
+        Game game = cached.getGame();
+        for (int i = 0; i < minefield.getHeight() && moves > 0 && !game.isCompleted(); i++) {
+            for (int j = 0; j < minefield.getWidth() && moves > 0 && !game.isCompleted(); j++) {
+                if (!minefield.isMine(i, j) && !minefield.isRevealed(i, j)) {
+                    if (minefield.applyTurn(i, j) != TurnOutcomeEnum.OPENED) {
+                        game.setCompleted(true);
+                    }
+                    game.setBoardVersion(game.getBoardVersion() + 1);
+                    cached.recordMove(TurnActionEnum.REVEAL, i, j);
+                    moves--;
+                }
+            }
+        }
+    }
+
+    private Game newGame() {
+        Game game = Game.builder()
+                .height(10)
+                .width(10)
+                .minesCount(10)
+                .seed(SEED)
+                .field(Minefield.create(10, 10, 10, SEED, false).fieldToBytes())
+                .build();
+        ReflectionTestUtils.setField(game, "id", UUID.randomUUID());
+        return game;
+    }
+
+    private Game copy(Game game) {
+        Game copy = Game.builder()
+                .height(game.getHeight())
+                .width(game.getWidth())
+                .minesCount(game.getMinesCount())
+                .seed(game.getSeed())
+                .completed(game.isCompleted())
+                .boardVersion(game.getSnapshotVersion())
+                .snapshotVersion(game.getSnapshotVersion())
+                .field(game.getField())
+                .build();
+        ReflectionTestUtils.setField(copy, "id", game.getId());
+        return copy;
+    }
+}
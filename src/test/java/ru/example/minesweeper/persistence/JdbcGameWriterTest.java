@@ -0,0 +1,235 @@
+package ru.example.minesweeper.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.managers.FieldManager;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.model.GameMove;
+import ru.example.minesweeper.model.TurnActionEnum;
+import ru.example.minesweeper.repositories.GameMoveRepository;
+import ru.example.minesweeper.repositories.GameRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JdbcGameWriterTest {
+
+    private static final int GAMES = 10;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private JdbcGameWriter writer;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        writer = new JdbcGameWriter(jdbcTemplate);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testUpdateWritesBoardAndBumpsRowVersion() {
+        Game game = newGames(1).get(0);
+        byte[] field = playedField();
+        game.setField(field);
+        game.setCompleted(true);
+        game.setBoardVersion(7);
+
+        writer.updateBoards(rows(List.of(game)));
+
+        Game stored = gameRepository.findById(game.getId()).orElseThrow();
+        assertArrayEquals(field, stored.getField());
+        assertTrue(stored.isCompleted());
+        assertEquals(7, stored.getBoardVersion());
+        assertEquals(game.getRowVersion(), stored.getRowVersion());
+        assertEquals(1, stored.getRowVersion());
+    }
+
+    /**
+     * A turn can land between the copy taken under the game's monitor and the write; both writers
+     * must store the copied row, not whatever the live game holds by then.
+     */
+    @Test
+    void testWritersBindTheCopiedRow() {
+        List<Game> games = newGames(2);
+        byte[] field = playedField();
+        for (Game game : games) {
+            game.setField(field);
+            game.setBoardVersion(1);
+        }
+        List<BoardRow> copied = rows(games);
+        for (Game game : games) {
+            game.setField(new FieldManager(9, 9).fieldToBytes());
+            game.setCompleted(true);
+            game.setBoardVersion(5);
+        }
+
+        writer.updateBoards(copied.subList(0, 1));
+        new JpaGameWriter(gameRepository, gameMoveRepository).updateBoards(copied.subList(1, 2));
+
+        for (Game game : games) {
+            Game stored = gameRepository.findById(game.getId()).orElseThrow();
+            assertArrayEquals(field, stored.getField());
+            assertFalse(stored.isCompleted());
+            assertEquals(1, stored.getBoardVersion());
+            assertEquals(1, stored.getRowVersion());
+            assertEquals(1, game.getRowVersion());
+        }
+    }
+
+    @Test
+    void testStaleRowIsReportedAndOthersAreWritten() {
+        List<Game> games = newGames(2);
+        Game stale = games.get(1);
+        jdbcTemplate.update("UPDATE games SET row_version = row_version + 1 WHERE id = ?", stale.getId());
+
+        assertThrows(OptimisticLockingFailureException.class, () -> writer.updateBoards(rows(games)));
+
+        assertEquals(1, games.get(0).getRowVersion());
+        assertEquals(0, stale.getRowVersion());
+        writer.updateBoards(rows(List.of(games.get(0))));
+        assertEquals(2, gameRepository.findById(games.get(0).getId()).orElseThrow().getRowVersion());
+    }
+
+    /**
+     * The event-log store saves in one transaction, so a stale game rolls back the rows of the
+     * fresh ones as well; their row versions in memory must stay at what the database still has.
+     */
+    @Test
+    void testRolledBackEventLogSaveKeepsRowVersions() {
+        EventLogGameStore store = new EventLogGameStore(gameRepository, gameMoveRepository, writer,
+                GameArchive.NONE, 1, GameMetrics.standalone());
+        List<Game> games = newGames(2);
+        CachedGame fresh = playedGame(games.get(0));
+        CachedGame stale = playedGame(games.get(1));
+        jdbcTemplate.update("UPDATE games SET row_version = row_version + 1 WHERE id = ?", stale.getGame().getId());
+
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(
+                status -> store.save(List.of(fresh, stale))));
+
+        assertEquals(0, fresh.getGame().getRowVersion());
+        assertEquals(0, gameRepository.findById(fresh.getGame().getId()).orElseThrow().getRowVersion());
+        assertTrue(gameMoveRepository.findByGameIdAndSeqGreaterThanOrderBySeq(fresh.getGame().getId(), 0).isEmpty());
+
+        transactionTemplate.executeWithoutResult(status -> store.save(List.of(fresh)));
+
+        Game stored = gameRepository.findById(fresh.getGame().getId()).orElseThrow();
+        assertEquals(1, fresh.getGame().getRowVersion());
+        assertEquals(1, stored.getRowVersion());
+        assertEquals(1, stored.getSnapshotVersion());
+        assertEquals(1, gameMoveRepository.findByGameIdAndSeqGreaterThanOrderBySeq(stored.getId(), 0).size());
+    }
+
+    @Test
+    void testInsertMoves() {
+        Game game = newGames(1).get(0);
+        List<GameMove> moves = new ArrayList<>();
+        for (int seq = 1; seq <= 5; seq++) {
+            moves.add(GameMove.builder().gameId(game.getId()).seq(seq).row(seq).col(0).build());
+        }
+
+        writer.insertMoves(moves);
+
+        assertEquals(5, gameMoveRepository.findByGameIdAndSeqGreaterThanOrderBySeq(game.getId(), 0).size());
+    }
+
+    /**
+     * Statements Hibernate prepares to save a batch of existing games: the repository merges
+     * each detached game with a select and an update, the JDBC writer goes around Hibernate.
+     */
+    @Test
+    void testJdbcWriterSkipsHibernateLoadAndMerge() {
+        List<Game> viaJpa = newGames(GAMES);
+        List<Game> viaJdbc = newGames(GAMES);
+        viaJpa.forEach(game -> game.setField(playedField()));
+        viaJdbc.forEach(game -> game.setField(playedField()));
+
+        statistics.clear();
+        new JpaGameWriter(gameRepository, gameMoveRepository).updateBoards(rows(viaJpa));
+        long jpaStatements = statistics.getPrepareStatementCount();
+        long jpaLoads = statistics.getEntityLoadCount();
+
+        statistics.clear();
+        writer.updateBoards(rows(viaJdbc));
+
+        assertTrue(jpaStatements >= 2L * GAMES, "JPA prepared " + jpaStatements);
+        assertEquals(GAMES, jpaLoads);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        viaJdbc.forEach(game -> assertEquals(1, game.getRowVersion()));
+    }
+
+    private static List<BoardRow> rows(List<Game> games) {
+        return games.stream().map(BoardRow::of).toList();
+    }
+
+    private List<Game> newGames(int count) {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            games.add(gameRepository.save(Game.builder()
+                    .height(9)
+                    .width(9)
+                    .minesCount(10)
+                    .field(new FieldManager(9, 9).fieldToBytes())
+                    .build()));
+        }
+        return games;
+    }
+
+    /**
+     * Opens the first safe cell of the game's board as its one move.
+     */
+    private static CachedGame playedGame(Game game) {
+        FieldManager manager = new FieldManager(game.getField());
+        manager.placeMines(game.getMinesCount(), 1L);
+        CachedGame cached = new CachedGame(game, manager);
+        for (int i = 0; i < manager.getHeight() * manager.getWidth(); i++) {
+            int row = i / manager.getWidth();
+            int col = i % manager.getWidth();
+            if (!manager.isMine(row, col)) {
+                manager.applyTurn(row, col);
+                game.setBoardVersion(1);
+                cached.recordMove(TurnActionEnum.REVEAL, row, col);
+                return cached;
+            }
+        }
+        throw new IllegalStateException("No safe cell");
+    }
+
+    private static byte[] playedField() {
+        FieldManager manager = new FieldManager(9, 9);
+        manager.placeMines(10, 1L);
+        manager.revealCell(0, 0);
+        return manager.fieldToBytes();
+    }
+}
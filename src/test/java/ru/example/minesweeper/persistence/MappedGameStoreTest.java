@@ -0,0 +1,215 @@
+package ru.example.minesweeper.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.metrics.GameMetrics;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedGameStoreTest {
+
+    private static final long SEED = 77L;
+
+    @TempDir
+    private Path directory;
+
+    private MappedGameStore store;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testCreatedGameIsLoadedWithItsBoard() {
+        store = open(4096);
+        Game game = store.create(newGame());
+
+        CachedGame loaded = store.load(game.getId()).orElseThrow();
+
+        assertEquals(10, loaded.getGame().getHeight());
+        assertEquals(SEED, loaded.getGame().getSeed());
+        assertArrayEquals(game.getField(), loaded.getGame().getField());
+        assertEquals(new GameMetadata(game.getId(), 10, 10, 10, false, 0), store.loadMetadata(game.getId()).orElseThrow());
+        assertTrue(store.load(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void testSaveAppendsNewVersionAndRejectsStaleCopy() {
+        store = open(4096);
+        Game game = store.create(newGame());
+        CachedGame first = store.load(game.getId()).orElseThrow();
+        CachedGame second = store.load(game.getId()).orElseThrow();
+
+        play(first, 0, 0);
+        store.save(List.of(first));
+
+        assertEquals(1, first.getGame().getRowVersion());
+        assertEquals(1, store.load(game.getId()).orElseThrow().getGame().getBoardVersion());
+        assertTrue(store.garbageBytes() > 0);
+
+        play(second, 0, 1);
+        assertThrows(OptimisticLockingFailureException.class, () -> store.save(List.of(second)));
+        assertEquals(0, second.getGame().getRowVersion());
+    }
+
+    @Test
+    void testReopenedStoreFindsEveryGameAfterGrowing() throws IOException {
+        store = open(4096);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ids.add(store.create(newGame()).getId());
+        }
+        store.close();
+
+        store = open(4096);
+
+        assertEquals(2000, store.size());
+        for (UUID id : ids) {
+            assertEquals(id, store.load(id).orElseThrow().getGame().getId());
+        }
+    }
+
+    @Test
+    void testUncommittedRecordIsDroppedOnOpen() throws IOException {
+        store = open(4096);
+        Game game = store.create(newGame());
+        CachedGame cached = store.load(game.getId()).orElseThrow();
+        byte[] committedField = cached.getGame().getField();
+        long tornRecord = MappedGameStore.HEADER_SIZE + store.liveBytes();
+        play(cached, 0, 0);
+        store.save(List.of(cached));
+        store.close();
+
+        // a crash before the commit marker of the second record reached the file
+        try (RandomAccessFile file = new RandomAccessFile(path().toFile(), "rw")) {
+            int length = readInt(file, tornRecord);
+            file.seek(tornRecord + 8 + length);
+            file.write(0);
+        }
+        store = open(4096);
+
+        Game recovered = store.load(game.getId()).orElseThrow().getGame();
+        assertEquals(0, recovered.getBoardVersion());
+        assertArrayEquals(committedField, recovered.getField());
+
+        Game another = store.create(newGame());
+        store.close();
+        store = open(4096);
+        assertEquals(2, store.size());
+        assertTrue(store.load(another.getId()).isPresent());
+    }
+
+    @Test
+    void testCompactionKeepsLatestRecordsAndDropsExpiredCompletedGames() throws IOException {
+        store = new MappedGameStore(path(), 4096, false, Duration.ZERO, Duration.ofMillis(1), GameMetrics.standalone());
+        Game live = store.create(newGame());
+        Game completed = newGame();
+        completed.setCompleted(true);
+        store.create(completed);
+        CachedGame cached = store.load(live.getId()).orElseThrow();
+        for (int col = 0; col < 5; col++) {
+            play(cached, 0, col);
+            store.save(List.of(cached));
+        }
+        sleep();
+
+        assertEquals(1, store.compact());
+
+        assertEquals(0, store.garbageBytes());
+        assertEquals(1, store.size());
+        assertEquals(5, store.load(live.getId()).orElseThrow().getGame().getBoardVersion());
+
+        play(cached, 1, 0);
+        store.save(List.of(cached));
+        store.close();
+        store = open(4096);
+        assertEquals(6, store.load(live.getId()).orElseThrow().getGame().getBoardVersion());
+        assertTrue(store.load(completed.getId()).isEmpty());
+    }
+
+    /**
+     * A save that would take the file past its size limit compacts it first, and only fails when
+     * the live games alone fill it.
+     */
+    @Test
+    void testSaveAtSizeLimitCompactsBeforeGivingUp() {
+        store = open(4096);
+        ReflectionTestUtils.setField(store, "maxSize", 16384L);
+        Game game = store.create(newGame());
+        CachedGame cached = store.load(game.getId()).orElseThrow();
+        for (int i = 0; i < 200; i++) {
+            play(cached, i % 10, i / 10 % 10);
+            store.save(List.of(cached));
+        }
+
+        assertEquals(200, store.load(game.getId()).orElseThrow().getGame().getBoardVersion());
+        assertTrue(store.liveBytes() + store.garbageBytes() < 16384);
+
+        MinefieldException ex = assertThrows(MinefieldException.class, () -> {
+            for (int i = 0; i < 200; i++) {
+                store.create(newGame());
+            }
+        });
+        assertTrue(ex.getMessage().startsWith("Game store is full"));
+        assertEquals(200, store.load(game.getId()).orElseThrow().getGame().getBoardVersion());
+    }
+
+    private MappedGameStore open(long initialSize) {
+        return new MappedGameStore(path(), initialSize);
+    }
+
+    private Path path() {
+        return directory.resolve("games.db");
+    }
+
+    private static Game newGame() {
+        Minefield minefield = Minefield.create(10, 10, 10, SEED, false);
+        return Game.builder()
+                .height(10)
+                .width(10)
+                .minesCount(10)
+                .seed(SEED)
+                .field(minefield.fieldToBytes())
+                .build();
+    }
+
+    private static void play(CachedGame cached, int row, int col) {
+        synchronized (cached) {
+            cached.getMinefield().setFlagged(row, col, true);
+            cached.getGame().setBoardVersion(cached.getGame().getBoardVersion() + 1);
+        }
+    }
+
+    private static int readInt(RandomAccessFile file, long position) throws IOException {
+        file.seek(position);
+        return file.readInt();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
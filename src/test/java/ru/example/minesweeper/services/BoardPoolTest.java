@@ -0,0 +1,94 @@
+package ru.example.minesweeper.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.example.minesweeper.dto.PoolStatsResponse;
+import ru.example.minesweeper.managers.Minefield;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardPoolTest {
+
+    private BoardPool boardPool;
+
+    @AfterEach
+    public void tearDown() {
+        if (boardPool != null) {
+            boardPool.stop();
+        }
+    }
+
+    @Test
+    void testTakesReadyBoardsOfTheProfile() throws InterruptedException {
+        boardPool = new BoardPool(4, 1, "9x9x10");
+        boardPool.start();
+        awaitFull(4);
+
+        Set<Long> seeds = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            BoardPool.PooledBoard board = boardPool.take(9, 9, 10).orElseThrow();
+            Minefield minefield = board.minefield();
+
+            assertEquals(9, minefield.getHeight());
+            assertEquals(10, minefield.getMinesCount());
+            assertEquals(0, minefield.getRevealedSafeCells());
+            assertArrayEquals(Minefield.create(9, 9, 10, board.seed(), false).fieldToBytes(), board.field());
+            seeds.add(board.seed());
+        }
+        assertEquals(4, seeds.size());
+        assertEquals(4, stats().getHits());
+    }
+
+    @Test
+    void testRefillsAfterTakeAndReportsLag() throws InterruptedException {
+        boardPool = new BoardPool(2, 1, "16x16x40");
+        boardPool.start();
+        awaitFull(2);
+
+        boardPool.take(16, 16, 40).orElseThrow();
+        awaitFull(2);
+
+        PoolStatsResponse stats = stats();
+        assertTrue(stats.getMaxRefillLagMs() > 0);
+        assertEquals(1.0, stats.getHitRate());
+    }
+
+    @Test
+    void testOtherSizesAreNotPooled() {
+        boardPool = new BoardPool(2, 1, "9x9x10");
+        boardPool.start();
+
+        Optional<BoardPool.PooledBoard> board = boardPool.take(9, 9, 11);
+
+        assertFalse(board.isPresent());
+        assertEquals(0, stats().getMisses());
+    }
+
+    @Test
+    void testDisabledPoolIsAlwaysEmpty() {
+        boardPool = new BoardPool();
+        boardPool.start();
+
+        assertFalse(boardPool.take(9, 9, 10).isPresent());
+        assertTrue(boardPool.stats().isEmpty());
+    }
+
+    private PoolStatsResponse stats() {
+        return boardPool.stats().get(0);
+    }
+
+    private void awaitFull(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (stats().getSize() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, stats().getSize());
+    }
+}
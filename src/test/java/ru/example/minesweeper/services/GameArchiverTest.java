@@ -0,0 +1,129 @@
+package ru.example.minesweeper.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.persistence.GameArchive;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"minefield.cache.enabled=false", "minefield.archive.enabled=false"})
+class GameArchiverTest {
+
+    @Autowired
+    private GameArchiver gameArchiver;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameArchive gameArchive;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCompletedGameIsArchivedAndStillRejectsTurns() throws InterruptedException {
+        UUID gameId = newGame();
+        jdbcTemplate.update("UPDATE games SET completed = true, updated_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofHours(2))), gameId);
+
+        assertTrue(gameArchiver.run() >= 1);
+
+        assertFalse(isLive(gameId));
+        assertTrue(isArchived(gameId));
+        MinefieldException ex = assertThrows(MinefieldException.class, () -> gameService.gameTurn(turn(gameId)));
+        assertEquals("Game already completed", ex.getMessage());
+        assertTrue(isArchived(gameId));
+    }
+
+    @Test
+    void testIdleGameIsRestoredWithItsBoard() throws InterruptedException {
+        UUID gameId = newGame();
+        gameService.gameTurn(turn(gameId));
+        byte[] field = fieldOf(gameId);
+        makeIdle(gameId);
+
+        gameArchiver.run();
+
+        assertFalse(isLive(gameId));
+        assertTrue(isArchived(gameId));
+
+        Game restored = gameArchive.restore(gameId).orElseThrow();
+
+        assertArrayEquals(field, restored.getField());
+        assertTrue(isLive(gameId));
+        assertFalse(isArchived(gameId));
+    }
+
+    @Test
+    void testTurnOnArchivedGameRestoresIt() throws InterruptedException {
+        UUID gameId = newGame();
+        makeIdle(gameId);
+        gameArchiver.run();
+        assertTrue(isArchived(gameId));
+
+        GameInfoResponse response = gameService.gameTurn(turn(gameId));
+
+        assertEquals(gameId, response.getGameId());
+        assertTrue(isLive(gameId));
+        assertFalse(isArchived(gameId));
+    }
+
+    @Test
+    void testRecentGameStaysLive() throws InterruptedException {
+        UUID gameId = newGame();
+        jdbcTemplate.update("UPDATE games SET completed = true WHERE id = ?", gameId);
+
+        gameArchiver.run();
+
+        assertTrue(isLive(gameId));
+        assertFalse(isArchived(gameId));
+    }
+
+    private UUID newGame() {
+        NewGameRequest request = new NewGameRequest();
+        request.setWidth(10);
+        request.setHeight(10);
+        request.setMinesCount(10);
+        return gameService.createGame(request).getGameId();
+    }
+
+    private static GameTurnRequest turn(UUID gameId) {
+        GameTurnRequest request = new GameTurnRequest();
+        request.setGameId(gameId);
+        return request;
+    }
+
+    private void makeIdle(UUID gameId) {
+        jdbcTemplate.update("UPDATE games SET updated_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(31))), gameId);
+    }
+
+    private byte[] fieldOf(UUID gameId) {
+        return jdbcTemplate.queryForObject("SELECT field FROM games WHERE id = ?", byte[].class, gameId);
+    }
+
+    private boolean isLive(UUID gameId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM games WHERE id = ?", Integer.class, gameId) == 1;
+    }
+
+    private boolean isArchived(UUID gameId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM games_archive WHERE id = ?", Integer.class, gameId) == 1;
+    }
+}
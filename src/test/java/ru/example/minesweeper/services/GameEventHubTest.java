@@ -0,0 +1,119 @@
+package ru.example.minesweeper.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.exceptions.MinefieldException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEventHubTest {
+
+    private final GameEventHub hub = new GameEventHub(4, 2);
+
+    @AfterEach
+    public void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    void testSubscriberGetsStateThenTurnsInOrder() throws InterruptedException {
+        UUID gameId = UUID.randomUUID();
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+
+        hub.subscribe(gameId, response(0), emitter);
+        hub.publish(gameId, response(1));
+        hub.publish(gameId, response(2));
+
+        assertTrue(emitter.awaitEvents(3));
+        assertEquals(List.of("state:0", "turn:1", "turn:2"), emitter.events);
+    }
+
+    @Test
+    void testSlowSubscriberIsDropped() throws InterruptedException {
+        UUID gameId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+        hub.subscribe(gameId, response(0), slow);
+        hub.subscribe(gameId, response(0), fast);
+
+        for (int version = 1; version <= 10; version++) {
+            hub.publish(gameId, response(version));
+            assertTrue(fast.awaitEvents(version + 1));
+        }
+        release.countDown();
+
+        assertTrue(slow.completed);
+        assertEquals(1, hub.subscriberCount());
+        assertEquals(11, fast.events.size());
+    }
+
+    @Test
+    void testSubscribersPerGameAreLimited() {
+        UUID gameId = UUID.randomUUID();
+        hub.subscribe(gameId, response(0), new RecordingEmitter(new CountDownLatch(0)));
+        hub.subscribe(gameId, response(0), new RecordingEmitter(new CountDownLatch(0)));
+
+        assertThrows(MinefieldException.class,
+                () -> hub.subscribe(gameId, response(0), new RecordingEmitter(new CountDownLatch(0))));
+        assertFalse(hub.hasSubscribers(UUID.randomUUID()));
+    }
+
+    private static GameInfoResponse response(long version) {
+        return GameInfoResponse.builder().version(version).changes(List.of()).build();
+    }
+
+    /**
+     * Keeps "name:id" of every event sent; each send waits for {@code release}.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+            String text = builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining());
+            String name = text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:")));
+            String id = text.substring(text.indexOf("id:") + 3, text.indexOf('\n', text.indexOf("id:")));
+            events.add(name + ":" + id);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        boolean awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            return events.size() >= count;
+        }
+    }
+}
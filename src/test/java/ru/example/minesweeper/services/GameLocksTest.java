@@ -0,0 +1,72 @@
+package ru.example.minesweeper.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameLocksTest {
+
+    private final GameLocks gameLocks = new GameLocks();
+
+    @Test
+    void testSameGameRunsOneAtATime() throws Exception {
+        UUID gameId = UUID.randomUUID();
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> gameLocks.withLock(gameId, () -> {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    Thread.onSpinWait();
+                    return inside.decrementAndGet();
+                }));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, maxInside.get());
+        assertEquals(0, gameLocks.size());
+    }
+
+    @Test
+    void testDifferentGamesDoNotBlockEachOther() throws Exception {
+        CountDownLatch firstInside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Boolean> holder = executor.submit(() -> gameLocks.withLock(UUID.randomUUID(), () -> {
+                firstInside.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(firstInside.await(10, TimeUnit.SECONDS));
+
+            assertEquals("done", gameLocks.withLock(UUID.randomUUID(), () -> "done"));
+            assertEquals(1, gameLocks.size());
+
+            release.countDown();
+            assertTrue(holder.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, gameLocks.size());
+    }
+}
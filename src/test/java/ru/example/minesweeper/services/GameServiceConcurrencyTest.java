@@ -0,0 +1,111 @@
+package ru.example.minesweeper.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.example.minesweeper.cache.CachedGame;
+import ru.example.minesweeper.dto.GameInfoResponse;
+import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.managers.Minefield;
+import ru.example.minesweeper.persistence.GameStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel turns against a few shared games with the cache disabled, so every turn loads and
+ * saves the row itself: the case where unsynchronized turns used to overwrite each other.
+ */
+@SpringBootTest(properties = "minefield.cache.enabled=false")
+class GameServiceConcurrencyTest {
+
+    private static final int GAMES = 4;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameStore gameStore;
+
+    @Test
+    void testParallelTurnsAreNotLost() throws Exception {
+        Map<UUID, List<int[]>> cellsByGame = new HashMap<>();
+        for (int i = 0; i < GAMES; i++) {
+            NewGameRequest newGame = new NewGameRequest();
+            newGame.setHeight(20);
+            newGame.setWidth(20);
+            newGame.setMinesCount(120);
+            UUID gameId = gameService.createGame(newGame).getGameId();
+            cellsByGame.put(gameId, singleCellMoves(gameStore.load(gameId).orElseThrow().getMinefield()));
+        }
+
+        List<Callable<GameInfoResponse>> turns = new ArrayList<>();
+        cellsByGame.forEach((gameId, cells) -> cells.forEach(cell -> turns.add(() -> {
+            GameTurnRequest request = new GameTurnRequest();
+            request.setGameId(gameId);
+            request.setRow(cell[0]);
+            request.setCol(cell[1]);
+            request.setDelta(true);
+            return gameService.gameTurn(request);
+        })));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<GameInfoResponse> result : executor.invokeAll(turns)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        cellsByGame.forEach((gameId, cells) -> {
+            CachedGame stored = gameStore.load(gameId).orElseThrow();
+            Minefield minefield = stored.getMinefield();
+
+            assertEquals(cells.size(), stored.getGame().getBoardVersion());
+            assertEquals(cells.size(), minefield.getRevealedSafeCells());
+            cells.forEach(cell -> assertTrue(minefield.isRevealed(cell[0], cell[1])));
+        });
+    }
+
+    /**
+     * Safe cells with a mine nearby: opening one never cascades, so every move in the list
+     * is valid in any order and opens exactly one cell.
+     */
+    private List<int[]> singleCellMoves(Minefield minefield) {
+        List<int[]> cells = new ArrayList<>();
+        for (int i = 0; i < minefield.getHeight(); i++) {
+            for (int j = 0; j < minefield.getWidth(); j++) {
+                if (!minefield.isMine(i, j) && hasMineNearby(minefield, i, j)) {
+                    cells.add(new int[]{i, j});
+                }
+            }
+        }
+        return cells;
+    }
+
+    private boolean hasMineNearby(Minefield minefield, int row, int col) {
+        for (int i = Math.max(0, row - 1); i <= Math.min(minefield.getHeight() - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(minefield.getWidth() - 1, col + 1); j++) {
+                if (minefield.isMine(i, j)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
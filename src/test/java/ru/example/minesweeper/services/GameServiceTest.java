@@ -1,34 +1,56 @@
 package ru.example.minesweeper.services;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
+import ru.example.minesweeper.cache.GameCache;
+import ru.example.minesweeper.dto.BoardFormat;
+import ru.example.minesweeper.dto.GameBatchTurnRequest;
+import ru.example.minesweeper.dto.GameBatchTurnResponse;
 import ru.example.minesweeper.dto.GameInfoResponse;
 import ru.example.minesweeper.dto.GameTurnRequest;
+import ru.example.minesweeper.dto.HintResponse;
+import ru.example.minesweeper.dto.MoveResult;
 import ru.example.minesweeper.dto.NewGameRequest;
+import ru.example.minesweeper.dto.TurnMove;
 import ru.example.minesweeper.exceptions.MinefieldException;
+import ru.example.minesweeper.managers.FieldManager;
+import ru.example.minesweeper.managers.Minefield;
 import ru.example.minesweeper.model.FieldCell;
 import ru.example.minesweeper.model.FieldCellValueEnum;
 import ru.example.minesweeper.model.Game;
+import ru.example.minesweeper.model.GameMetadata;
+import ru.example.minesweeper.model.TurnActionEnum;
+import ru.example.minesweeper.model.TurnOutcomeEnum;
+import ru.example.minesweeper.persistence.BlobGameStore;
 import ru.example.minesweeper.repositories.GameRepository;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -47,6 +69,15 @@ class GameServiceTest {
     public void setup() {
         MockitoAnnotations.initMocks(this);
         ReflectionTestUtils.setField(gameService, "FIELD_LENGTH", 30);
+        ReflectionTestUtils.setField(gameService, "MAX_BATCH_MOVES", 1000);
+        ReflectionTestUtils.setField(gameService, "CHUNKED_THRESHOLD_CELLS", 1_000_000L);
+        BlobGameStore gameStore = new BlobGameStore(gameRepository);
+        ReflectionTestUtils.setField(gameService, "gameStore", gameStore);
+        ReflectionTestUtils.setField(gameService, "gameLocks", new GameLocks());
+        ReflectionTestUtils.setField(gameService, "MAX_TURN_ATTEMPTS", 3);
+        ReflectionTestUtils.setField(gameService, "gameCache", new GameCache(gameStore, false, 0));
+        given(gameRepository.findMetadataById(any(UUID.class)))
+                .willAnswer(invocation -> gameRepository.findById((UUID) invocation.getArgument(0)).map(GameMetadata::of));
     }
 
     @Test
@@ -74,6 +105,103 @@ class GameServiceTest {
         assertFalse(response.isCompleted());
     }
 
+    @Test
+    void testCreateGame_TakesBoardFromPool() throws InterruptedException {
+        BoardPool boardPool = new BoardPool(1, 1, "10x10x20");
+        boardPool.start();
+        ReflectionTestUtils.setField(gameService, "boardPool", boardPool);
+        while (boardPool.stats().get(0).getSize() == 0) {
+            Thread.sleep(5);
+        }
+        given(gameRepository.save(any(Game.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        NewGameRequest newGameRequest = new NewGameRequest();
+        newGameRequest.setHeight(10);
+        newGameRequest.setWidth(10);
+        newGameRequest.setMinesCount(20);
+        gameService.createGame(newGameRequest);
+
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepository).save(saved.capture());
+        assertArrayEquals(Minefield.create(10, 10, 20, saved.getValue().getSeed(), false).fieldToBytes(),
+                saved.getValue().getField());
+        assertEquals(1, boardPool.stats().get(0).getHits());
+        boardPool.stop();
+    }
+
+    @Test
+    void testCreateGame_NoGuessBoardIsEmptyAtStartCell() {
+        given(gameRepository.save(any(Game.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        NewGameRequest newGameRequest = new NewGameRequest();
+        newGameRequest.setHeight(9);
+        newGameRequest.setWidth(9);
+        newGameRequest.setMinesCount(10);
+        newGameRequest.setNoGuess(true);
+        newGameRequest.setStartRow(0);
+        newGameRequest.setStartCol(0);
+
+        GameInfoResponse response = gameService.createGame(newGameRequest);
+
+        assertTrue(response.getNoGuess());
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepository).save(saved.capture());
+        Minefield board = Minefield.create(9, 9, 10, saved.getValue().getSeed(), false);
+        assertEquals(0, board.getNearbyMines(0, 0));
+        assertFalse(board.isMine(0, 0));
+    }
+
+    @Test
+    void testCreateGame_NoGuessRejectsStartOutsideBoard() {
+        NewGameRequest newGameRequest = new NewGameRequest();
+        newGameRequest.setHeight(9);
+        newGameRequest.setWidth(9);
+        newGameRequest.setMinesCount(10);
+        newGameRequest.setNoGuess(true);
+        newGameRequest.setStartRow(9);
+
+        MinefieldException minefieldException = assertThrows(
+                MinefieldException.class,
+                () -> gameService.createGame(newGameRequest)
+        );
+        assertEquals("Invalid start cell", minefieldException.getMessage());
+    }
+
+    @Test
+    void testCreateGame_ChunkedAboveThreshold() {
+        ReflectionTestUtils.setField(gameService, "FIELD_LENGTH", 100_000);
+        UUID gameId = UUID.randomUUID();
+        NewGameRequest newGameRequest = new NewGameRequest();
+        newGameRequest.setHeight(100_000);
+        newGameRequest.setWidth(100_000);
+        newGameRequest.setMinesCount(1_000_000_000);
+        given(gameRepository.save(any(Game.class)))
+                .willAnswer(invocation -> {
+                    Game game = invocation.getArgument(0);
+                    ReflectionTestUtils.setField(game, "id", gameId);
+                    given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+
+                    return game;
+                });
+
+        GameInfoResponse response = gameService.createGame(newGameRequest);
+
+        assertNull(response.getField());
+        assertTrue(response.getChanges().isEmpty());
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(50_000);
+        turnRequest.setCol(50_000);
+
+        GameInfoResponse turnResponse = gameService.gameTurn(turnRequest);
+
+        assertNull(turnResponse.getField());
+        assertFalse(turnResponse.getChanges().isEmpty());
+        assertTrue(turnResponse.getChanges().stream()
+                .anyMatch(change -> change.getRow() == 50_000 && change.getCol() == 50_000));
+    }
+
     @Test
     void testCreateGame_IncorrectFieldSize() {
         NewGameRequest mockNewGameRequest = mock(NewGameRequest.class);
@@ -121,8 +249,8 @@ class GameServiceTest {
             }
         }
 
-        String stringField = objectMapper.writeValueAsString(mockField);
-        when(game.getField()).thenReturn(stringField);
+        byte[] legacyField = objectMapper.writeValueAsBytes(mockField);
+        when(game.getField()).thenReturn(legacyField);
         when(game.getHeight()).thenReturn(height);
         when(game.getWidth()).thenReturn(width);
 
@@ -135,8 +263,13 @@ class GameServiceTest {
 
         gameService.gameTurn(mockGameTurnRequest);
 
-        verify(game).setField(anyString());
-        verify(gameRepository).save(game);
+        verify(game).setField(any(byte[].class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Game>> saved = ArgumentCaptor.forClass(List.class);
+        verify(gameRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(height, saved.getValue().get(0).getHeight());
+        assertEquals(width, saved.getValue().get(0).getWidth());
     }
 
     @Test
@@ -158,8 +291,8 @@ class GameServiceTest {
             }
         }
 
-        String stringField = objectMapper.writeValueAsString(mockField);
-        when(game.getField()).thenReturn(stringField);
+        byte[] legacyField = objectMapper.writeValueAsBytes(mockField);
+        when(game.getField()).thenReturn(legacyField);
         when(game.getHeight()).thenReturn(height);
         when(game.getWidth()).thenReturn(width);
 
@@ -175,6 +308,281 @@ class GameServiceTest {
         verify(game).setCompleted(true);
     }
 
+    @Test
+    void testGameTurn_DeltaResponse() {
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(3, 3);
+        board.getField()[0][0].setMine(true);
+
+        Game game = Game.builder().height(3).width(3).minesCount(1).field(board.fieldToBytes()).build();
+        ReflectionTestUtils.setField(game, "id", gameId);
+        given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(2);
+        turnRequest.setCol(2);
+        turnRequest.setDelta(true);
+
+        GameInfoResponse response = gameService.gameTurn(turnRequest);
+
+        assertNull(response.getField());
+        assertEquals(1L, response.getVersion());
+        assertTrue(response.isCompleted());
+        assertEquals(9, response.getChanges().size());
+        assertTrue(response.getChanges().stream()
+                .anyMatch(change -> change.getRow() == 0 && change.getCol() == 0 && change.getSymbol().equals("M")));
+        assertTrue(response.getChanges().stream()
+                .anyMatch(change -> change.getRow() == 1 && change.getCol() == 1 && change.getSymbol().equals("1")));
+    }
+
+    @Test
+    void testGameTurn_CompactFormats() {
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(3, 3);
+        board.getField()[0][0].setMine(true);
+
+        Game game = Game.builder().height(3).width(3).minesCount(1).field(board.fieldToBytes()).build();
+        ReflectionTestUtils.setField(game, "id", gameId);
+        given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(0);
+        turnRequest.setCol(1);
+        turnRequest.setFormat(BoardFormat.ROWS);
+        GameInfoResponse rows = gameService.gameTurn(turnRequest);
+
+        assertNull(rows.getField());
+        assertArrayEquals(new String[]{" 1 ", "   ", "   "}, rows.getRows());
+
+        turnRequest.setRow(2);
+        turnRequest.setCol(2);
+        turnRequest.setFormat(BoardFormat.RLE);
+        GameInfoResponse rle = gameService.gameTurn(turnRequest);
+
+        assertTrue(rle.isCompleted());
+        assertEquals("M,1,0,12,04", rle.getFieldRle());
+    }
+
+    @Test
+    void testGameTurns_AppliesMovesInOrderAndSavesOnce() {
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(3, 3);
+        board.getField()[0][0].setMine(true);
+
+        Game game = Game.builder().height(3).width(3).minesCount(1).field(board.fieldToBytes()).build();
+        ReflectionTestUtils.setField(game, "id", gameId);
+        given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+
+        GameBatchTurnRequest batchRequest = new GameBatchTurnRequest();
+        batchRequest.setGameId(gameId);
+        batchRequest.setMoves(List.of(
+                new TurnMove(0, 1),
+                new TurnMove(5, 5),
+                new TurnMove(0, 1),
+                new TurnMove(0, 0),
+                new TurnMove(2, 2)
+        ));
+
+        GameBatchTurnResponse response = gameService.gameTurns(batchRequest);
+
+        List<MoveResult> moves = response.getMoves();
+        assertEquals(TurnOutcomeEnum.OPENED, moves.get(0).getOutcome());
+        assertEquals(1, moves.get(0).getOpened());
+        assertEquals(TurnOutcomeEnum.REJECTED, moves.get(1).getOutcome());
+        assertEquals("Invalid move coordinates", moves.get(1).getError());
+        assertEquals(TurnOutcomeEnum.REJECTED, moves.get(2).getOutcome());
+        assertEquals("Cell already revealed", moves.get(2).getError());
+        assertEquals(TurnOutcomeEnum.EXPLODED, moves.get(3).getOutcome());
+        assertEquals(TurnOutcomeEnum.SKIPPED, moves.get(4).getOutcome());
+
+        assertTrue(response.getGame().isCompleted());
+        assertEquals(2L, response.getGame().getVersion());
+        assertEquals("X", response.getGame().getField()[0][0]);
+        assertEquals("1", response.getGame().getField()[0][1]);
+        verify(gameRepository, times(1)).saveAll(List.of(game));
+    }
+
+    @Test
+    void testGameTurns_FlagAndChordSaveOnce() {
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(3, 3);
+        board.getField()[0][0].setMine(true);
+
+        Game game = Game.builder().height(3).width(3).minesCount(1).field(board.fieldToBytes()).build();
+        ReflectionTestUtils.setField(game, "id", gameId);
+        given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+
+        GameBatchTurnRequest batchRequest = new GameBatchTurnRequest();
+        batchRequest.setGameId(gameId);
+        batchRequest.setMoves(List.of(
+                new TurnMove(1, 1),
+                new TurnMove(1, 1, TurnActionEnum.CHORD),
+                new TurnMove(0, 0, TurnActionEnum.FLAG),
+                new TurnMove(1, 1, TurnActionEnum.CHORD)
+        ));
+
+        GameBatchTurnResponse response = gameService.gameTurns(batchRequest);
+
+        List<MoveResult> moves = response.getMoves();
+        assertEquals(TurnOutcomeEnum.OPENED, moves.get(0).getOutcome());
+        assertEquals(TurnOutcomeEnum.REJECTED, moves.get(1).getOutcome());
+        assertEquals("Flags around cell do not match its number", moves.get(1).getError());
+        assertEquals(TurnOutcomeEnum.FLAGGED, moves.get(2).getOutcome());
+        assertEquals(TurnOutcomeEnum.WON, moves.get(3).getOutcome());
+        assertEquals(7, moves.get(3).getOpened());
+
+        assertTrue(response.getGame().isCompleted());
+        assertEquals(3L, response.getGame().getVersion());
+        verify(gameRepository, times(1)).saveAll(List.of(game));
+    }
+
+    @Test
+    void testGameTurn_AutoOpenRevealsProvenSafeCells() {
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(3, 3);
+        board.getField()[0][0].setMine(true);
+        board.getField()[2][2].setMine(true);
+
+        Game game = Game.builder().height(3).width(3).minesCount(2).field(board.fieldToBytes()).build();
+        ReflectionTestUtils.setField(game, "id", gameId);
+        given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(0);
+        turnRequest.setCol(2);
+        turnRequest.setAutoOpen(true);
+
+        GameInfoResponse response = gameService.gameTurn(turnRequest);
+
+        // the opened 1, 2, 1 leave (2, 0) mine-free in every layout; opening it wins
+        assertTrue(response.isCompleted());
+        assertEquals(2L, response.getVersion());
+        assertEquals("0", response.getField()[2][0]);
+        verify(gameRepository, times(1)).saveAll(List.of(game));
+    }
+
+    @Test
+    void testHint_ListsSafeCellsAndMines() {
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(1, 3);
+        board.getField()[0][0].setMine(true);
+
+        Game game = Game.builder().height(1).width(3).minesCount(1).field(board.fieldToBytes()).build();
+        ReflectionTestUtils.setField(game, "id", gameId);
+        given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(0);
+        turnRequest.setCol(1);
+        gameService.gameTurn(turnRequest);
+
+        HintResponse hint = gameService.hint(gameId, null, null);
+
+        assertFalse(hint.isPartial());
+        assertTrue(hint.getSafe().isEmpty());
+        assertEquals(2, hint.getGuesses().size());
+        assertEquals(0.5, hint.getGuesses().get(0).getMineProbability(), 1e-9);
+    }
+
+    @Test
+    void testGameTurn_PublishesChangesToSubscribers() {
+        GameEventHub gameEventHub = mock(GameEventHub.class);
+        ReflectionTestUtils.setField(gameService, "gameEventHub", gameEventHub);
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(3, 3);
+        board.getField()[0][0].setMine(true);
+
+        Game game = Game.builder().height(3).width(3).minesCount(1).field(board.fieldToBytes()).build();
+        ReflectionTestUtils.setField(game, "id", gameId);
+        given(gameRepository.findById(gameId)).willReturn(Optional.of(game));
+        given(gameEventHub.hasSubscribers(gameId)).willReturn(true);
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(0);
+        turnRequest.setCol(1);
+        gameService.gameTurn(turnRequest);
+
+        ArgumentCaptor<GameInfoResponse> published = ArgumentCaptor.forClass(GameInfoResponse.class);
+        verify(gameEventHub).publish(eq(gameId), published.capture());
+        assertEquals(1L, published.getValue().getVersion());
+        assertEquals(1, published.getValue().getChanges().size());
+    }
+
+    @Test
+    void testGameTurn_RetriesOnConcurrentModification() {
+        UUID gameId = UUID.randomUUID();
+        FieldManager board = new FieldManager(3, 3);
+        board.getField()[0][0].setMine(true);
+        byte[] field = board.fieldToBytes();
+
+        given(gameRepository.findById(gameId)).willAnswer(invocation -> {
+            Game game = Game.builder().height(3).width(3).minesCount(1).field(field).build();
+            ReflectionTestUtils.setField(game, "id", gameId);
+            return Optional.of(game);
+        });
+        // stubbed apart from findById, which then only counts board loads
+        willReturn(Optional.of(new GameMetadata(gameId, 3, 3, 1, false, 0)))
+                .given(gameRepository).findMetadataById(gameId);
+        given(gameRepository.saveAll(anyList()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Game.class, gameId))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(0);
+        turnRequest.setCol(1);
+
+        GameInfoResponse response = gameService.gameTurn(turnRequest);
+
+        assertEquals(1L, response.getVersion());
+        assertEquals("1", response.getField()[0][1]);
+        verify(gameRepository, times(2)).findById(gameId);
+        verify(gameRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void testGameTurn_GivesUpAfterMaxAttempts() {
+        UUID gameId = UUID.randomUUID();
+        byte[] field = new FieldManager(3, 3).fieldToBytes();
+
+        given(gameRepository.findById(gameId)).willAnswer(invocation -> {
+            Game game = Game.builder().height(3).width(3).minesCount(0).field(field).build();
+            ReflectionTestUtils.setField(game, "id", gameId);
+            return Optional.of(game);
+        });
+        given(gameRepository.saveAll(anyList()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Game.class, gameId));
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+
+        MinefieldException minefieldException = assertThrows(
+                MinefieldException.class,
+                () -> gameService.gameTurn(turnRequest)
+        );
+        assertEquals("Game was modified concurrently, retry the turn", minefieldException.getMessage());
+        verify(gameRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void testGameTurns_TooManyMoves() {
+        ReflectionTestUtils.setField(gameService, "MAX_BATCH_MOVES", 1);
+        GameBatchTurnRequest batchRequest = new GameBatchTurnRequest();
+        batchRequest.setGameId(UUID.randomUUID());
+        batchRequest.setMoves(List.of(new TurnMove(0, 0), new TurnMove(0, 1)));
+
+        MinefieldException minefieldException = assertThrows(
+                MinefieldException.class,
+                () -> gameService.gameTurns(batchRequest)
+        );
+        assertEquals("Too many moves in batch", minefieldException.getMessage());
+    }
+
     @Test
     void testGameTurn_InvalidCoordinates() {
         UUID gameId = UUID.randomUUID();
@@ -184,7 +592,7 @@ class GameServiceTest {
         when(mockGameTurnRequest.getCol()).thenReturn(5);
 
         Game game = mock(Game.class);
-        when(game.getField()).thenReturn(".......");
+        when(game.getField()).thenReturn(".......".getBytes());
         when(game.getHeight()).thenReturn(3);
         when(game.getWidth()).thenReturn(3);
         when(game.getId()).thenReturn(gameId);
@@ -204,7 +612,7 @@ class GameServiceTest {
 
         Game game = mock(Game.class);
         when(game.isCompleted()).thenReturn(true);
-        when(game.getField()).thenReturn(".......");
+        when(game.getField()).thenReturn(".......".getBytes());
         when(game.getHeight()).thenReturn(3);
         when(game.getWidth()).thenReturn(3);
         when(game.getId()).thenReturn(gameId);
@@ -220,6 +628,25 @@ class GameServiceTest {
         assertEquals("Game already completed", minefieldException.getMessage());
     }
 
+    @Test
+    void testGameTurn_RejectedByMetadataNeverLoadsBoard() {
+        UUID gameId = UUID.randomUUID();
+        willReturn(Optional.of(new GameMetadata(gameId, 3, 3, 1, true, 5)))
+                .given(gameRepository).findMetadataById(gameId);
+
+        GameTurnRequest turnRequest = new GameTurnRequest();
+        turnRequest.setGameId(gameId);
+        turnRequest.setRow(1);
+        turnRequest.setCol(1);
+
+        MinefieldException minefieldException = assertThrows(
+                MinefieldException.class,
+                () -> gameService.gameTurn(turnRequest)
+        );
+        assertEquals("Game already completed", minefieldException.getMessage());
+        verify(gameRepository, never()).findById(gameId);
+    }
+
     @Test
     void testGameTurn_GameNotFound() {
         UUID gameId = UUID.randomUUID();
@@ -233,4 +660,13 @@ class GameServiceTest {
         );
         assertTrue(minefieldException.getMessage().startsWith("There is no Game with id"));
     }
+
+    @Test
+    void testReplayGame_RequiresEventLogStore() {
+        MinefieldException minefieldException = assertThrows(
+                MinefieldException.class,
+                () -> gameService.replayGame(UUID.randomUUID(), null)
+        );
+        assertTrue(minefieldException.getMessage().startsWith("Replay requires"));
+    }
 }
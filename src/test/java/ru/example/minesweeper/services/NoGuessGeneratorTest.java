@@ -0,0 +1,56 @@
+package ru.example.minesweeper.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.example.minesweeper.managers.Minefield;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoGuessGeneratorTest {
+
+    private NoGuessGenerator generator;
+
+    @AfterEach
+    public void tearDown() {
+        generator.stop();
+    }
+
+    @Test
+    void testFindsBoardSolvableFromStartCell() {
+        generator = new NoGuessGenerator(2, 5000);
+        generator.start();
+
+        NoGuessGenerator.Search search = generator.search(9, 9, 10, 4, 4);
+
+        assertTrue(search.seed().isPresent());
+        assertTrue(search.candidates() >= 1);
+        long seed = search.seed().get();
+        Minefield board = Minefield.create(9, 9, 10, seed, false);
+        assertFalse(board.isMine(4, 4));
+        assertEquals(0, board.getNearbyMines(4, 4));
+        assertTrue(generator.isSolvable(9, 9, 10, seed, 4, 4, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testGivesUpAtTimeCap() {
+        generator = new NoGuessGenerator(2, 50);
+        generator.start();
+
+        // with 24 mines on 25 cells no start cell can be empty
+        long start = System.nanoTime();
+        NoGuessGenerator.Search search = generator.search(5, 5, 24, 2, 2);
+
+        assertTrue(search.seed().isEmpty());
+        assertTrue(search.candidates() > 0);
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
+
+    @Test
+    void testSearchesInCallingThreadWhenNotStarted() {
+        generator = new NoGuessGenerator(0, 5000);
+
+        assertTrue(generator.search(9, 9, 10, 0, 0).seed().isPresent());
+    }
+}